@@ -0,0 +1,41 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.BelajarSpringRedisApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Menjalankan application context (tanpa web server) sekali per fork.
+ * Host redis bisa diganti dengan -Dspring.data.redis.host=... di -jvmArgs.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(BelajarSpringRedisApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "logging.level.com.peppo.redis=WARN",
+                        "orders.consumer.consumers=0"
+                )
+                .run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,114 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.Order;
+import com.peppo.redis.OrderCodec;
+import com.peppo.redis.Product;
+import com.peppo.redis.ProductCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.convert.MappingRedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.hash.ObjectHashMapper;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode dan decode Product/Order dengan format bawaan spring data redis dibanding ProductCodec/OrderCodec,
+ * tanpa redis
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    private final Product product = Product.builder()
+            .id("P-001").name("Shampoo Anti Ketombe 170ml").price(50_000L).ttl(-1L).build();
+
+    private final Order order = new Order("4048b99f-c5f3-491c-8446-028578381ac3", 1000L);
+
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+
+    private final ObjectHashMapper objectHashMapper = ObjectHashMapper.getSharedInstance();
+
+    private MappingRedisConverter converter;
+
+    private byte[] jdkProduct;
+
+    private RedisData hashProduct;
+
+    private byte[] binaryProduct;
+
+    private Map<byte[], byte[]> hashOrder;
+
+    private byte[] binaryOrder;
+
+    @Setup
+    public void setup() {
+        converter = new MappingRedisConverter(new RedisMappingContext());
+        converter.afterPropertiesSet();
+
+        jdkProduct = jdk.serialize(product);
+        hashProduct = new RedisData();
+        converter.write(product, hashProduct);
+        binaryProduct = ProductCodec.INSTANCE.encode(product);
+        hashOrder = objectHashMapper.toHash(order);
+        binaryOrder = OrderCodec.INSTANCE.encode(order);
+    }
+
+    @Benchmark
+    public byte[] productJdkEncode() {
+        return jdk.serialize(product);
+    }
+
+    @Benchmark
+    public Object productJdkDecode() {
+        return jdk.deserialize(jdkProduct);
+    }
+
+    @Benchmark
+    public RedisData productHashEncode() {
+        var data = new RedisData();
+        converter.write(product, data);
+        return data;
+    }
+
+    @Benchmark
+    public Product productHashDecode() {
+        return converter.read(Product.class, hashProduct);
+    }
+
+    @Benchmark
+    public byte[] productBinaryEncode() {
+        return ProductCodec.INSTANCE.encode(product);
+    }
+
+    @Benchmark
+    public Product productBinaryDecode() {
+        return ProductCodec.INSTANCE.decode(binaryProduct);
+    }
+
+    @Benchmark
+    public Map<byte[], byte[]> orderHashEncode() {
+        return objectHashMapper.toHash(order);
+    }
+
+    @Benchmark
+    public Order orderHashDecode() {
+        return objectHashMapper.fromHash(hashOrder, Order.class);
+    }
+
+    @Benchmark
+    public byte[] orderBinaryEncode() {
+        return OrderCodec.INSTANCE.encode(order);
+    }
+
+    @Benchmark
+    public Order orderBinaryDecode() {
+        return OrderCodec.INSTANCE.decode(binaryOrder);
+    }
+}
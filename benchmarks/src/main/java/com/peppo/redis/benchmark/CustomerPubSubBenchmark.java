@@ -0,0 +1,47 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.CustomerPublisher;
+import com.peppo.redis.EndToEndLatency;
+import com.peppo.redis.LatencyHistogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency dari CustomerPublisher sampai CustomerListener selesai memproses pesan di channel customers,
+ * lewat container dan dispatcher yang sama dengan aplikasi. Pesan memakai format load generator
+ * jadi CustomerListener mencatatnya di EndToEndLatency, hitungan histogram itu yang ditunggu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerPubSubBenchmark {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private CustomerPublisher customerPublisher;
+
+    private LatencyHistogram received;
+
+    @Setup
+    public void setup(ApplicationState application) {
+        customerPublisher = application.getBean(CustomerPublisher.class);
+        received = application.getBean(EndToEndLatency.class).histogram("customers");
+    }
+
+    @Benchmark
+    public long publishToListener() {
+        long before = received.getCount();
+        customerPublisher.publish(EndToEndLatency.nowMicros());
+
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        long count;
+        while ((count = received.getCount()) == before && System.nanoTime() - deadline < 0) {
+            Thread.onSpinWait();
+        }
+        return count;
+    }
+}
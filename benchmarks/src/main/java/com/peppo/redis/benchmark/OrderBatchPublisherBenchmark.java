@@ -0,0 +1,59 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.Order;
+import com.peppo.redis.OrderBatchPublisher;
+import com.peppo.redis.OrderPublisherProperties;
+import com.peppo.redis.OrderRecordMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput publish sampai XADD selesai per batch size, banyak thread supaya batch benar-benar terisi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class OrderBatchPublisherBenchmark {
+
+    private static final String STREAM = "orders-benchmark";
+
+    @Param({"1", "16", "256"})
+    private int batchSize;
+
+    private StringRedisTemplate redisTemplate;
+
+    private OrderBatchPublisher publisher;
+
+    @Setup
+    public void setup(ApplicationState application) {
+        redisTemplate = application.getBean(StringRedisTemplate.class);
+        redisTemplate.delete(STREAM);
+
+        var properties = new OrderPublisherProperties();
+        properties.setStream(STREAM);
+        properties.setBatchSize(batchSize);
+        properties.setLinger(Duration.ofMillis(2));
+        publisher = new OrderBatchPublisher(redisTemplate, properties, application.getBean(OrderRecordMapper.class));
+        publisher.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        publisher.stop();
+        redisTemplate.delete(STREAM);
+    }
+
+    @Benchmark
+    public RecordId publish() {
+        return publisher.publish(new Order(UUID.randomUUID().toString(), 1000L)).join();
+    }
+}
@@ -0,0 +1,77 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.Order;
+import com.peppo.redis.OrderRecordMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alur order: XADD lewat OrderRecordMapper, lalu XREADGROUP + XACK satu entry seperti consumer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderStreamBenchmark {
+
+    private static final byte[] STREAM = "orders-benchmark".getBytes(StandardCharsets.UTF_8);
+
+    private static final String GROUP = "benchmark-group";
+
+    private RedisConnection connection;
+
+    private OrderRecordMapper orderRecordMapper;
+
+    private final Order order = new Order("4048b99f-c5f3-491c-8446-028578381ac3", 1000L);
+
+    @Setup
+    public void setup(ApplicationState application) {
+        orderRecordMapper = application.getBean(OrderRecordMapper.class);
+        connection = application.getBean(RedisConnectionFactory.class).getConnection();
+        connection.keyCommands().del(STREAM);
+        connection.streamCommands().xAdd(record());
+        connection.streamCommands().xGroupCreate(STREAM, GROUP, ReadOffset.from("0"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        connection.keyCommands().del(STREAM);
+        connection.close();
+    }
+
+    @Benchmark
+    public RecordId xadd() {
+        return connection.streamCommands().xAdd(record(), RedisStreamCommands.XAddOptions.maxlen(10_000).approximateTrimming(true));
+    }
+
+    @Benchmark
+    public Order xaddThenReadGroupAndAck() {
+        connection.streamCommands().xAdd(record(), RedisStreamCommands.XAddOptions.maxlen(10_000).approximateTrimming(true));
+        List<ByteRecord> records = connection.streamCommands().xReadGroup(Consumer.from(GROUP, "benchmark-1"),
+                StreamReadOptions.empty().count(1), StreamOffset.create(STREAM, ReadOffset.lastConsumed()));
+
+        ByteRecord record = records.get(0);
+        connection.streamCommands().xAck(STREAM, GROUP, record.getId());
+        return orderRecordMapper.fromHash(record.getValue());
+    }
+
+    private MapRecord<byte[], byte[], byte[]> record() {
+        return StreamRecords.newRecord().in(STREAM).ofMap(orderRecordMapper.toHash(order));
+    }
+}
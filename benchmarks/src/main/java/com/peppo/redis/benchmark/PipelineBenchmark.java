@@ -0,0 +1,64 @@
+package com.peppo.redis.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Biaya menulis batchSize key dengan SET satu per satu dibanding satu pipeline
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"1", "16", "256"})
+    private int batchSize;
+
+    private StringRedisTemplate redisTemplate;
+
+    private byte[][] keys;
+
+    private final byte[] value = "haris".getBytes(StandardCharsets.UTF_8);
+
+    @Setup
+    public void setup(ApplicationState application) {
+        redisTemplate = application.getBean(StringRedisTemplate.class);
+        keys = new byte[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            keys[i] = ("benchmark:pipeline:" + i).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(keys));
+    }
+
+    @Benchmark
+    public Object nonPipelined() {
+        return redisTemplate.execute((RedisCallback<Object>) connection -> {
+            for (byte[] key : keys) {
+                connection.stringCommands().set(key, value);
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public List<Object> pipelined() {
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] key : keys) {
+                connection.stringCommands().set(key, value);
+            }
+            return null;
+        });
+    }
+}
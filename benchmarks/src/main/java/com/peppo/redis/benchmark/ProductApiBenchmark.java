@@ -0,0 +1,101 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.BelajarSpringRedisApplication;
+import com.peppo.redis.Product;
+import com.peppo.redis.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET dan POST product lewat endpoint blocking dan reactive dengan banyak client bersamaan,
+ * keduanya menyimpan lewat script product-save.lua yang sama.
+ * Tomcat sengaja dibatasi 8 thread supaya beda keduanya terlihat, jumlah client diatur dengan -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class ProductApiBenchmark {
+
+    private static final int PRODUCTS = 100;
+
+    @Param({"/products/", "/reactive/products/"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private URI[] uris;
+
+    private URI saveUri;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BelajarSpringRedisApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=8",
+                        "logging.level.com.peppo.redis=WARN",
+                        "orders.consumer.consumers=0"
+                )
+                .run();
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        uris = new URI[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.save(Product.builder().id("bench-api-" + i).name("Product " + i).price(1_000L + i).build());
+            uris[i] = URI.create("http://localhost:" + port + path + "bench-api-" + i);
+        }
+        // tanpa slash di akhir, spring boot 3 tidak lagi mencocokkan /products/ dengan /products
+        saveUri = URI.create("http://localhost:" + port + path.substring(0, path.length() - 1));
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        Cache cache = context.getBean(CacheManager.class).getCache("products");
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.deleteById("bench-api-" + i);
+            // entry cache ditulis script save
+            cache.evict("bench-api-" + i);
+        }
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int get() throws Exception {
+        URI uri = uris[ThreadLocalRandom.current().nextInt(PRODUCTS)];
+        return httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    @Benchmark
+    public int save() throws Exception {
+        int i = ThreadLocalRandom.current().nextInt(PRODUCTS);
+        String body = "{\"id\":\"bench-api-" + i + "\",\"name\":\"Product " + i + "\",\"price\":" + (1_000L + i) + "}";
+        return httpClient.send(HttpRequest.newBuilder(saveUri)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
@@ -0,0 +1,43 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.Product;
+import com.peppo.redis.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductRepositoryBenchmark {
+
+    private ProductRepository productRepository;
+
+    private Product product;
+
+    @Setup
+    public void setup(ApplicationState application) {
+        productRepository = application.getBean(ProductRepository.class);
+        product = Product.builder().id("bench-1").name("Shampoo").price(50_000L).build();
+        productRepository.save(product);
+    }
+
+    @TearDown
+    public void tearDown() {
+        productRepository.deleteById(product.getId());
+    }
+
+    @Benchmark
+    public Product save() {
+        return productRepository.save(product);
+    }
+
+    @Benchmark
+    public Optional<Product> findById() {
+        return productRepository.findById(product.getId());
+    }
+}
@@ -0,0 +1,47 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.Product;
+import com.peppo.redis.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final String HIT_ID = "bench-hit";
+
+    private static final String MISS_ID = "bench-miss";
+
+    private ProductService productService;
+
+    @Setup
+    public void setup(ApplicationState application) {
+        productService = application.getBean(ProductService.class);
+        productService.getProduct(HIT_ID);
+    }
+
+    @Benchmark
+    public Product getProductHit() {
+        return productService.getProduct(HIT_ID);
+    }
+
+    /**
+     * evict + miss + put, kurangi dengan biaya removeProduct untuk dapat biaya miss saja
+     */
+    @Benchmark
+    public Product getProductMissAfterEvict() {
+        productService.removeProduct(MISS_ID);
+        return productService.getProduct(MISS_ID);
+    }
+
+    @Benchmark
+    public void removeProduct() {
+        productService.removeProduct(MISS_ID);
+    }
+}
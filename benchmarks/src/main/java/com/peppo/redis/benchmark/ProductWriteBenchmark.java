@@ -0,0 +1,59 @@
+package com.peppo.redis.benchmark;
+
+import com.peppo.redis.Product;
+import com.peppo.redis.ProductRepository;
+import com.peppo.redis.ScriptedProductWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jalur tulis lama (ProductRepository.save lalu put ke cache products) dibanding satu EVALSHA product-save.lua
+ * yang sekarang dipakai ProductService.saveProduct
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductWriteBenchmark {
+
+    private ProductRepository productRepository;
+
+    private Cache cache;
+
+    private ScriptedProductWriter scriptedProductWriter;
+
+    private int sequence;
+
+    @Setup
+    public void setup(ApplicationState application) {
+        productRepository = application.getBean(ProductRepository.class);
+        cache = application.getBean(CacheManager.class).getCache("products");
+        scriptedProductWriter = application.getBean(ScriptedProductWriter.class);
+    }
+
+    /**
+     * DEL, HMSET, SADD, pipeline index lalu SET dan PUBLISH dari cache
+     */
+    @Benchmark
+    public Product repositoryAndCachePut() {
+        Product product = next();
+        productRepository.save(product);
+        cache.put(product.getId(), product);
+        return product;
+    }
+
+    @Benchmark
+    public Product script() {
+        return scriptedProductWriter.save(next());
+    }
+
+    private Product next() {
+        int i = sequence++;
+        return Product.builder().id("bench-write-" + (i % 100)).name("contoh").price((long) i).build();
+    }
+}
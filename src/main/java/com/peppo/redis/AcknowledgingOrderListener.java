@@ -0,0 +1,76 @@
+package com.peppo.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.stream.StreamListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XACK hanya dikirim setelah OrderListener selesai, kalau gagal entry tetap di pending list
+ * dan nanti diambil alih OrderReclaimer. Order dengan id yang sudah diproses langsung di-ACK
+ * tanpa memanggil OrderListener (StreamDeduplicator).
+ */
+@Component
+public class AcknowledgingOrderListener implements StreamListener<String, ObjectRecord<String, Order>> {
+
+    private final OrderListener orderListener;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final OrderConsumerProperties properties;
+
+    private final StreamDeduplicator deduplicator;
+
+    private final Timer successTimer;
+
+    private final Timer failureTimer;
+
+    public AcknowledgingOrderListener(OrderListener orderListener, StringRedisTemplate redisTemplate,
+                                      OrderConsumerProperties properties, StreamDeduplicator deduplicator,
+                                      MeterRegistry meterRegistry) {
+        this.orderListener = orderListener;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.deduplicator = deduplicator;
+        this.successTimer = ListenerTimers.timer(meterRegistry, "orders", "success");
+        this.failureTimer = ListenerTimers.timer(meterRegistry, "orders", "failure");
+    }
+
+    @Override
+    public void onMessage(ObjectRecord<String, Order> message) {
+        String orderId = message.getValue() == null ? null : message.getValue().getId();
+        if (orderId == null || !deduplicator.isEnabled()) {
+            process(message);
+            redisTemplate.opsForStream().acknowledge(properties.getGroup(), message);
+            return;
+        }
+
+        StreamDeduplicator.Claim claim = deduplicator.claim(orderId);
+        if (claim != StreamDeduplicator.Claim.DUPLICATE) {
+            try {
+                process(message);
+            } catch (RuntimeException exception) {
+                if (claim == StreamDeduplicator.Claim.CLAIMED) {
+                    deduplicator.release(orderId);
+                }
+                throw exception;
+            }
+        }
+        deduplicator.acknowledge(message.getStream(), properties.getGroup(), message.getId(), orderId, claim);
+    }
+
+    private void process(ObjectRecord<String, Order> message) {
+        long start = System.nanoTime();
+        try {
+            orderListener.onMessage(message);
+        } catch (RuntimeException exception) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw exception;
+        }
+        successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
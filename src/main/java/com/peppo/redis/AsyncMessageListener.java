@@ -0,0 +1,88 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Membungkus MessageListener supaya dijalankan di MessageDispatcher, thread subscription
+ * hanya menghitung key lalu enqueue. Message.getBody() / getChannel() meng-copy array setiap dipanggil,
+ * jadi body dan channel di-copy sekali di sini lalu array yang sama dipakai key function dan listener.
+ */
+public class AsyncMessageListener implements MessageListener {
+
+    private final MessageListener delegate;
+
+    private final MessageDispatcher dispatcher;
+
+    private final ToIntFunction<Message> keyFunction;
+
+    /**
+     * @param keyFunction null untuk pesan yang tidak perlu urut, dibagi rata ke semua stripe
+     */
+    public AsyncMessageListener(MessageListener delegate, MessageDispatcher dispatcher, ToIntFunction<Message> keyFunction) {
+        this.delegate = delegate;
+        this.dispatcher = dispatcher;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * urutan dijaga per channel
+     */
+    public AsyncMessageListener(MessageListener delegate, MessageDispatcher dispatcher) {
+        this(delegate, dispatcher, message -> Arrays.hashCode(message.getChannel()));
+    }
+
+    /**
+     * tanpa urutan, untuk channel yang pesannya tidak punya key yang bervariasi
+     */
+    public static AsyncMessageListener unordered(MessageListener delegate, MessageDispatcher dispatcher) {
+        return new AsyncMessageListener(delegate, dispatcher, null);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Message received = new ReceivedMessage(message.getChannel(), message.getBody());
+        Runnable task = () -> delegate.onMessage(received, pattern);
+        if (keyFunction == null) {
+            dispatcher.dispatch(task);
+        } else {
+            dispatcher.dispatch(keyFunction.applyAsInt(received), task);
+        }
+    }
+
+    /**
+     * key = byte sebelum delimiter pertama di body, dihitung langsung dari byte tanpa decode ke String
+     */
+    public static ToIntFunction<Message> bodyPrefixKey(byte delimiter) {
+        return message -> {
+            byte[] body = message.getBody();
+            int hash = 1;
+            for (byte b : body) {
+                if (b == delimiter) {
+                    break;
+                }
+                hash = 31 * hash + b;
+            }
+            return hash;
+        };
+    }
+
+    /**
+     * array tidak di-copy lagi, listener tidak boleh mengubahnya
+     */
+    private record ReceivedMessage(byte[] channel, byte[] body) implements Message {
+
+        @Override
+        public byte[] getBody() {
+            return body;
+        }
+
+        @Override
+        public byte[] getChannel() {
+            return channel;
+        }
+    }
+}
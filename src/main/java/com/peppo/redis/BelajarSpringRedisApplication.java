@@ -1,11 +1,16 @@
 package com.peppo.redis;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.stream.Consumer;
 import org.springframework.data.redis.connection.stream.ObjectRecord;
@@ -15,13 +20,17 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.stream.StreamMessageListenerContainer;
 import org.springframework.data.redis.stream.Subscription;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @Slf4j
 @EnableScheduling
 @EnableRedisRepositories
@@ -34,20 +43,59 @@ public class BelajarSpringRedisApplication {
     @Bean
     public RedisMessageListenerContainer messageListenerContainer(
             RedisConnectionFactory connectionFactory,
-            CustomerListener customerListener
+            CustomerListener customerListener,
+            NearCacheProperties nearCacheProperties,
+            ObjectProvider<NearCacheInvalidationListener> nearCacheInvalidationListener,
+            PubSubDispatchProperties dispatchProperties,
+            MessageDispatcher messageDispatcher,
+            SellerLocator sellerLocator,
+            SellerLocatorProperties sellerLocatorProperties
     ) {
         var container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
-        container.addMessageListener(customerListener, new ChannelTopic("customers"));
+        if (dispatchProperties.isEnabled()) {
+            if (dispatchProperties.getOverflowPolicy() == OverflowPolicy.BLOCK) {
+                throw new IllegalStateException("pubsub.dispatch.overflow-policy=block would block the lettuce event loop, "
+                        + "use drop or drop-oldest");
+            }
+            // default-nya SimpleAsyncTaskExecutor (satu thread baru per pesan, tanpa batas dan tanpa urutan).
+            // di sini container memanggil listener di thread subscription (event loop lettuce) dan semua listener
+            // hanya enqueue ke dispatcher tanpa pernah menunggu, pesan yang tidak muat dibuang dan tercatat di metric
+            container.setTaskExecutor(new SyncTaskExecutor());
+            // semua pesan customers diawali nama yang sama, key dari body hanya mengisi satu stripe
+            container.addMessageListener(AsyncMessageListener.unordered(customerListener, messageDispatcher),
+                    new ChannelTopic("customers"));
+        } else {
+            container.addMessageListener(customerListener, new ChannelTopic("customers"));
+        }
+        // invalidation juga lewat dispatcher (urut per channel), yang terbuang hanya membuat L1 basi sampai TTL-nya habis
+        UnaryOperator<MessageListener> offload = dispatchProperties.isEnabled()
+                ? listener -> new AsyncMessageListener(listener, messageDispatcher)
+                : UnaryOperator.identity();
+        nearCacheInvalidationListener.ifAvailable(listener -> container.addMessageListener(offload.apply(listener),
+                new ChannelTopic(nearCacheProperties.getInvalidationChannel())));
+        container.addMessageListener(offload.apply(sellerLocator),
+                new ChannelTopic(sellerLocatorProperties.getInvalidationChannel()));
 
         return container;
     };
 
     @Bean(destroyMethod = "stop", initMethod = "start")
-    public StreamMessageListenerContainer<String, ObjectRecord<String, Order>> orderContainer(RedisConnectionFactory connectionFactory) {
+    public StreamMessageListenerContainer<String, ObjectRecord<String, Order>> orderContainer(
+            RedisConnectionFactory connectionFactory,
+            OrderConsumerProperties properties,
+            OrderRecordMapper orderRecordMapper) {
+        var executor = new SimpleAsyncTaskExecutor("order-consumer-");
+        executor.setVirtualThreads(true);
+
         var options = StreamMessageListenerContainer.StreamMessageListenerContainerOptions
                 .builder()
-                .pollTimeout(Duration.ofSeconds(5))
+                .pollTimeout(properties.getPollTimeout())
+                .batchSize(properties.getBatchSize())
+                .executor(executor)
+                .hashKeySerializer(RedisSerializer.byteArray())
+                .hashValueSerializer(RedisSerializer.byteArray())
+                .objectMapper(orderRecordMapper)
                 .targetType(Order.class)
                 .build();
 
@@ -55,26 +103,31 @@ public class BelajarSpringRedisApplication {
     }
 
     @Bean
-    public Subscription orderSubscription(
+    public List<Subscription> orderSubscriptions(
             StreamMessageListenerContainer<String, ObjectRecord<String, Order>> orderContainer,
-            OrderListener orderListener) {
+            AcknowledgingOrderListener orderListener,
+            OrderConsumerProperties properties) {
         try {
-            redisTemplate.opsForStream().createGroup("orders", "my-group");
+            redisTemplate.opsForStream().createGroup(properties.getStream(), properties.getGroup());
         } catch (Throwable throwable) {
 
         }
 
-        var offset = StreamOffset.create("orders", ReadOffset.lastConsumed());
-        var consumer = Consumer.from("my-group", "consumer-1");
-        var readRequest = StreamMessageListenerContainer.StreamReadRequest
-                .builder(offset)
-                .consumer(consumer)
-                .autoAcknowledge(true)
-                .cancelOnError(throwable -> false)
-                .errorHandler(throwable -> log.error(throwable.getMessage(), throwable))
-                .build();
+        var offset = StreamOffset.create(properties.getStream(), ReadOffset.lastConsumed());
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 1; i <= properties.getConsumers(); i++) {
+            var consumer = Consumer.from(properties.getGroup(), properties.getName() + "-" + i);
+            var readRequest = StreamMessageListenerContainer.StreamReadRequest
+                    .builder(offset)
+                    .consumer(consumer)
+                    .autoAcknowledge(false)
+                    .cancelOnError(throwable -> false)
+                    .errorHandler(throwable -> log.error(throwable.getMessage(), throwable))
+                    .build();
+            subscriptions.add(orderContainer.register(readRequest, orderListener));
+        }
 
-        return orderContainer.register(readRequest, orderListener);
+        return subscriptions;
     }
 
     public static void main(String[] args) {
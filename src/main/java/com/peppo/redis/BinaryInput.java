@@ -0,0 +1,62 @@
+package com.peppo.redis;
+
+import java.nio.charset.StandardCharsets;
+
+public class BinaryInput {
+
+    private final byte[] buffer;
+
+    private final int limit;
+
+    private int position;
+
+    public BinaryInput(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public int readByte() {
+        checkRemaining(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    public String readString() {
+        int length = Math.toIntExact(readVarLong());
+        checkRemaining(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public byte[] readBytes() {
+        int length = Math.toIntExact(readVarLong());
+        checkRemaining(length);
+        byte[] value = new byte[length];
+        System.arraycopy(buffer, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    private void checkRemaining(int length) {
+        if (length < 0 || position + length > limit) {
+            throw new IllegalArgumentException("Unexpected end of input");
+        }
+    }
+}
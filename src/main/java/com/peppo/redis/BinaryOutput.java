@@ -0,0 +1,108 @@
+package com.peppo.redis;
+
+/**
+ * Writer ke array yang ukurannya sudah dihitung di depan (sizeOf*), jadi satu encode = satu alokasi.
+ */
+public class BinaryOutput {
+
+    private final byte[] buffer;
+
+    private int position;
+
+    public BinaryOutput(int size) {
+        this.buffer = new byte[size];
+    }
+
+    public byte[] toByteArray() {
+        if (position != buffer.length) {
+            throw new IllegalStateException("Expected " + buffer.length + " bytes but wrote " + position);
+        }
+        return buffer;
+    }
+
+    public BinaryOutput writeByte(int value) {
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    public BinaryOutput writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[position++] = (byte) zigzag;
+        return this;
+    }
+
+    public BinaryOutput writeString(String value) {
+        writeVarLong(utf8Length(value));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // surrogate tanpa pasangan ditulis sebagai '?' sama seperti String.getBytes(UTF_8)
+                buffer[position++] = (byte) '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    public BinaryOutput writeBytes(byte[] value) {
+        writeVarLong(value.length);
+        System.arraycopy(value, 0, buffer, position, value.length);
+        position += value.length;
+        return this;
+    }
+
+    public static int sizeOfVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        int size = 1;
+        while ((zigzag & ~0x7FL) != 0) {
+            zigzag >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    public static int sizeOfString(String value) {
+        int length = utf8Length(value);
+        return sizeOfVarLong(length) + length;
+    }
+
+    public static int sizeOfBytes(byte[] value) {
+        return sizeOfVarLong(value.length) + value.length;
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,66 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Map;
+
+/**
+ * Value serializer untuk cache: kalau binaryWrites aktif tipe yang punya EntityCodec ditulis sebagai
+ * [MAGIC][typeId][payload], tipe lain lewat serializer fallback. Pembacaan selalu mengenali kedua format,
+ * jdk serialization selalu diawali 0xAC jadi tidak bentrok dengan MAGIC.
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+
+    private static final EntityCodec<?>[] CODECS = {null, ProductCodec.INSTANCE, OrderCodec.INSTANCE};
+
+    private static final Map<Class<?>, Integer> TYPE_IDS = Map.of(Product.class, 1, Order.class, 2);
+
+    private final RedisSerializer<Object> fallback;
+
+    private final boolean binaryWrites;
+
+    public BinaryRedisSerializer(RedisSerializer<Object> fallback) {
+        this(fallback, true);
+    }
+
+    public BinaryRedisSerializer(RedisSerializer<Object> fallback, boolean binaryWrites) {
+        this.fallback = fallback;
+        this.binaryWrites = binaryWrites;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) throws SerializationException {
+        Integer typeId = value == null || !binaryWrites ? null : TYPE_IDS.get(value.getClass());
+        if (typeId == null) {
+            return fallback.serialize(value);
+        }
+
+        byte[] payload = ((EntityCodec<Object>) CODECS[typeId]).encode(value);
+        byte[] bytes = new byte[payload.length + 2];
+        bytes[0] = MAGIC;
+        bytes[1] = typeId.byteValue();
+        System.arraycopy(payload, 0, bytes, 2, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 2 || bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        int typeId = bytes[1];
+        if (typeId <= 0 || typeId >= CODECS.length) {
+            throw new SerializationException("Unknown binary type id " + typeId);
+        }
+        try {
+            return CODECS[typeId].decode(bytes, 2, bytes.length - 2);
+        } catch (IllegalArgumentException exception) {
+            throw new SerializationException("Cannot decode binary value", exception);
+        }
+    }
+}
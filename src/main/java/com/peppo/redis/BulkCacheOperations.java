@@ -0,0 +1,232 @@
+package com.peppo.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operasi multi-key untuk cache yang dibuat CacheConfiguration: MGET untuk baca dan SET di satu pipeline
+ * untuk tulis, format key dan value sama dengan RedisCache. Kalau cache dibungkus NearCache, L1 dicek dulu,
+ * kalau dibungkus WriteBehindCache perubahan yang belum ter-flush dicek sebelum MGET.
+ * Dengan sharding key dikelompokkan per shard, satu MGET / pipeline per shard berjalan paralel.
+ */
+@Component
+public class BulkCacheOperations {
+
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    private final RedisShards redisShards;
+
+    private final ReplicaReads replicaReads;
+
+    public BulkCacheOperations(RedisShards redisShards, ReplicaReads replicaReads) {
+        this.redisShards = redisShards;
+        this.replicaReads = replicaReads;
+    }
+
+    /**
+     * @return key yang ada di cache saja, value null yang di-cache tetap muncul sebagai ValueWrapper berisi null
+     */
+    public Map<String, Cache.ValueWrapper> getAll(Cache cache, List<String> keys) {
+        Map<String, Cache.ValueWrapper> result = new HashMap<>();
+        NearCache nearCache = cache instanceof NearCache near ? near : null;
+
+        List<String> remoteKeys = keys;
+        if (nearCache != null) {
+            remoteKeys = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                Cache.ValueWrapper wrapper = nearCache.getLocal(key);
+                if (wrapper != null) {
+                    result.put(key, wrapper);
+                } else {
+                    remoteKeys.add(key);
+                }
+            }
+        }
+        WriteBehindCache writeBehind = DelegatingCache.find(cache, WriteBehindCache.class);
+        if (writeBehind != null) {
+            List<String> unflushedKeys = remoteKeys;
+            remoteKeys = new ArrayList<>(unflushedKeys.size());
+            for (String key : unflushedKeys) {
+                if (!writeBehind.isPending(key)) {
+                    remoteKeys.add(key);
+                    continue;
+                }
+                // key yang pending untuk di-evict dianggap miss
+                Cache.ValueWrapper wrapper = writeBehind.getPending(key);
+                if (wrapper != null) {
+                    result.put(key, wrapper);
+                }
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return result;
+        }
+
+        Cache remote = DelegatingCache.unwrap(cache);
+        if (!(remote instanceof RedisCache redisCache)) {
+            for (String key : remoteKeys) {
+                Cache.ValueWrapper wrapper = remote.get(key);
+                if (wrapper != null) {
+                    result.put(key, wrapper);
+                }
+            }
+            return result;
+        }
+
+        List<byte[]> rawKeys = remoteKeys.stream().map(key -> rawKey(redisCache, key)).toList();
+        byte[][] rawValues = new byte[rawKeys.size()][];
+        Map<RedisShards.Shard, List<Integer>> partitions = redisShards.partition(rawKeys);
+        redisShards.parallel(partitions.keySet(), shard -> {
+            List<Integer> positions = partitions.get(shard);
+            byte[][] shardKeys = positions.stream().map(rawKeys::get).toArray(byte[][]::new);
+            List<byte[]> shardValues = readTemplate(shard, shardKeys).execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(shardKeys));
+            for (int i = 0; shardValues != null && i < positions.size(); i++) {
+                rawValues[positions.get(i)] = shardValues.get(i);
+            }
+            return null;
+        });
+
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            byte[] rawValue = rawValues[i];
+            if (rawValue == null) {
+                continue;
+            }
+
+            Object value = deserialize(redisCache, rawValue);
+            result.put(remoteKeys.get(i), new SimpleValueWrapper(value));
+            if (nearCache != null) {
+                nearCache.putLocal(remoteKeys.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * menulis entry baru hasil load, tidak mem-broadcast invalidation karena instance lain juga belum punya
+     */
+    public void putAll(Cache cache, Map<String, ?> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        NearCache nearCache = cache instanceof NearCache near ? near : null;
+        Cache remote = DelegatingCache.unwrap(cache);
+        if (!(remote instanceof RedisCache redisCache)) {
+            values.forEach(remote::put);
+            return;
+        }
+
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        List<String> keys = new ArrayList<>(values.keySet());
+        List<byte[]> rawKeys = keys.stream().map(key -> rawKey(redisCache, key)).toList();
+        Map<RedisShards.Shard, List<Integer>> partitions = redisShards.partition(rawKeys);
+        redisShards.parallel(partitions.keySet(), shard -> shard.redisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            for (int position : partitions.get(shard)) {
+                Object value = values.get(keys.get(position));
+                if (value == null && !configuration.getAllowCacheNullValues()) {
+                    continue;
+                }
+
+                Duration ttl = configuration.getTtlFunction().getTimeToLive(keys.get(position), value);
+                Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                        ? Expiration.persistent() : Expiration.from(ttl);
+                connection.stringCommands().set(rawKeys.get(position), serialize(redisCache, value),
+                        expiration, RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        }));
+
+        rawKeys.forEach(replicaReads::written);
+        if (nearCache != null) {
+            values.forEach(nearCache::putLocal);
+        }
+    }
+
+    /**
+     * satu DEL per shard. kalau cache dibungkus WriteBehindCache, perubahan pending untuk key yang sama diganti
+     * evict supaya tidak menulis value lama lagi; kalau dibungkus NearCache, L1 dibuang dan invalidation
+     * di-broadcast dalam satu pipeline setelah DEL
+     */
+    public void evictAll(Cache cache, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        WriteBehindCache writeBehind = DelegatingCache.find(cache, WriteBehindCache.class);
+        if (writeBehind != null) {
+            keys.forEach(writeBehind::evictIfPending);
+        }
+
+        Cache remote = DelegatingCache.unwrap(cache);
+        if (!(remote instanceof RedisCache redisCache)) {
+            keys.forEach(remote::evict);
+        } else {
+            List<byte[]> rawKeys = keys.stream().map(key -> rawKey(redisCache, key)).toList();
+            Map<RedisShards.Shard, List<Integer>> partitions = redisShards.partition(rawKeys);
+            redisShards.parallel(partitions.keySet(), shard -> {
+                byte[][] shardKeys = partitions.get(shard).stream().map(rawKeys::get).toArray(byte[][]::new);
+                return shard.redisTemplate().execute((RedisCallback<Long>) connection -> connection.keyCommands().del(shardKeys));
+            });
+            rawKeys.forEach(replicaReads::written);
+        }
+
+        if (cache instanceof NearCache nearCache) {
+            nearCache.invalidate(keys);
+        }
+    }
+
+    /**
+     * MGET ke replica kalau replica read aktif dan tidak ada key di batch yang baru ditulis instance ini
+     */
+    private StringRedisTemplate readTemplate(RedisShards.Shard shard, byte[][] keys) {
+        if (!replicaReads.isEnabled()) {
+            return shard.redisTemplate();
+        }
+        for (byte[] key : keys) {
+            if (!replicaReads.fromReplica(key)) {
+                return shard.redisTemplate();
+            }
+        }
+        return replicaReads.getRedisTemplate();
+    }
+
+    static byte[] rawKey(RedisCache cache, String key) {
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        String cacheKey = configuration.usePrefix() ? configuration.getKeyPrefixFor(cache.getName()) + key : key;
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+
+    private static Object deserialize(RedisCache cache, byte[] value) {
+        if (cache.isAllowNullValues() && Arrays.equals(BINARY_NULL_VALUE, value)) {
+            return null;
+        }
+        return cache.getCacheConfiguration().getValueSerializationPair().read(ByteBuffer.wrap(value));
+    }
+
+    static byte[] serialize(RedisCache cache, Object value) {
+        if (value == null) {
+            return BINARY_NULL_VALUE;
+        }
+        return ByteUtils.getBytes(cache.getCacheConfiguration().getValueSerializationPair().write(value));
+    }
+}
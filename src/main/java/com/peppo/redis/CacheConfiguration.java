@@ -0,0 +1,209 @@
+package com.peppo.redis;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.LinkedHashSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Menggantikan RedisCacheConfiguration bawaan spring boot supaya redis cache manager
+ * bisa dibungkus near cache, konfigurasi spring.cache.redis.* tetap dipakai.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(
+            CacheProperties cacheProperties,
+            NearCacheProperties nearCacheProperties,
+            StampedeProperties stampedeProperties,
+            HotKeyProperties hotKeyProperties,
+            HotKeyTracker hotKeyTracker,
+            WriteBehindProperties writeBehindProperties,
+            WriteBehindFlusher writeBehindFlusher,
+            CodecProperties codecProperties,
+            ValueCompressor valueCompressor,
+            ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers,
+            ObjectProvider<CacheRefreshLoader> refreshLoaders,
+            RedisConnectionFactory connectionFactory,
+            RedisShards redisShards,
+            ReplicaReads replicaReads,
+            StringRedisTemplate redisTemplate,
+            ResourceLoader resourceLoader
+    ) {
+        // dengan sharding / replica read format key dan value tetap sama, hanya writer-nya yang memilih node
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+        if (redisShards.isSharded()) {
+            cacheWriter = new ShardedRedisCacheWriter(redisShards);
+        } else if (replicaReads.isEnabled()) {
+            cacheWriter = new ReplicaReadCacheWriter(cacheWriter, replicaReads);
+        }
+        var builder = RedisCacheManager.builder(cacheWriter)
+                .cacheDefaults(redisCacheConfiguration(cacheProperties, codecProperties, valueCompressor, resourceLoader.getClassLoader()));
+        if (cacheProperties.getRedis().isEnableStatistics()) {
+            builder.enableStatistics();
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            builder.initialCacheNames(new LinkedHashSet<>(cacheProperties.getCacheNames()));
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+
+        RedisCacheManager redisCacheManager = builder.build();
+        if (!nearCacheProperties.isEnabled() && !stampedeProperties.isEnabled() && !hotKeyProperties.isEnabled()
+                && !writeBehindProperties.isEnabled()) {
+            return redisCacheManager;
+        }
+
+        redisCacheManager.afterPropertiesSet();
+        CacheManager cacheManager = redisCacheManager;
+        var outermost = new AtomicReference<CacheManager>();
+        if (stampedeProperties.isEnabled()) {
+            var refreshExecutor = new SimpleAsyncTaskExecutor("cache-refresh-");
+            refreshExecutor.setVirtualThreads(true);
+            // loader dicari saat refresh, bukan di sini, karena bean loader (ProductService) butuh cacheManager
+            cacheManager = new CoalescingCacheManager(cacheManager, stampedeProperties,
+                    cacheProperties.getRedis().getTimeToLive(), redisTemplate, refreshExecutor,
+                    name -> refreshLoaders.orderedStream()
+                            .filter(loader -> loader.getCacheName().equals(name))
+                            .findFirst().orElse(null),
+                    // refresh ditulis lewat rantai lengkap supaya L1 near cache di semua instance ikut dibuang
+                    name -> outermost.get().getCache(name));
+        }
+        if (hotKeyProperties.isEnabled()) {
+            // di bawah near cache, hit L1 tidak tercatat tapi miss L1 yang ke redis tetap tercatat
+            cacheManager = new HotKeyCacheManager(cacheManager, hotKeyProperties, hotKeyTracker);
+        }
+        if (writeBehindProperties.isEnabled()) {
+            // di bawah near cache, L1 instance ini langsung terisi, invalidation ke instance lain setelah flush
+            cacheManager = new WriteBehindCacheManager(cacheManager, writeBehindProperties, writeBehindFlusher);
+        }
+        if (nearCacheProperties.isEnabled()) {
+            cacheManager = new NearCacheManager(cacheManager, nearCacheProperties, redisTemplate);
+        }
+        outermost.set(cacheManager);
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.near", name = "enabled", havingValue = "true")
+    public NearCacheInvalidationListener nearCacheInvalidationListener(CacheManager cacheManager) {
+        return new NearCacheInvalidationListener((NearCacheManager) cacheManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.near", name = "enabled", havingValue = "true")
+    public MeterBinder nearCacheMetrics(CacheManager cacheManager, NearCacheProperties nearCacheProperties) {
+        return registry -> {
+            for (String name : nearCacheProperties.getCacheNames()) {
+                if (!(cacheManager.getCache(name) instanceof NearCache cache)) {
+                    continue;
+                }
+
+                FunctionCounter.builder("cache.near.gets", cache, NearCache::getLocalHits)
+                        .tags("cache", name, "tier", "l1", "result", "hit").register(registry);
+                FunctionCounter.builder("cache.near.gets", cache, NearCache::getLocalMisses)
+                        .tags("cache", name, "tier", "l1", "result", "miss").register(registry);
+                FunctionCounter.builder("cache.near.gets", cache, NearCache::getRemoteHits)
+                        .tags("cache", name, "tier", "l2", "result", "hit").register(registry);
+                FunctionCounter.builder("cache.near.gets", cache, NearCache::getRemoteMisses)
+                        .tags("cache", name, "tier", "l2", "result", "miss").register(registry);
+                Gauge.builder("cache.near.size", cache, NearCache::getLocalSize)
+                        .tags("cache", name).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.stampede", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder stampedeMetrics(CacheManager cacheManager, StampedeProperties stampedeProperties) {
+        return registry -> {
+            for (String name : stampedeProperties.getCacheNames()) {
+                CoalescingCache coalescingCache = DelegatingCache.find(cacheManager.getCache(name), CoalescingCache.class);
+                if (coalescingCache == null) {
+                    continue;
+                }
+
+                FunctionCounter.builder("cache.stampede.loads", coalescingCache, CoalescingCache::getLoads)
+                        .tags("cache", name).register(registry);
+                FunctionCounter.builder("cache.stampede.coalesced.waits", coalescingCache, CoalescingCache::getCoalescedWaits)
+                        .tags("cache", name).register(registry);
+                FunctionCounter.builder("cache.stampede.early.refreshes", coalescingCache, CoalescingCache::getEarlyRefreshes)
+                        .tags("cache", name).register(registry);
+                FunctionCounter.builder("cache.stampede.lock.waits", coalescingCache, CoalescingCache::getLockWaits)
+                        .tags("cache", name).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.write-behind", name = "enabled", havingValue = "true")
+    public MeterBinder writeBehindMetrics(CacheManager cacheManager, WriteBehindProperties writeBehindProperties) {
+        return registry -> {
+            for (String name : writeBehindProperties.getCacheNames()) {
+                WriteBehindCache cache = DelegatingCache.find(cacheManager.getCache(name), WriteBehindCache.class);
+                if (cache == null) {
+                    continue;
+                }
+
+                FunctionCounter.builder("cache.write.behind.writes", cache, WriteBehindCache::getWrites)
+                        .tags("cache", name).register(registry);
+                FunctionCounter.builder("cache.write.behind.coalesced", cache, WriteBehindCache::getCoalesced)
+                        .tags("cache", name).register(registry);
+                FunctionCounter.builder("cache.write.behind.flushed", cache, WriteBehindCache::getFlushed)
+                        .tags("cache", name, "result", "success").register(registry);
+                FunctionCounter.builder("cache.write.behind.flushed", cache, WriteBehindCache::getFailed)
+                        .tags("cache", name, "result", "failure").register(registry);
+                FunctionCounter.builder("cache.write.behind.rejected", cache, WriteBehindCache::getRejected)
+                        .tags("cache", name).register(registry);
+                Gauge.builder("cache.write.behind.pending", cache, WriteBehindCache::getPendingSize)
+                        .tags("cache", name).register(registry);
+            }
+        };
+    }
+
+    private org.springframework.data.redis.cache.RedisCacheConfiguration redisCacheConfiguration(
+            CacheProperties cacheProperties, CodecProperties codecProperties, ValueCompressor valueCompressor,
+            ClassLoader classLoader) {
+        CacheProperties.Redis redisProperties = cacheProperties.getRedis();
+        RedisSerializer<Object> serializer = new JdkSerializationRedisSerializer(classLoader);
+        // selalu dibungkus supaya entry biner tetap terbaca setelah codec.format kembali ke default
+        serializer = new BinaryRedisSerializer(serializer, codecProperties.getFormat() == CodecFormat.BINARY);
+        serializer = new CompressingRedisSerializer(serializer, valueCompressor);
+
+        var config = org.springframework.data.redis.cache.RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+        if (redisProperties.getTimeToLive() != null) {
+            config = config.entryTtl(redisProperties.getTimeToLive());
+        }
+        if (redisProperties.getKeyPrefix() != null) {
+            config = config.prefixCacheNameWith(redisProperties.getKeyPrefix());
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        if (!redisProperties.isUseKeyPrefix()) {
+            config = config.disableKeyPrefix();
+        }
+        return config;
+    }
+}
@@ -0,0 +1,13 @@
+package com.peppo.redis;
+
+/**
+ * Loader untuk early refresh CoalescingCache. valueLoader dari @Cacheable tidak dipakai ulang
+ * karena ia milik request yang memanggilnya, sedangkan refresh berjalan di thread lain setelah request selesai.
+ * Cache tanpa loader tidak di-refresh lebih awal.
+ */
+public interface CacheRefreshLoader {
+
+    String getCacheName();
+
+    Object load(Object key) throws Exception;
+}
@@ -0,0 +1,345 @@
+package com.peppo.redis;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Proteksi cache stampede untuk get(key, valueLoader):
+ * - request yang miss untuk key yang sama menunggu satu load yang sedang berjalan
+ * - opsional lock SET NX supaya instance lain juga menunggu, bukan ikut load
+ * - entry yang di-load instance ini di-refresh di background sebelum TTL habis dengan
+ *   probabilitas yang naik mendekati expiry (XFetch), tanpa round trip tambahan, lewat CacheRefreshLoader
+ *   milik cache ini. Entry yang ditulis lewat put / evict tidak di-refresh, hasil refresh ditulis lewat
+ *   cache paling luar (refreshTarget) supaya near cache ikut di-invalidate
+ * getAll melakukan hal yang sama untuk banyak key sekaligus, tanpa lock SET NX.
+ */
+@Slf4j
+public class CoalescingCache implements DelegatingCache {
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final long LOCK_POLL_MILLIS = 20;
+
+    private final Cache delegate;
+
+    private final StampedeProperties properties;
+
+    private final Duration timeToLive;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final TaskExecutor refreshExecutor;
+
+    private final Supplier<CacheRefreshLoader> refreshLoader;
+
+    private final Supplier<Cache> refreshTarget;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, LoadInfo> loadInfo;
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder coalescedWaits = new LongAdder();
+
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    private final LongAdder lockWaits = new LongAdder();
+
+    public CoalescingCache(Cache delegate, StampedeProperties properties, Duration timeToLive,
+                           StringRedisTemplate redisTemplate, TaskExecutor refreshExecutor,
+                           Supplier<CacheRefreshLoader> refreshLoader, Supplier<Cache> refreshTarget) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.timeToLive = timeToLive;
+        this.redisTemplate = redisTemplate;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshLoader = refreshLoader;
+        this.refreshTarget = refreshTarget;
+
+        var builder = Caffeine.newBuilder().maximumSize(100_000);
+        if (hasTimeToLive()) {
+            builder.expireAfterWrite(timeToLive);
+        }
+        this.loadInfo = builder.build();
+    }
+
+    @Override
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null) {
+            refreshEarlyIfNeeded(key);
+            return (T) wrapper.get();
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedWaits.increment();
+            future = existing;
+        } else {
+            load(key, valueLoader, future);
+        }
+
+        try {
+            return (T) future.join();
+        } catch (CompletionException exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception.getCause());
+        }
+    }
+
+    /**
+     * versi batch get(key, valueLoader) untuk key yang sudah diketahui miss: key yang sedang di-load request lain
+     * ditunggu, sisanya di-load sekaligus lewat batchLoader. batchLoader juga yang menulis hasilnya ke cache,
+     * misalnya dalam satu pipeline. key yang tidak ada di hasil batchLoader bernilai null.
+     */
+    public <K> Map<K, Object> getAll(Collection<K> keys, Function<List<K>, Map<K, ?>> batchLoader) {
+        Map<K, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        Map<K, CompletableFuture<Object>> owned = new LinkedHashMap<>();
+        for (K key : keys) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+            if (existing != null) {
+                coalescedWaits.increment();
+                futures.put(key, existing);
+            } else {
+                owned.put(key, future);
+                futures.put(key, future);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            loadAll(owned, batchLoader);
+        }
+
+        Map<K, Object> values = new LinkedHashMap<>();
+        futures.forEach((key, future) -> {
+            try {
+                values.put(key, future.join());
+            } catch (CompletionException exception) {
+                throw new ValueRetrievalException(key, null, exception.getCause());
+            }
+        });
+        return values;
+    }
+
+    /**
+     * value yang ditulis eksplisit tidak boleh ditimpa hasil loader, jadi tidak di-refresh lebih awal
+     */
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        loadInfo.invalidate(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        loadInfo.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        loadInfo.invalidateAll();
+    }
+
+    /**
+     * dipakai jalur tulis yang tidak lewat put / evict cache ini (write-behind, script),
+     * entry-nya tidak lagi berasal dari loader
+     */
+    void forget(Object key) {
+        loadInfo.invalidate(key);
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getCoalescedWaits() {
+        return coalescedWaits.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public long getLockWaits() {
+        return lockWaits.sum();
+    }
+
+    private void load(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        try {
+            future.complete(properties.isLockEnabled() ? loadWithLock(key, valueLoader) : loadAndPut(key, valueLoader));
+        } catch (Throwable throwable) {
+            future.completeExceptionally(throwable);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private <K> void loadAll(Map<K, CompletableFuture<Object>> owned, Function<List<K>, Map<K, ?>> batchLoader) {
+        try {
+            loads.increment();
+            long start = System.nanoTime();
+            Map<K, ?> loaded = batchLoader.apply(new ArrayList<>(owned.keySet()));
+            long loadNanos = System.nanoTime() - start;
+
+            owned.forEach((key, future) -> {
+                loadInfo.put(key, new LoadInfo(expiresAt(), loadNanos));
+                future.complete(loaded.get(key));
+            });
+        } catch (Throwable throwable) {
+            owned.values().forEach(future -> future.completeExceptionally(throwable));
+        } finally {
+            owned.forEach(inFlight::remove);
+        }
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) throws Exception {
+        loads.increment();
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        long loadNanos = System.nanoTime() - start;
+
+        delegate.put(key, value);
+        loadInfo.put(key, new LoadInfo(expiresAt(), loadNanos));
+        return value;
+    }
+
+    private Object loadWithLock(Object key, Callable<?> valueLoader) throws Exception {
+        String lockKey = "lock:" + getName() + "::" + key;
+        String token = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, token, properties.getLockTimeout());
+        if (Boolean.TRUE.equals(locked)) {
+            try {
+                return loadAndPut(key, valueLoader);
+            } finally {
+                redisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey), token);
+            }
+        }
+
+        // instance lain sedang load, tunggu hasilnya muncul di cache
+        lockWaits.increment();
+        long deadline = System.nanoTime() + properties.getLockWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(LOCK_POLL_MILLIS);
+            ValueWrapper wrapper = delegate.get(key);
+            if (wrapper != null) {
+                return wrapper.get();
+            }
+        }
+        return loadAndPut(key, valueLoader);
+    }
+
+    private void refreshEarlyIfNeeded(Object key) {
+        LoadInfo info = loadInfo.getIfPresent(key);
+        if (info == null || properties.getEarlyRefreshBeta() <= 0) {
+            return;
+        }
+        CacheRefreshLoader loader = refreshLoader.get();
+        if (loader == null) {
+            return;
+        }
+
+        double gap = -info.loadNanos() * properties.getEarlyRefreshBeta() * Math.log(ThreadLocalRandom.current().nextDouble());
+        if (System.nanoTime() + gap < info.expiresAt()) {
+            return;
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, future) != null) {
+            return;
+        }
+        earlyRefreshes.increment();
+        try {
+            refreshExecutor.execute(() -> refresh(key, loader, info, future));
+        } catch (RuntimeException exception) {
+            inFlight.remove(key, future);
+            log.warn("failed to schedule early refresh cache={} key={}", getName(), key, exception);
+        }
+    }
+
+    private void refresh(Object key, CacheRefreshLoader loader, LoadInfo info, CompletableFuture<Object> future) {
+        try {
+            loads.increment();
+            long start = System.nanoTime();
+            Object value = loader.load(key);
+            long loadNanos = System.nanoTime() - start;
+
+            // put / evict selama load lebih baru dari hasil refresh
+            if (loadInfo.getIfPresent(key) == info) {
+                Cache target = refreshTarget.get();
+                // put lewat cache paling luar ikut menghapus loadInfo, jadi didaftarkan ulang setelahnya
+                (target != null ? target : delegate).put(key, value);
+                loadInfo.put(key, new LoadInfo(expiresAt(), loadNanos));
+            }
+            future.complete(value);
+        } catch (Throwable throwable) {
+            log.warn("failed to refresh cache={} key={}", getName(), key, throwable);
+            future.completeExceptionally(throwable);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private boolean hasTimeToLive() {
+        return timeToLive != null && !timeToLive.isZero() && !timeToLive.isNegative();
+    }
+
+    private long expiresAt() {
+        return hasTimeToLive() ? System.nanoTime() + timeToLive.toNanos() : Long.MAX_VALUE;
+    }
+
+    private record LoadInfo(long expiresAt, long loadNanos) {
+    }
+}
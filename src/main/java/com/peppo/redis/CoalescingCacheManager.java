@@ -0,0 +1,73 @@
+package com.peppo.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final StampedeProperties properties;
+
+    private final Duration timeToLive;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final TaskExecutor refreshExecutor;
+
+    private final Function<String, CacheRefreshLoader> refreshLoaders;
+
+    private final Function<String, Cache> refreshTargets;
+
+    private final ConcurrentMap<String, CoalescingCache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager delegate, StampedeProperties properties, Duration timeToLive,
+                                  StringRedisTemplate redisTemplate, TaskExecutor refreshExecutor,
+                                  Function<String, CacheRefreshLoader> refreshLoaders,
+                                  Function<String, Cache> refreshTargets) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.timeToLive = timeToLive;
+        this.redisTemplate = redisTemplate;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshLoaders = refreshLoaders;
+        this.refreshTargets = refreshTargets;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!properties.getCacheNames().contains(name)) {
+            return delegate.getCache(name);
+        }
+
+        CoalescingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = delegate.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key ->
+                new CoalescingCache(remote, properties, timeToLive, redisTemplate, refreshExecutor,
+                        () -> refreshLoaders.apply(name), () -> refreshTargets.apply(name)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+}
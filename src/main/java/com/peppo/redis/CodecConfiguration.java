@@ -0,0 +1,32 @@
+package com.peppo.redis;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.convert.RedisCustomConversions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class CodecConfiguration {
+
+    /**
+     * nama bean harus redisCustomConversions supaya dipakai MappingRedisConverter milik repository
+     */
+    @Bean
+    public RedisCustomConversions redisCustomConversions(CodecProperties codecProperties, ValueCompressor valueCompressor) {
+        return conversions(codecProperties.getFormat(), valueCompressor);
+    }
+
+    /**
+     * converter baca selalu terdaftar, format hanya menentukan cara menulis
+     */
+    static RedisCustomConversions conversions(CodecFormat format, ValueCompressor valueCompressor) {
+        List<Object> converters = new ArrayList<>();
+        converters.add(new ProductBinaryConverters.MapToProductConverter(valueCompressor));
+        if (format == CodecFormat.BINARY) {
+            converters.add(new ProductBinaryConverters.ProductToBytesConverter(valueCompressor));
+        }
+        return new RedisCustomConversions(converters);
+    }
+}
@@ -0,0 +1,15 @@
+package com.peppo.redis;
+
+public enum CodecFormat {
+
+    /**
+     * format bawaan spring data redis: jdk serialization untuk cache, hash per field untuk
+     * repository dan ObjectHashMapper untuk stream
+     */
+    DEFAULT,
+
+    /**
+     * ProductCodec/OrderCodec, satu blob biner per entity
+     */
+    BINARY
+}
@@ -0,0 +1,14 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "codec")
+public class CodecProperties {
+
+    /**
+     * format untuk data yang ditulis, pembacaan selalu mendukung kedua format
+     */
+    private CodecFormat format = CodecFormat.DEFAULT;
+}
@@ -0,0 +1,33 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Membungkus value serializer cache dengan ValueCompressor, value lama yang tidak terkompresi tetap terbaca
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+
+    private final ValueCompressor compressor;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, ValueCompressor compressor) {
+        this.delegate = delegate;
+        this.compressor = compressor;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        return compressor.compress(delegate.serialize(value));
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        try {
+            return delegate.deserialize(compressor.decompress(bytes));
+        } catch (IllegalArgumentException exception) {
+            throw new SerializationException("Cannot decompress value", exception);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.zip.Deflater;
+
+@Data
+@ConfigurationProperties(prefix = "codec.compression")
+public class CompressionProperties {
+
+    /**
+     * hanya untuk penulisan, value terkompresi selalu bisa dibaca. saat rollout nyalakan setelah
+     * semua instance sudah bisa membaca
+     */
+    private boolean enabled = false;
+
+    /**
+     * value yang lebih kecil dari ini (byte) ditulis apa adanya
+     */
+    private int threshold = 1024;
+
+    /**
+     * level deflate 1 (paling cepat) sampai 9 (paling kecil)
+     */
+    private int level = Deflater.BEST_SPEED;
+}
@@ -0,0 +1,75 @@
+package com.peppo.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Ring consistent hashing dengan virtual node. Hash tag mengikuti aturan redis cluster:
+ * kalau key berisi {...} yang tidak kosong, hanya isi kurung kurawal pertama yang di-hash,
+ * jadi products:{42} dan products:{42}:idx selalu di node yang sama.
+ */
+public class ConsistentHashRing<T> {
+
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+
+    public ConsistentHashRing(List<T> nodes, Function<T, String> name, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required");
+        }
+        for (T node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                byte[] point = (name.apply(node) + "#" + i).getBytes(StandardCharsets.UTF_8);
+                ring.put(hash(point, 0, point.length), node);
+            }
+        }
+    }
+
+    public T get(byte[] key) {
+        int start = 0;
+        int end = key.length;
+        int open = indexOf(key, (byte) '{', 0);
+        if (open >= 0) {
+            int close = indexOf(key, (byte) '}', open + 1);
+            if (close > open + 1) {
+                start = open + 1;
+                end = close;
+            }
+        }
+
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key, start, end));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public T get(String key) {
+        return get(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * FNV-1a 64 bit diikuti finalizer murmur3 supaya bit atas ikut teracak
+     */
+    static long hash(byte[] key, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= key[i] & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int indexOf(byte[] key, byte value, int from) {
+        for (int i = from; i < key.length; i++) {
+            if (key[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,15 +1,46 @@
 package com.peppo.redis;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+
 @Slf4j
 @Component
 public class CustomerListener implements MessageListener {
+
+    private final Timer timer;
+
+    private final EndToEndLatency endToEndLatency;
+
+    public CustomerListener(MeterRegistry meterRegistry, EndToEndLatency endToEndLatency) {
+        this.timer = ListenerTimers.timer(meterRegistry, "customers");
+        this.endToEndLatency = endToEndLatency;
+    }
+
     @Override
     public void onMessage(Message message, byte[] pattern) {
-        log.info("receive message: {}", new String(message.getBody()));
+        // getBody() meng-copy array (kecuali lewat AsyncMessageListener), jadi cukup dipanggil sekali
+        timer.record(() -> receive(new String(message.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * pesan dari LoadGenerator diakhiri " @&lt;sentAtMicros&gt;" dan tidak di-log satu per satu
+     */
+    private void receive(String body) {
+        int marker = body.lastIndexOf(" @");
+        if (marker >= 0) {
+            try {
+                endToEndLatency.record("customers", Long.parseLong(body, marker + 2, body.length(), 10));
+                return;
+            } catch (NumberFormatException exception) {
+                // bukan pesan load generator
+            }
+        }
+        log.info("receive message: {}", body);
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class CustomerPublisher {
@@ -14,8 +15,23 @@ public class CustomerPublisher {
     @Autowired
     private StringRedisTemplate redisTemplate;
 
+    private final LongAdder published = new LongAdder();
+
     @Scheduled(fixedRate = 10, timeUnit = TimeUnit.SECONDS)
     public void publish() {
         redisTemplate.convertAndSend("customers", "haris " + UUID.randomUUID());
+        published.increment();
+    }
+
+    /**
+     * dipakai LoadGenerator, format "haris &lt;uuid&gt; @&lt;sentAtMicros&gt;" dibaca CustomerListener
+     */
+    public void publish(long sentAtMicros) {
+        redisTemplate.convertAndSend("customers", "haris " + UUID.randomUUID() + " @" + sentAtMicros);
+        published.increment();
+    }
+
+    public long getPublished() {
+        return published.sum();
     }
 }
@@ -0,0 +1,28 @@
+package com.peppo.redis;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Cache yang membungkus cache lain, dipakai untuk mencari RedisCache di paling dalam
+ */
+public interface DelegatingCache extends Cache {
+
+    Cache getDelegate();
+
+    static Cache unwrap(Cache cache) {
+        while (cache instanceof DelegatingCache delegating) {
+            cache = delegating.getDelegate();
+        }
+        return cache;
+    }
+
+    /**
+     * pembungkus dengan tipe tertentu di rantai cache, null kalau tidak ada
+     */
+    static <C extends Cache> C find(Cache cache, Class<C> type) {
+        while (!type.isInstance(cache) && cache instanceof DelegatingCache delegating) {
+            cache = delegating.getDelegate();
+        }
+        return type.isInstance(cache) ? type.cast(cache) : null;
+    }
+}
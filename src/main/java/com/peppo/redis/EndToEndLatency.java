@@ -0,0 +1,36 @@
+package com.peppo.redis;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Latency publish sampai diterima listener dalam mikrodetik, dihitung dari waktu kirim yang dijadwalkan
+ * load generator, bukan waktu kirim sebenarnya, supaya antrian di sisi pengirim ikut terhitung
+ * (coordinated omission)
+ */
+@Component
+public class EndToEndLatency {
+
+    private final Map<String, LatencyHistogram> histograms = Map.of(
+            "orders", new LatencyHistogram(),
+            "customers", new LatencyHistogram());
+
+    public void record(String destination, long sentAtMicros) {
+        histograms.get(destination).record(nowMicros() - sentAtMicros);
+    }
+
+    public LatencyHistogram histogram(String destination) {
+        return histograms.get(destination);
+    }
+
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    public static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+}
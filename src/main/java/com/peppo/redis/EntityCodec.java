@@ -0,0 +1,18 @@
+package com.peppo.redis;
+
+/**
+ * Codec biner untuk satu tipe entity. Byte pertama hasil encode selalu versi schema
+ * supaya format lama masih bisa dibaca setelah field baru ditambahkan.
+ */
+public interface EntityCodec<T> {
+
+    Class<T> getType();
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes, int offset, int length);
+
+    default T decode(byte[] bytes) {
+        return decode(bytes, 0, bytes.length);
+    }
+}
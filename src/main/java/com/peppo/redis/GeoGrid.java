@@ -0,0 +1,122 @@
+package com.peppo.redis;
+
+import org.springframework.data.geo.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grid geohash dengan presisi tetap. Cell disimpan sebagai pasangan index bujur/lintang,
+ * string geohash-nya hanya dibuat untuk key. Jarak memakai haversine dengan radius bumi yang sama
+ * dengan redis supaya hasil filter lokal cocok dengan GEOSEARCH.
+ */
+public class GeoGrid {
+
+    static final double EARTH_RADIUS_METERS = 6372797.560856;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private final int precision;
+
+    private final int lonBits;
+
+    private final int latBits;
+
+    private final double cellLon;
+
+    private final double cellLat;
+
+    public GeoGrid(int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and 12");
+        }
+        this.precision = precision;
+        int bits = precision * 5;
+        // geohash mulai dari bit bujur, jadi bujur kebagian bit lebih kalau jumlahnya ganjil
+        this.lonBits = (bits + 1) / 2;
+        this.latBits = bits / 2;
+        this.cellLon = 360.0 / (1L << lonBits);
+        this.cellLat = 180.0 / (1L << latBits);
+    }
+
+    public Cell cellOf(Point point) {
+        return new Cell(lonIndex(point.getX()), latIndex(point.getY()));
+    }
+
+    public Point center(Cell cell) {
+        return new Point(-180 + (cell.lon() + 0.5) * cellLon, -90 + (cell.lat() + 0.5) * cellLat);
+    }
+
+    /**
+     * jarak terjauh dari center cell ke sudutnya, sudut yang lebih dekat ke ekuator paling lebar
+     */
+    public double halfDiagonalMeters(Cell cell) {
+        Point center = center(cell);
+        double equatorSide = Math.abs(center.getY() + cellLat / 2) < Math.abs(center.getY() - cellLat / 2)
+                ? center.getY() + cellLat / 2 : center.getY() - cellLat / 2;
+        return distanceMeters(center, new Point(center.getX() + cellLon / 2, equatorSide));
+    }
+
+    /**
+     * semua cell yang center-nya berjarak paling jauh radiusMeters + setengah diagonal cell dari point
+     */
+    public List<Cell> cellsCovering(Point point, double radiusMeters) {
+        double reachMeters = radiusMeters + halfDiagonalMeters(cellOf(point)) * 2;
+        double latDelta = Math.toDegrees(reachMeters / EARTH_RADIUS_METERS);
+        double cos = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(point.getY()) + latDelta)));
+        double lonDelta = Math.min(180, latDelta / cos);
+
+        List<Cell> cells = new ArrayList<>();
+        long fromLat = latIndex(Math.max(-90, point.getY() - latDelta));
+        long toLat = latIndex(Math.min(90, point.getY() + latDelta));
+        long fromLon = lonIndex(Math.max(-180, point.getX() - lonDelta));
+        long toLon = lonIndex(Math.min(180, point.getX() + lonDelta));
+        for (long lat = fromLat; lat <= toLat; lat++) {
+            for (long lon = fromLon; lon <= toLon; lon++) {
+                Cell cell = new Cell(lon, lat);
+                if (distanceMeters(point, center(cell)) <= radiusMeters + halfDiagonalMeters(cell)) {
+                    cells.add(cell);
+                }
+            }
+        }
+        return cells;
+    }
+
+    public String geohash(Cell cell) {
+        char[] hash = new char[precision];
+        int lonBit = lonBits - 1;
+        int latBit = latBits - 1;
+        int value = 0;
+        for (int i = 0; i < precision * 5; i++) {
+            // bit genap bujur, bit ganjil lintang
+            long bit = (i & 1) == 0 ? (cell.lon() >>> lonBit--) & 1 : (cell.lat() >>> latBit--) & 1;
+            value = (value << 1) | (int) bit;
+            if (i % 5 == 4) {
+                hash[i / 5] = BASE32[value];
+                value = 0;
+            }
+        }
+        return new String(hash);
+    }
+
+    public static double distanceMeters(Point from, Point to) {
+        double lat1 = Math.toRadians(from.getY());
+        double lat2 = Math.toRadians(to.getY());
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(to.getX() - from.getX());
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private long lonIndex(double lon) {
+        return Math.min((1L << lonBits) - 1, (long) Math.floor((lon + 180) / cellLon));
+    }
+
+    private long latIndex(double lat) {
+        return Math.min((1L << latBits) - 1, (long) Math.floor((lat + 90) / cellLat));
+    }
+
+    public record Cell(long lon, long lat) {
+    }
+}
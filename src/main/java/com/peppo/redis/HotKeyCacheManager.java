@@ -0,0 +1,52 @@
+package com.peppo.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class HotKeyCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final HotKeyProperties properties;
+
+    private final HotKeyTracker tracker;
+
+    private final ConcurrentMap<String, HotKeyCache> caches = new ConcurrentHashMap<>();
+
+    public HotKeyCacheManager(CacheManager delegate, HotKeyProperties properties, HotKeyTracker tracker) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!properties.getCacheNames().contains(name)) {
+            return delegate.getCache(name);
+        }
+
+        HotKeyCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = delegate.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new HotKeyCache(remote, tracker));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+}
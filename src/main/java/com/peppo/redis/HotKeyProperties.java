@@ -0,0 +1,54 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "cache.hot-keys")
+public class HotKeyProperties {
+
+    private boolean enabled = true;
+
+    private Set<String> cacheNames = Set.of("products");
+
+    /**
+     * jumlah key teratas yang dilacak per cache per instance
+     */
+    private int capacity = 1000;
+
+    private int sketchWidth = 8192;
+
+    private int sketchDepth = 4;
+
+    /**
+     * key menjadi &lt;prefix&gt;&lt;cache&gt;:&lt;nomor window&gt;, sorted set id -&gt; jumlah akses
+     */
+    private String keyPrefix = "hot-keys:";
+
+    /**
+     * panjang satu window, setiap window punya sorted set sendiri supaya key yang sudah tidak ramai hilang
+     */
+    private Duration window = Duration.ofHours(1);
+
+    /**
+     * jumlah window terakhir yang digabung saat warm-up
+     */
+    private int windows = 2;
+
+    /**
+     * jumlah product yang di-load saat startup, 0 = warm-up mati
+     */
+    private int warmUpSize = 1000;
+
+    private int warmUpBatchSize = 100;
+
+    private int warmUpParallelism = 4;
+
+    /**
+     * setelah ini instance tetap dilaporkan sehat walaupun warm-up belum selesai
+     */
+    private Duration warmUpTimeout = Duration.ofSeconds(30);
+}
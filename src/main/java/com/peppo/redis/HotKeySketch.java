@@ -0,0 +1,98 @@
+package com.peppo.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch untuk frekuensi akses key, ditambah kandidat top-K: key yang perkiraan frekuensinya
+ * melewati kandidat terkecil disimpan bersama perkiraannya. Memori tetap depth x width counter plus
+ * paling banyak 2 x capacity kandidat, berapa pun jumlah key yang diakses.
+ */
+public class HotKeySketch {
+
+    private final int width;
+
+    private final int depth;
+
+    private final int capacity;
+
+    private final AtomicLongArray counters;
+
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * perkiraan terkecil di antara kandidat setelah trim terakhir
+     */
+    private volatile long threshold;
+
+    public HotKeySketch(int width, int depth, int capacity) {
+        if (width <= 0 || depth <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Sketch width, depth and capacity must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.capacity = capacity;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + Math.floorMod(h1 + row * h2, width);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+
+        if (estimate > threshold || candidates.size() < capacity || candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            if (candidates.size() > 2 * capacity) {
+                trim();
+            }
+        }
+    }
+
+    public long estimate(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + Math.floorMod(h1 + row * h2, width)));
+        }
+        return estimate;
+    }
+
+    /**
+     * paling banyak capacity key dengan perkiraan tertinggi, urut dari yang paling sering
+     */
+    public synchronized Map<String, Long> top() {
+        trim();
+        Map<String, Long> top = new LinkedHashMap<>();
+        candidates.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private synchronized void trim() {
+        if (candidates.size() <= capacity) {
+            return;
+        }
+        var sorted = candidates.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .toList();
+        sorted.subList(capacity, sorted.size()).forEach(entry -> candidates.remove(entry.getKey()));
+        threshold = sorted.get(capacity - 1).getValue();
+    }
+
+    private static long hash(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return ConsistentHashRing.hash(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,113 @@
+package com.peppo.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Melacak key cache yang paling sering diakses per instance dengan HotKeySketch. Secara terjadwal sketch
+ * diganti yang baru dan kandidat top-K-nya ditambahkan ke sorted set window saat ini dengan ZINCRBY, jadi
+ * sorted set berisi gabungan akses semua instance. Warm-up membaca gabungan beberapa window terakhir.
+ */
+@Slf4j
+@Component
+public class HotKeyTracker {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final HotKeyProperties properties;
+
+    private final Map<String, HotKeySketch> sketches = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(StringRedisTemplate redisTemplate, HotKeyProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    public void record(String cacheName, Object key) {
+        sketches.computeIfAbsent(cacheName, name -> newSketch()).add(String.valueOf(key));
+    }
+
+    @Scheduled(fixedDelayString = "${cache.hot-keys.persist-interval:60}", timeUnit = TimeUnit.SECONDS)
+    public void persist() {
+        long window = window(Instant.now());
+        for (String cacheName : List.copyOf(sketches.keySet())) {
+            // akses yang masuk ke sketch lama di sela-sela penggantian boleh hilang
+            Map<String, Long> top = sketches.put(cacheName, newSketch()).top();
+            if (top.isEmpty()) {
+                continue;
+            }
+
+            byte[] key = bytes(key(cacheName, window));
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    top.forEach((member, count) -> connection.zSetCommands().zIncrBy(key, count, bytes(member)));
+                    // yang tersisa hanya capacity key teratas
+                    connection.zSetCommands().zRemRange(key, 0, -properties.getCapacity() - 1);
+                    connection.keyCommands().expire(key, properties.getWindow().multipliedBy(properties.getWindows() + 1L).toSeconds());
+                    return null;
+                });
+            } catch (RuntimeException exception) {
+                log.warn("failed to persist hot keys of cache {}", cacheName, exception);
+            }
+        }
+    }
+
+    /**
+     * paling banyak limit key teratas dari gabungan window saat ini dan beberapa window sebelumnya
+     */
+    public List<String> hotKeys(String cacheName, int limit) {
+        long window = window(Instant.now());
+        List<String> keys = new ArrayList<>();
+        for (int i = 1; i < properties.getWindows(); i++) {
+            keys.add(key(cacheName, window - i));
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().unionWithScores(key(cacheName, window), keys);
+        if (tuples == null) {
+            return List.of();
+        }
+        return tuples.stream()
+                .sorted(Comparator.comparing(ZSetOperations.TypedTuple<String>::getScore, Comparator.reverseOrder()))
+                .limit(limit)
+                .map(ZSetOperations.TypedTuple::getValue)
+                .toList();
+    }
+
+    /**
+     * kandidat key teratas di instance ini sejak persist terakhir
+     */
+    public Map<String, Long> localTop(String cacheName) {
+        HotKeySketch sketch = sketches.get(cacheName);
+        return sketch == null ? Map.of() : sketch.top();
+    }
+
+    private HotKeySketch newSketch() {
+        return new HotKeySketch(properties.getSketchWidth(), properties.getSketchDepth(), properties.getCapacity());
+    }
+
+    private long window(Instant now) {
+        return now.getEpochSecond() / properties.getWindow().toSeconds();
+    }
+
+    private String key(String cacheName, long window) {
+        return properties.getKeyPrefix() + cacheName + ":" + window;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
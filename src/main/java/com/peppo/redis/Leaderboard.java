@@ -0,0 +1,280 @@
+package com.peppo.redis;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+/**
+ * Leaderboard di sorted set redis. Penambahan skor dikumpulkan per member di memori lalu dikirim terjadwal
+ * sebagai ZINCRBY dalam satu script, jadi member yang naik ribuan kali per detik cukup satu command per flush.
+ * Top-N dan rank dilayani dari snapshot lokal yang di-refresh terjadwal dan tidak pernah lebih tua dari
+ * leaderboard.max-staleness; skor yang belum di-flush belum terlihat di query.
+ */
+@Slf4j
+@Component
+public class Leaderboard {
+
+    private static final RedisScript<List> FLUSH = RedisScript.of(new ClassPathResource("scripts/leaderboard-flush.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final LeaderboardProperties properties;
+
+    /**
+     * board -&gt; member -&gt; delta yang belum di-flush
+     */
+    private final Map<String, Map<String, Double>> pending = new ConcurrentHashMap<>();
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final LongAdder increments = new LongAdder();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private final LongAdder snapshotLoads = new LongAdder();
+
+    public Leaderboard(StringRedisTemplate redisTemplate, LeaderboardProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    public void increment(String board, String member, double delta) {
+        increments.increment();
+        requeue(board, member, delta);
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.flush-interval:500}")
+    public synchronized void flush() {
+        Map<String, Map<String, Double>> deltas = new HashMap<>();
+        pending.forEach((board, members) -> {
+            for (String member : members.keySet()) {
+                Double delta = members.remove(member);
+                if (delta != null && delta != 0) {
+                    deltas.computeIfAbsent(board, key -> new HashMap<>()).put(member, delta);
+                }
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        deltas.forEach((board, members) -> members.forEach((member, delta) -> {
+            keys.add(board);
+            args.add(member);
+            args.add(String.valueOf(delta));
+        }));
+
+        List<Long> failed;
+        try {
+            // hanya posisi delta yang ZINCRBY-nya gagal yang dikembalikan, sisanya sudah diterapkan
+            failed = failed(redisTemplate.execute(FLUSH, keys, args.toArray()));
+            if (!failed.isEmpty()) {
+                log.warn("failed to flush {} leaderboard increments, retrying later", failed.size());
+            }
+        } catch (RuntimeException exception) {
+            // script jalan utuh atau tidak sama sekali, semua delta dicoba lagi di flush berikutnya.
+            // hanya kalau balasannya yang hilang setelah script jalan delta bisa terhitung dua kali
+            log.warn("failed to flush leaderboard increments, retrying later", exception);
+            failed = LongStream.rangeClosed(1, keys.size()).boxed().toList();
+        }
+
+        for (Long index : failed) {
+            int i = index.intValue() - 1;
+            requeue(keys.get(i), args.get(2 * i), Double.parseDouble(args.get(2 * i + 1)));
+        }
+        flushed.add(keys.size() - failed.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    /**
+     * member dengan skor tertinggi, lebih dari leaderboard.snapshot-size langsung ZREVRANGE ke redis
+     */
+    public List<Entry> top(String board, int n) {
+        if (n > properties.getSnapshotSize()) {
+            return Snapshot.of(revRange(board, n), 0).entries();
+        }
+        List<Entry> entries = snapshot(board).entries();
+        return entries.subList(0, Math.min(n, entries.size()));
+    }
+
+    /**
+     * rank 0 untuk skor tertinggi seperti ZREVRANK, null kalau member tidak ada
+     */
+    public Entry rank(String board, String member) {
+        Snapshot snapshot = snapshot(board);
+        Entry entry = snapshot.members().get(member);
+        if (entry != null || snapshot.entries().size() < properties.getSnapshotSize()) {
+            // snapshot yang tidak penuh berisi seluruh board
+            return entry;
+        }
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zRevRank(bytes(board), bytes(member));
+            connection.zSetCommands().zScore(bytes(board), bytes(member));
+            return null;
+        });
+        if (results.get(0) == null || results.get(1) == null) {
+            return null;
+        }
+        return new Entry(member, (Double) results.get(1), (Long) results.get(0));
+    }
+
+    /**
+     * refresh semua board yang masih di-query dalam satu pipeline ZREVRANGE WITHSCORES
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot-refresh-interval:1000}")
+    public void refresh() {
+        long now = System.nanoTime();
+        snapshots.values().removeIf(snapshot -> now - snapshot.lastRead > properties.getIdleTimeout().toNanos());
+        List<String> boards = new ArrayList<>(snapshots.keySet());
+        if (boards.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Object> results = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+                connection.openPipeline();
+                for (String board : boards) {
+                    connection.zSetCommands().zRevRangeWithScores(bytes(board), 0, properties.getSnapshotSize() - 1);
+                }
+                return connection.closePipeline();
+            });
+            for (int i = 0; i < boards.size(); i++) {
+                Snapshot refreshed = Snapshot.of(tuples(results.get(i)), System.nanoTime());
+                Snapshot previous = snapshots.put(boards.get(i), refreshed);
+                refreshed.lastRead = previous == null ? now : previous.lastRead;
+            }
+            snapshotLoads.add(boards.size());
+        } catch (RuntimeException exception) {
+            // snapshot lama tetap dipakai sampai max-staleness, setelah itu query memuat sendiri
+            log.warn("failed to refresh leaderboard snapshots", exception);
+        }
+    }
+
+    public long getIncrements() {
+        return increments.sum();
+    }
+
+    public long getFlushed() {
+        return flushed.sum();
+    }
+
+    public long getSnapshotLoads() {
+        return snapshotLoads.sum();
+    }
+
+    public int getPending() {
+        return pending.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * snapshot yang lebih tua dari max-staleness dimuat ulang, query bersamaan untuk board yang sama
+     * hanya menjalankan satu ZREVRANGE
+     */
+    private Snapshot snapshot(String board) {
+        long now = System.nanoTime();
+        long maxStaleness = properties.getMaxStaleness().toNanos();
+        Snapshot snapshot = snapshots.get(board);
+        if (snapshot == null || now - snapshot.loadedAt > maxStaleness) {
+            snapshot = snapshots.compute(board, (key, current) -> {
+                if (current != null && now - current.loadedAt <= maxStaleness) {
+                    return current;
+                }
+                snapshotLoads.increment();
+                return Snapshot.of(revRange(board, properties.getSnapshotSize()), now);
+            });
+        }
+        snapshot.lastRead = now;
+        return snapshot;
+    }
+
+    private Set<Tuple> revRange(String board, int n) {
+        return redisTemplate.execute((RedisCallback<Set<Tuple>>) connection ->
+                connection.zSetCommands().zRevRangeWithScores(bytes(board), 0, n - 1));
+    }
+
+    private void requeue(String board, String member, double delta) {
+        pending.computeIfAbsent(board, key -> new ConcurrentHashMap<>()).merge(member, delta, Double::sum);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> failed(List<?> result) {
+        return result == null ? List.of() : (List<Long>) result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Tuple> tuples(Object result) {
+        return (Set<Tuple>) result;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public record Entry(String member, double score, long rank) {
+    }
+
+    private static class Snapshot {
+
+        private final List<Entry> entries;
+
+        private final Map<String, Entry> members;
+
+        private final long loadedAt;
+
+        /**
+         * ditulis tanpa lock, cukup perkiraan untuk membuang board yang sudah tidak di-query
+         */
+        private volatile long lastRead;
+
+        private Snapshot(List<Entry> entries, Map<String, Entry> members, long loadedAt) {
+            this.entries = entries;
+            this.members = members;
+            this.loadedAt = loadedAt;
+            this.lastRead = loadedAt;
+        }
+
+        static Snapshot of(Set<Tuple> tuples, long loadedAt) {
+            List<Entry> entries = new ArrayList<>();
+            Map<String, Entry> members = new HashMap<>();
+            if (tuples != null) {
+                for (Tuple tuple : tuples) {
+                    Entry entry = new Entry(new String(tuple.getValue(), StandardCharsets.UTF_8), tuple.getScore(), entries.size());
+                    entries.add(entry);
+                    members.put(entry.member(), entry);
+                }
+            }
+            return new Snapshot(List.copyOf(entries), members, loadedAt);
+        }
+
+        List<Entry> entries() {
+            return entries;
+        }
+
+        Map<String, Entry> members() {
+            return members;
+        }
+    }
+}
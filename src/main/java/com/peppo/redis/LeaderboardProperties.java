@@ -0,0 +1,26 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "leaderboard")
+public class LeaderboardProperties {
+
+    /**
+     * jumlah member teratas yang disimpan di snapshot lokal, rank di luar ini langsung ke redis
+     */
+    private int snapshotSize = 100;
+
+    /**
+     * umur maksimal snapshot, kalau lebih tua query memuat ulang dari redis
+     */
+    private Duration maxStaleness = Duration.ofSeconds(2);
+
+    /**
+     * board yang tidak di-query selama ini tidak di-refresh lagi dan snapshot-nya dibuang
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+}
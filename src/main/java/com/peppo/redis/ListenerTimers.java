@@ -0,0 +1,29 @@
+package com.peppo.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+/**
+ * Timer redis.listener.duration per listener, di-register sekali di constructor
+ * supaya di jalur message tidak ada lookup ke registry
+ */
+final class ListenerTimers {
+
+    private ListenerTimers() {
+    }
+
+    static Timer timer(MeterRegistry meterRegistry, String listener) {
+        return timer(meterRegistry, listener, "success");
+    }
+
+    static Timer timer(MeterRegistry meterRegistry, String listener, String outcome) {
+        return Timer.builder("redis.listener.duration")
+                .tags("listener", listener, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.peppo.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Load generator open-loop untuk orders (stream) dan customers (pub/sub). Jadwal kirim ke-i selalu
+ * start + i / rate, tidak menunggu balasan kiriman sebelumnya; kalau pengirim tertinggal kiriman langsung
+ * dilakukan tanpa dilewati dan tetap dicap dengan waktu jadwalnya, jadi latency yang dicatat listener
+ * sudah termasuk waktu antri di pengirim. Di akhir run histogram EndToEndLatency di-log.
+ */
+@Slf4j
+@Component
+public class LoadGenerator {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final OrderPublisher orderPublisher;
+
+    private final CustomerPublisher customerPublisher;
+
+    private final EndToEndLatency endToEndLatency;
+
+    private final LoadGeneratorProperties properties;
+
+    private final LongAdder ordersSent = new LongAdder();
+
+    private final LongAdder customersSent = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    public LoadGenerator(OrderPublisher orderPublisher, CustomerPublisher customerPublisher,
+                         EndToEndLatency endToEndLatency, LoadGeneratorProperties properties) {
+        this.orderPublisher = orderPublisher;
+        this.customerPublisher = customerPublisher;
+        this.endToEndLatency = endToEndLatency;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled()) {
+            Thread.ofVirtual().name("load-generator").start(this::run);
+        }
+    }
+
+    public void run() {
+        log.info("load generator: {} orders/s, {} customers/s for {}", properties.getOrderRate(),
+                properties.getCustomerRate(), properties.getDuration());
+        long start = System.nanoTime();
+        long startMicros = EndToEndLatency.nowMicros();
+        long end = start + properties.getWarmUp().toNanos() + properties.getDuration().toNanos();
+
+        List<Thread> senders = new ArrayList<>();
+        if (properties.getOrderRate() > 0) {
+            senders.add(Thread.ofVirtual().name("load-generator-orders").start(() ->
+                    drive(properties.getOrderRate(), start, startMicros, end, sentAt -> {
+                        orderPublisher.publish(sentAt).whenComplete((recordId, exception) -> {
+                            if (exception != null) {
+                                failed.increment();
+                            }
+                        });
+                        ordersSent.increment();
+                    })));
+        }
+        if (properties.getCustomerRate() > 0) {
+            senders.add(Thread.ofVirtual().name("load-generator-customers").start(() ->
+                    drive(properties.getCustomerRate(), start, startMicros, end, sentAt -> {
+                        try {
+                            customerPublisher.publish(sentAt);
+                            customersSent.increment();
+                        } catch (RuntimeException exception) {
+                            failed.increment();
+                        }
+                    })));
+        }
+
+        try {
+            sleepUntil(start + properties.getWarmUp().toNanos());
+            endToEndLatency.reset();
+            ordersSent.reset();
+            customersSent.reset();
+            failed.reset();
+
+            for (Thread sender : senders) {
+                sender.join();
+            }
+            Thread.sleep(properties.getDrain().toMillis());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            senders.forEach(Thread::interrupt);
+        }
+        report();
+    }
+
+    public void report() {
+        log.info("load generator result: sent {} orders, {} customers, {} failed",
+                ordersSent.sum(), customersSent.sum(), failed.sum());
+        report("orders", ordersSent.sum());
+        report("customers", customersSent.sum());
+    }
+
+    public long getOrdersSent() {
+        return ordersSent.sum();
+    }
+
+    public long getCustomersSent() {
+        return customersSent.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private void report(String destination, long sent) {
+        LatencyHistogram histogram = endToEndLatency.histogram(destination);
+        if (sent == 0 && histogram.getCount() == 0) {
+            return;
+        }
+
+        StringBuilder percentiles = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            percentiles.append(String.format(" p%s=%.3fms", percentile, histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        log.info("{}: received {}/{} mean={}ms{} max={}ms", destination, histogram.getCount(), sent,
+                String.format("%.3f", histogram.getMean() / 1000.0), percentiles, String.format("%.3f", histogram.getMax() / 1000.0));
+    }
+
+    /**
+     * kirim pada start + i * period sampai end, kiriman yang sudah lewat jadwal langsung dikirim
+     */
+    private static void drive(int rate, long start, long startMicros, long end, LongConsumer send) {
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (long i = 0; ; i++) {
+            long intended = start + i * period;
+            if (intended - end >= 0 || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            sleepUntil(intended);
+            send.accept(startMicros + (intended - start) / 1000);
+        }
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
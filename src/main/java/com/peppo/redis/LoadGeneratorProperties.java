@@ -0,0 +1,38 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "loadgen")
+public class LoadGeneratorProperties {
+
+    /**
+     * jalan sekali setelah aplikasi siap, cukup redis lokal
+     */
+    private boolean enabled = false;
+
+    /**
+     * target order per detik lewat OrderBatchPublisher, 0 = mati
+     */
+    private int orderRate = 1000;
+
+    /**
+     * target pesan customers per detik, 0 = mati
+     */
+    private int customerRate = 1000;
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * hasil selama warm-up dibuang dari histogram
+     */
+    private Duration warmUp = Duration.ofSeconds(5);
+
+    /**
+     * waktu tunggu setelah pengiriman terakhir sebelum laporan dibuat
+     */
+    private Duration drain = Duration.ofSeconds(5);
+}
@@ -0,0 +1,180 @@
+package com.peppo.redis;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor ber-stripe dengan antrian terbatas untuk listener pub/sub. Task dengan key yang sama
+ * dijalankan berurutan di stripe yang sama, antrian penuh ditangani sesuai OverflowPolicy.
+ * Dipanggil dari thread subscription (event loop lettuce), jadi kecuali OverflowPolicy.BLOCK dispatch tidak pernah menunggu.
+ */
+@Slf4j
+@Component
+public class MessageDispatcher {
+
+    private final PubSubDispatchProperties properties;
+
+    private final List<BlockingQueue<Runnable>> queues = new ArrayList<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder dispatched = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+
+    public MessageDispatcher(PubSubDispatchProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(1, properties.getThreads());
+        if (properties.isOrdered()) {
+            for (int i = 0; i < threads; i++) {
+                queues.add(new ArrayBlockingQueue<>(properties.getQueueCapacity()));
+            }
+        } else {
+            queues.add(new ArrayBlockingQueue<>(properties.getQueueCapacity() * threads));
+        }
+
+        running = true;
+        var builder = properties.isVirtualThreads()
+                ? Thread.ofVirtual().name("pubsub-dispatch-", 0)
+                : Thread.ofPlatform().daemon().name("pubsub-dispatch-", 0);
+        for (int i = 0; i < threads; i++) {
+            BlockingQueue<Runnable> queue = queues.get(i % queues.size());
+            workers.add(builder.start(() -> run(queue)));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * key hanya dipakai untuk memilih stripe saat ordered = true
+     *
+     * @return false kalau task dibuang karena antrian penuh atau dispatcher sudah berhenti
+     */
+    public boolean dispatch(int key, Runnable task) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+
+        BlockingQueue<Runnable> queue = queues.size() == 1 ? queues.get(0) : queues.get(Math.floorMod(spread(key), queues.size()));
+        if (queue.offer(task)) {
+            return accepted(queue, task);
+        }
+
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK -> {
+                try {
+                    queue.put(task);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                    return false;
+                }
+            }
+            case DROP -> {
+                dropped.increment();
+                return false;
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(task)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+        }
+        return accepted(queue, task);
+    }
+
+    /**
+     * untuk task tanpa key, dibagi rata ke semua stripe
+     */
+    public boolean dispatch(Runnable task) {
+        return dispatch(next.getAndIncrement(), task);
+    }
+
+    public long getDispatched() {
+        return dispatched.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public int getQueueSize() {
+        int size = 0;
+        for (BlockingQueue<Runnable> queue : queues) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    /**
+     * stop() bisa terjadi di antara cek running dan enqueue, worker yang sudah keluar tidak akan mengambil task ini
+     */
+    private boolean accepted(BlockingQueue<Runnable> queue, Runnable task) {
+        if (!running && queue.remove(task)) {
+            dropped.increment();
+            return false;
+        }
+        dispatched.increment();
+        return true;
+    }
+
+    private void run(BlockingQueue<Runnable> queue) {
+        // setelah stop() sisa antrian tetap diproses
+        while (running || !queue.isEmpty()) {
+            Runnable task;
+            try {
+                task = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+
+            try {
+                task.run();
+            } catch (RuntimeException exception) {
+                failed.increment();
+                log.error("pub/sub listener failed", exception);
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,155 @@
+package com.peppo.redis;
+
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * dipakai LettuceMetricsAutoConfiguration, percentile di client dimatikan karena mahal
+     * dan tidak bisa diagregasi antar instance, cukup bucket histogram
+     */
+    @Bean
+    public MicrometerOptions micrometerOptions(RedisMetricsProperties properties) {
+        return MicrometerOptions.builder()
+                .histogram(properties.isCommandHistogram())
+                .targetPercentiles(new double[0])
+                .minLatency(properties.getCommandMinLatency())
+                .maxLatency(properties.getCommandMaxLatency())
+                .build();
+    }
+
+    /**
+     * cache dari CacheManager dibungkus near cache / coalescing cache, jadi provider bawaan
+     * untuk RedisCache tidak cocok, statistik tetap diambil dari RedisCache di dalamnya
+     */
+    @Bean
+    public CacheMeterBinderProvider<DelegatingCache> delegatingCacheMeterBinderProvider() {
+        return (cache, tags) -> {
+            if (DelegatingCache.unwrap(cache) instanceof RedisCache redisCache) {
+                return new RedisCacheMetrics(redisCache, tags);
+            }
+            return null;
+        };
+    }
+
+    @Bean
+    public MeterBinder messageDispatcherMetrics(MessageDispatcher messageDispatcher) {
+        return registry -> {
+            FunctionCounter.builder("pubsub.dispatch.messages", messageDispatcher, MessageDispatcher::getDispatched)
+                    .tag("result", "dispatched").register(registry);
+            FunctionCounter.builder("pubsub.dispatch.messages", messageDispatcher, MessageDispatcher::getDropped)
+                    .tag("result", "dropped").register(registry);
+            FunctionCounter.builder("pubsub.dispatch.messages", messageDispatcher, MessageDispatcher::getFailed)
+                    .tag("result", "failed").register(registry);
+            Gauge.builder("pubsub.dispatch.queue.size", messageDispatcher, MessageDispatcher::getQueueSize)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder publisherMetrics(OrderBatchPublisher orderBatchPublisher, CustomerPublisher customerPublisher) {
+        return registry -> {
+            FunctionCounter.builder("redis.publish", orderBatchPublisher, OrderBatchPublisher::getPublished)
+                    .tags("destination", "orders", "type", "stream", "result", "success").register(registry);
+            FunctionCounter.builder("redis.publish", orderBatchPublisher, OrderBatchPublisher::getFailed)
+                    .tags("destination", "orders", "type", "stream", "result", "failure").register(registry);
+            FunctionCounter.builder("redis.publish", orderBatchPublisher, OrderBatchPublisher::getRejected)
+                    .tags("destination", "orders", "type", "stream", "result", "rejected").register(registry);
+            Gauge.builder("orders.publisher.buffer.size", orderBatchPublisher, OrderBatchPublisher::getBufferSize)
+                    .register(registry);
+            FunctionCounter.builder("redis.publish", customerPublisher, CustomerPublisher::getPublished)
+                    .tags("destination", "customers", "type", "channel", "result", "success").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder orderReclaimerMetrics(OrderReclaimer orderReclaimer) {
+        return registry -> FunctionCounter.builder("orders.dead.letter", orderReclaimer, OrderReclaimer::getDeadLettered)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder trafficCounterMetrics(TrafficCounter trafficCounter) {
+        return registry -> {
+            FunctionCounter.builder("traffic.visitors.recorded", trafficCounter, TrafficCounter::getRecorded)
+                    .register(registry);
+            FunctionCounter.builder("traffic.redis.commands", trafficCounter, TrafficCounter::getCommands)
+                    .register(registry);
+            Gauge.builder("traffic.buffer.size", trafficCounter, TrafficCounter::getBuffered)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder leaderboardMetrics(Leaderboard leaderboard) {
+        return registry -> {
+            FunctionCounter.builder("leaderboard.increments", leaderboard, Leaderboard::getIncrements)
+                    .register(registry);
+            FunctionCounter.builder("leaderboard.redis.increments", leaderboard, Leaderboard::getFlushed)
+                    .register(registry);
+            FunctionCounter.builder("leaderboard.snapshot.loads", leaderboard, Leaderboard::getSnapshotLoads)
+                    .register(registry);
+            Gauge.builder("leaderboard.pending", leaderboard, Leaderboard::getPending)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheWarmUpMetrics(ProductCacheWarmer productCacheWarmer) {
+        return registry -> FunctionCounter.builder("cache.warm.up.entries", productCacheWarmer, ProductCacheWarmer::getWarmed)
+                .tag("cache", "products").register(registry);
+    }
+
+    @Bean
+    public MeterBinder compressionMetrics(ValueCompressor valueCompressor) {
+        return registry -> {
+            FunctionCounter.builder("codec.compression.values", valueCompressor, ValueCompressor::getCompressed)
+                    .tag("result", "compressed").register(registry);
+            FunctionCounter.builder("codec.compression.values", valueCompressor, ValueCompressor::getSkipped)
+                    .tag("result", "skipped").register(registry);
+            FunctionCounter.builder("codec.compression.bytes", valueCompressor, ValueCompressor::getOriginalBytes)
+                    .tag("stage", "original").baseUnit("bytes").register(registry);
+            FunctionCounter.builder("codec.compression.bytes", valueCompressor, ValueCompressor::getCompressedBytes)
+                    .tag("stage", "compressed").baseUnit("bytes").register(registry);
+            Gauge.builder("codec.compression.ratio", valueCompressor, ValueCompressor::getCompressionRatio)
+                    .register(registry);
+            FunctionTimer.builder("codec.compression.time", valueCompressor,
+                            ValueCompressor::getAttempts, ValueCompressor::getCompressNanos, TimeUnit.NANOSECONDS)
+                    .tag("operation", "compress").register(registry);
+            FunctionTimer.builder("codec.compression.time", valueCompressor,
+                            ValueCompressor::getDecompressed, ValueCompressor::getDecompressNanos, TimeUnit.NANOSECONDS)
+                    .tag("operation", "decompress").register(registry);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "products.sweeper", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder productSweeperMetrics(ProductSweeper productSweeper) {
+        return registry -> {
+            FunctionCounter.builder("repository.sweeper.ids", productSweeper, ProductSweeper::getChecked)
+                    .tags("keyspace", "products", "result", "checked").register(registry);
+            FunctionCounter.builder("repository.sweeper.ids", productSweeper, ProductSweeper::getRemoved)
+                    .tags("keyspace", "products", "result", "removed").register(registry);
+            FunctionCounter.builder("repository.sweeper.expired.events", productSweeper, ProductSweeper::getExpiredEvents)
+                    .tag("keyspace", "products").register(registry);
+            FunctionCounter.builder("repository.sweeper.expired.dropped", productSweeper, ProductSweeper::getExpiredDropped)
+                    .tag("keyspace", "products").register(registry);
+            FunctionTimer.builder("repository.sweeper.pass", productSweeper,
+                            ProductSweeper::getCompletedPasses, ProductSweeper::getPassNanos, TimeUnit.NANOSECONDS)
+                    .tag("keyspace", "products").register(registry);
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package com.peppo.redis;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache dua tingkat: L1 caffeine (lokal, dibatasi ukuran dan TTL) di depan L2 redis.
+ * Setiap put/evict/clear diteruskan ke redis lalu di-broadcast ke instance lain
+ * lewat pub/sub supaya L1 mereka ikut dibuang; dengan write-behind, put/evict baru di-broadcast setelah ter-flush.
+ */
+@Slf4j
+public class NearCache implements DelegatingCache {
+
+    private final Cache delegate;
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String channel;
+
+    private final String instanceId;
+
+    /**
+     * true kalau di bawahnya ada WriteBehindCache, invalidation put / evict baru di-publish setelah flush
+     * supaya instance lain tidak memuat ulang value lama dari redis
+     */
+    private final boolean publishAfterFlush;
+
+    public NearCache(Cache delegate, NearCacheProperties properties, StringRedisTemplate redisTemplate, String instanceId) {
+        this.delegate = delegate;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.redisTemplate = redisTemplate;
+        this.channel = properties.getInvalidationChannel();
+        this.instanceId = instanceId;
+
+        WriteBehindCache writeBehind = DelegatingCache.find(delegate, WriteBehindCache.class);
+        if (writeBehind != null) {
+            writeBehind.setFlushListener(this::publishInvalidations);
+        }
+        this.publishAfterFlush = writeBehind != null;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            return wrapper;
+        }
+
+        wrapper = delegate.get(key);
+        if (wrapper != null) {
+            local.put(localKey, wrapper);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value = delegate.get(key, valueLoader);
+        local.put(localKey, () -> value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        local.put(toLocalKey(key), () -> value);
+        if (!publishAfterFlush) {
+            publishInvalidation(toLocalKey(key));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        local.invalidate(toLocalKey(key));
+        if (!publishAfterFlush) {
+            publishInvalidation(toLocalKey(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        local.invalidateAll();
+        publishInvalidation("");
+    }
+
+    /**
+     * hanya L1, dipakai jalur bulk yang membaca/menulis redis sendiri
+     */
+    ValueWrapper getLocal(Object key) {
+        return local.getIfPresent(toLocalKey(key));
+    }
+
+    void putLocal(Object key, Object value) {
+        local.put(toLocalKey(key), () -> value);
+    }
+
+    /**
+     * dipanggil listener saat instance lain mengubah key ini,
+     * key kosong artinya seluruh cache di-clear
+     */
+    void invalidateLocal(String localKey) {
+        if (localKey.isEmpty()) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+
+    /**
+     * L1 dibuang lalu invalidation untuk semua key di-publish dalam satu pipeline,
+     * dipakai jalur bulk yang sudah menghapus entry di redis sendiri
+     */
+    void invalidate(Collection<String> keys) {
+        keys.forEach(key -> local.invalidate(toLocalKey(key)));
+        publishInvalidations(keys);
+    }
+
+    public long getLocalHits() {
+        return local.stats().hitCount();
+    }
+
+    public long getLocalMisses() {
+        return local.stats().missCount();
+    }
+
+    public long getRemoteHits() {
+        return DelegatingCache.unwrap(delegate) instanceof RedisCache redisCache ? redisCache.getStatistics().getHits() : 0;
+    }
+
+    public long getRemoteMisses() {
+        return DelegatingCache.unwrap(delegate) instanceof RedisCache redisCache ? redisCache.getStatistics().getMisses() : 0;
+    }
+
+    public long getLocalSize() {
+        return local.estimatedSize();
+    }
+
+    private void publishInvalidation(String localKey) {
+        try {
+            redisTemplate.convertAndSend(channel, NearCacheInvalidationListener.format(instanceId, getName(), localKey));
+        } catch (RuntimeException exception) {
+            // entry di instance lain tetap kadaluarsa sendiri setelah time-to-live L1
+            log.warn("failed to publish invalidation cache={} key={}", getName(), localKey, exception);
+        }
+    }
+
+    private void publishInvalidations(Collection<String> localKeys) {
+        if (localKeys.isEmpty()) {
+            return;
+        }
+
+        try {
+            byte[] rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String localKey : localKeys) {
+                    connection.publish(rawChannel, NearCacheInvalidationListener
+                            .format(instanceId, getName(), localKey).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (RuntimeException exception) {
+            log.warn("failed to publish {} invalidations cache={}", localKeys.size(), getName(), exception);
+        }
+    }
+
+    private static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
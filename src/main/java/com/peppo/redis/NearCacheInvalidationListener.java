@@ -0,0 +1,48 @@
+package com.peppo.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * format pesan: instanceId|cacheName|key
+ */
+@Slf4j
+public class NearCacheInvalidationListener implements MessageListener {
+
+    private static final char SEPARATOR = '|';
+
+    private final NearCacheManager cacheManager;
+
+    public NearCacheInvalidationListener(NearCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    static String format(String instanceId, String cacheName, String key) {
+        return instanceId + SEPARATOR + cacheName + SEPARATOR + key;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(SEPARATOR);
+        int second = body.indexOf(SEPARATOR, first + 1);
+        if (first < 0 || second < 0) {
+            log.warn("invalid invalidation message: {}", body);
+            return;
+        }
+
+        String instanceId = body.substring(0, first);
+        if (instanceId.equals(cacheManager.getInstanceId())) {
+            // L1 sendiri sudah di-update saat put/evict
+            return;
+        }
+
+        NearCache cache = cacheManager.getNearCache(body.substring(first + 1, second));
+        if (cache != null) {
+            cache.invalidateLocal(body.substring(second + 1));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.peppo.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class NearCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final NearCacheProperties properties;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, NearCache> caches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager delegate, NearCacheProperties properties, StringRedisTemplate redisTemplate) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!properties.getCacheNames().contains(name)) {
+            return delegate.getCache(name);
+        }
+
+        NearCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = delegate.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new NearCache(remote, properties, redisTemplate, instanceId));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    NearCache getNearCache(String name) {
+        return caches.get(name);
+    }
+
+    public Collection<NearCache> getNearCaches() {
+        return caches.values();
+    }
+}
@@ -0,0 +1,31 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "cache.near")
+public class NearCacheProperties {
+
+    /**
+     * aktifkan L1 cache in-process di depan redis cache
+     */
+    private boolean enabled = false;
+
+    /**
+     * nama cache yang dibungkus dengan L1, cache lain langsung ke redis
+     */
+    private Set<String> cacheNames = Set.of("products");
+
+    private long maximumSize = 10_000;
+
+    /**
+     * batas maksimal entry L1 bisa stale kalau pesan invalidation hilang
+     */
+    private Duration timeToLive = Duration.ofSeconds(5);
+
+    private String invalidationChannel = "cache-invalidation";
+}
@@ -12,4 +12,13 @@ public class Order {
     private String id;
 
     private Long amount;
+
+    /**
+     * waktu kirim yang dijadwalkan load generator dalam mikrodetik epoch, null untuk order biasa
+     */
+    private Long sentAt;
+
+    public Order(String id, Long amount) {
+        this(id, amount, null);
+    }
 }
@@ -0,0 +1,328 @@
+package com.peppo.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Arsip lokal append-only untuk entry stream. Satu file segment berisi blok-blok:
+ * [magic][count][raw length][compressed length][crc32][last id ms][last id seq][deflate(records)],
+ * record = [id ms][id seq][jumlah field]([field][value])* dalam format BinaryOutput.
+ * Segment diberi nama dari id pertama jadi urutan nama = urutan id, dan dibaca ulang lewat mmap.
+ */
+@Slf4j
+public class OrderArchive implements Closeable {
+
+    private static final int MAGIC = 0x4F415243;
+
+    private static final int HEADER_SIZE = 36;
+
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final int compressionLevel;
+
+    private FileChannel current;
+
+    private RecordId lastArchivedId;
+
+    public OrderArchive(Path directory, long segmentSize, int compressionLevel) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compressionLevel = compressionLevel;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * id terakhir yang sudah aman di disk, null kalau arsip masih kosong
+     */
+    public RecordId getLastArchivedId() {
+        return lastArchivedId;
+    }
+
+    /**
+     * satu panggilan = satu blok terkompresi, di-fsync sebelum return
+     */
+    public synchronized void append(List<ByteRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        byte[] raw = encode(records);
+        byte[] compressed = deflate(raw);
+        var crc = new CRC32();
+        crc.update(compressed);
+        RecordId lastId = records.get(records.size() - 1).getId();
+
+        ByteBuffer block = ByteBuffer.allocate(HEADER_SIZE + compressed.length)
+                .putInt(MAGIC)
+                .putInt(records.size())
+                .putInt(raw.length)
+                .putInt(compressed.length)
+                .putInt((int) crc.getValue())
+                .putLong(lastId.getTimestamp())
+                .putLong(lastId.getSequence())
+                .put(compressed)
+                .flip();
+
+        try {
+            if (current == null || current.size() + block.remaining() > segmentSize) {
+                roll(records.get(0).getId());
+            }
+            while (block.hasRemaining()) {
+                current.write(block);
+            }
+            current.force(false);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        lastArchivedId = lastId;
+    }
+
+    /**
+     * membaca semua entry dengan id &gt; after (null = dari awal) berurutan. Blok yang seluruhnya
+     * &lt;= after dilewati hanya dengan membaca header-nya.
+     */
+    public void replay(RecordId after, BiConsumer<RecordId, Map<byte[], byte[]>> consumer) {
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            // segment berikutnya dimulai sebelum after, berarti segment ini sudah terlewati semua
+            if (after != null && i + 1 < segments.size() && compare(firstId(segments.get(i + 1)), after) <= 0) {
+                continue;
+            }
+            replaySegment(segments.get(i), after, consumer);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            current = null;
+        }
+    }
+
+    private void replaySegment(Path segment, RecordId after, BiConsumer<RecordId, Map<byte[], byte[]>> consumer) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            var inflater = new Inflater();
+            try {
+                while (buffer.remaining() >= HEADER_SIZE) {
+                    Header header = Header.read(buffer);
+                    if (header == null || buffer.remaining() < header.compressedLength()) {
+                        return;
+                    }
+
+                    ByteBuffer compressed = buffer.slice(buffer.position(), header.compressedLength());
+                    buffer.position(buffer.position() + header.compressedLength());
+                    if (after != null && compare(header.lastId(), after) <= 0) {
+                        continue;
+                    }
+
+                    byte[] raw = inflate(inflater, compressed, header.rawLength());
+                    decode(raw, header.count(), after, consumer);
+                }
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * mencari id terakhir dari segment paling baru dan memotong blok terakhir yang tidak lengkap
+     * (proses mati di tengah write)
+     */
+    private void recover() throws IOException {
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        Path last = segments.get(segments.size() - 1);
+        long validSize = 0;
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER_SIZE) {
+                Header header = Header.read(buffer);
+                if (header == null || buffer.remaining() < header.compressedLength()) {
+                    break;
+                }
+
+                var crc = new CRC32();
+                crc.update(buffer.slice(buffer.position(), header.compressedLength()));
+                if ((int) crc.getValue() != header.crc()) {
+                    break;
+                }
+                buffer.position(buffer.position() + header.compressedLength());
+                validSize = buffer.position();
+                lastArchivedId = header.lastId();
+            }
+
+            if (validSize < channel.size()) {
+                log.warn("truncating torn archive segment {} from {} to {} bytes", last, channel.size(), validSize);
+                channel.truncate(validSize);
+            }
+        }
+
+        if (lastArchivedId == null) {
+            // segment terakhir kosong, id diambil dari segment sebelumnya
+            Files.delete(last);
+            if (segments.size() > 1) {
+                recover();
+            }
+            return;
+        }
+        current = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void roll(RecordId firstId) throws IOException {
+        close();
+        Path segment = directory.resolve(String.format("%020d-%020d%s", firstId.getTimestamp(), firstId.getSequence(), SUFFIX));
+        current = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static RecordId firstId(Path segment) {
+        String name = segment.getFileName().toString();
+        String[] parts = name.substring(0, name.length() - SUFFIX.length()).split("-");
+        return RecordId.of(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    private static byte[] encode(List<ByteRecord> records) {
+        int size = 0;
+        for (ByteRecord record : records) {
+            size += BinaryOutput.sizeOfVarLong(record.getId().getTimestamp())
+                    + BinaryOutput.sizeOfVarLong(record.getId().getSequence())
+                    + BinaryOutput.sizeOfVarLong(record.getValue().size());
+            for (Map.Entry<byte[], byte[]> field : record.getValue().entrySet()) {
+                size += BinaryOutput.sizeOfBytes(field.getKey()) + BinaryOutput.sizeOfBytes(field.getValue());
+            }
+        }
+
+        var output = new BinaryOutput(size);
+        for (ByteRecord record : records) {
+            output.writeVarLong(record.getId().getTimestamp())
+                    .writeVarLong(record.getId().getSequence())
+                    .writeVarLong(record.getValue().size());
+            for (Map.Entry<byte[], byte[]> field : record.getValue().entrySet()) {
+                output.writeBytes(field.getKey()).writeBytes(field.getValue());
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static void decode(byte[] raw, int count, RecordId after, BiConsumer<RecordId, Map<byte[], byte[]>> consumer) {
+        var input = new BinaryInput(raw, 0, raw.length);
+        for (int i = 0; i < count; i++) {
+            RecordId id = RecordId.of(input.readVarLong(), input.readVarLong());
+            int fields = Math.toIntExact(input.readVarLong());
+            Map<byte[], byte[]> value = new LinkedHashMap<>(fields * 2);
+            for (int j = 0; j < fields; j++) {
+                value.put(input.readBytes(), input.readBytes());
+            }
+            if (after == null || compare(id, after) > 0) {
+                consumer.accept(id, value);
+            }
+        }
+    }
+
+    private byte[] deflate(byte[] raw) {
+        var deflater = new Deflater(compressionLevel);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, raw.length + raw.length / 1000 + 64)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(Inflater inflater, ByteBuffer compressed, int rawLength) {
+        inflater.reset();
+        inflater.setInput(compressed);
+        byte[] raw = new byte[rawLength];
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IllegalStateException("Corrupted archive block, expected " + rawLength + " bytes but got " + length);
+            }
+        } catch (DataFormatException exception) {
+            throw new IllegalStateException("Corrupted archive block", exception);
+        }
+        return raw;
+    }
+
+    private static int compare(RecordId left, RecordId right) {
+        int result = Long.compare(left.getTimestamp(), right.getTimestamp());
+        return result != 0 ? result : Long.compare(left.getSequence(), right.getSequence());
+    }
+
+    private record Header(int count, int rawLength, int compressedLength, int crc, RecordId lastId) {
+
+        static Header read(ByteBuffer buffer) {
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            return new Header(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    RecordId.of(buffer.getLong(), buffer.getLong()));
+        }
+    }
+}
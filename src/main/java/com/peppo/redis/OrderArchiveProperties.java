@@ -0,0 +1,34 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+@Data
+@ConfigurationProperties(prefix = "orders.archive")
+public class OrderArchiveProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Path.of("archive", "orders");
+
+    /**
+     * segment baru dibuat kalau segment sekarang melewati ukuran ini
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * jumlah entry per XRANGE, satu XRANGE = satu blok terkompresi
+     */
+    private int batchSize = 1_000;
+
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * XTRIM MINID sampai id yang sudah diarsip, jadi memori redis hanya berisi entry yang belum selesai diproses
+     */
+    private boolean trimArchived = false;
+}
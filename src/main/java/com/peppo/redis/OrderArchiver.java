@@ -0,0 +1,162 @@
+package com.peppo.redis;
+
+import io.lettuce.core.XTrimArgs;
+import io.lettuce.core.api.async.RedisStreamAsyncCommands;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Memindahkan entry stream orders yang sudah di-ACK consumer group ke OrderArchive.
+ * Batas atasnya id pending paling kecil (eksklusif), atau last-delivered-id kalau tidak ada yang pending,
+ * jadi entry yang masih bisa di-reclaim tidak pernah diarsip atau di-trim.
+ * Tidak bisa dipakai bersama trimming di sisi publish (orders.publisher.max-length / max-age).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "orders.archive", name = "enabled", havingValue = "true")
+public class OrderArchiver {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final OrderConsumerProperties consumerProperties;
+
+    private final OrderArchiveProperties properties;
+
+    private final OrderRecordMapper orderRecordMapper;
+
+    private final OrderArchive archive;
+
+    public OrderArchiver(StringRedisTemplate redisTemplate, OrderConsumerProperties consumerProperties,
+                         OrderArchiveProperties properties, OrderPublisherProperties publisherProperties,
+                         OrderRecordMapper orderRecordMapper) {
+        // MAXLEN / MINID saat XADD membuang entry tanpa melihat sudah diarsip atau belum
+        if (publisherProperties.getMaxLength() != null || publisherProperties.getMaxAge() != null) {
+            throw new IllegalStateException("orders.publisher.max-length and orders.publisher.max-age must not be set "
+                    + "when orders.archive.enabled, use orders.archive.trim-archived to trim archived entries");
+        }
+        this.redisTemplate = redisTemplate;
+        this.consumerProperties = consumerProperties;
+        this.properties = properties;
+        this.orderRecordMapper = orderRecordMapper;
+        this.archive = new OrderArchive(properties.getDirectory(), properties.getSegmentSize().toBytes(),
+                properties.getCompressionLevel());
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval:10}", timeUnit = TimeUnit.SECONDS)
+    public synchronized void archive() {
+        Range.Bound<String> upper = acknowledgedUpperBound();
+        if (upper == null) {
+            return;
+        }
+
+        byte[] stream = bytes(consumerProperties.getStream());
+        int total = 0;
+        while (true) {
+            RecordId after = archive.getLastArchivedId();
+            Range<String> range = Range.of(
+                    after == null ? Range.Bound.unbounded() : Range.Bound.exclusive(after.getValue()), upper);
+            List<ByteRecord> records = redisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                    connection.streamCommands().xRange(stream, range, Limit.limit().count(properties.getBatchSize())));
+            if (records == null || records.isEmpty()) {
+                break;
+            }
+
+            archive.append(records);
+            total += records.size();
+            if (records.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("archived {} orders up to {}", total, archive.getLastArchivedId());
+        }
+        if (total > 0 && properties.isTrimArchived()) {
+            trim(archive.getLastArchivedId());
+        }
+    }
+
+    /**
+     * entry dengan id &gt; after dari arsip lokal, berurutan
+     */
+    public void replay(RecordId after, BiConsumer<RecordId, Order> consumer) {
+        archive.replay(after, (id, hash) -> consumer.accept(id, orderRecordMapper.fromHash(hash)));
+    }
+
+    public RecordId getLastArchivedId() {
+        return archive.getLastArchivedId();
+    }
+
+    @PreDestroy
+    public void close() {
+        archive.close();
+    }
+
+    private Range.Bound<String> acknowledgedUpperBound() {
+        try {
+            StreamInfo.XInfoGroup group = redisTemplate.opsForStream().groups(consumerProperties.getStream()).stream()
+                    .filter(info -> consumerProperties.getGroup().equals(info.groupName()))
+                    .findFirst()
+                    .orElse(null);
+            if (group == null) {
+                return null;
+            }
+
+            PendingMessagesSummary pending = redisTemplate.opsForStream()
+                    .pending(consumerProperties.getStream(), consumerProperties.getGroup());
+            if (pending != null && pending.getTotalPendingMessages() > 0) {
+                return Range.Bound.exclusive(pending.minMessageId());
+            }
+            return Range.Bound.inclusive(group.lastDeliveredId());
+        } catch (RuntimeException exception) {
+            // stream belum ada
+            log.debug("failed to read consumer group state: {}", exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * MINID membuang entry dengan id &lt; minid, entry terakhir yang diarsip ikut tersisa satu
+     */
+    private void trim(RecordId lastArchivedId) {
+        var args = new XTrimArgs().minId(lastArchivedId.getValue()).approximateTrimming();
+        redisTemplate.execute((RedisCallback<Long>) connection -> {
+            try {
+                return commands(connection).xtrim(bytes(consumerProperties.getStream()), args).get();
+            } catch (ExecutionException exception) {
+                log.warn("xtrim failed: {}", exception.getCause().getMessage());
+                return null;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisStreamAsyncCommands<byte[], byte[]> commands(RedisConnection connection) {
+        return (RedisStreamAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
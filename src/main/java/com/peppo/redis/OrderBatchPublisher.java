@@ -0,0 +1,208 @@
+package com.peppo.redis;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Menampung order di buffer lalu mengirimnya ke stream sebagai XADD yang di-pipeline,
+ * flush saat batch penuh atau linger habis. publish() akan block kalau buffer penuh.
+ */
+@Slf4j
+@Component
+public class OrderBatchPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final OrderPublisherProperties properties;
+
+    private final OrderRecordMapper orderRecordMapper;
+
+    private final BlockingQueue<PendingOrder> buffer;
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    public OrderBatchPublisher(StringRedisTemplate redisTemplate, OrderPublisherProperties properties, OrderRecordMapper orderRecordMapper) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.orderRecordMapper = orderRecordMapper;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        if (properties.getMaxLength() != null && properties.getMaxAge() != null) {
+            throw new IllegalArgumentException("orders.publisher.max-length and orders.publisher.max-age are mutually exclusive");
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::run, "order-batch-publisher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join();
+        // order yang masuk setelah flusher berhenti tidak akan pernah dikirim
+        rejectRemaining();
+    }
+
+    public CompletableFuture<RecordId> publish(Order order) {
+        var pending = new PendingOrder(order, new CompletableFuture<>());
+        if (!running) {
+            rejected.increment();
+            pending.future().completeExceptionally(new RejectedExecutionException("publisher is stopped"));
+            return pending.future();
+        }
+
+        try {
+            if (!buffer.offer(pending, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                pending.future().completeExceptionally(new RejectedExecutionException("order buffer is full"));
+            } else if (!running && buffer.remove(pending)) {
+                // stop() bisa saja jalan di antara cek running di atas dan offer, buffer-nya tidak di-flush lagi
+                rejected.increment();
+                pending.future().completeExceptionally(new RejectedExecutionException("publisher is stopped"));
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            pending.future().completeExceptionally(exception);
+        }
+        return pending.future();
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(properties.getBatchSize());
+        // setelah stop() sisa buffer tetap di-flush
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingOrder first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                fill(batch);
+                flush(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                reject(batch);
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        rejectRemaining();
+    }
+
+    private void rejectRemaining() {
+        List<PendingOrder> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        reject(remaining);
+    }
+
+    private void reject(List<PendingOrder> orders) {
+        rejected.add(orders.size());
+        var exception = new RejectedExecutionException("publisher is stopped");
+        orders.forEach(pending -> pending.future().completeExceptionally(exception));
+    }
+
+    private void fill(List<PendingOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < properties.getBatchSize()) {
+            buffer.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                return;
+            }
+
+            PendingOrder next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingOrder> batch) {
+        try {
+            byte[] stream = properties.getStream().getBytes(StandardCharsets.UTF_8);
+            RedisStreamCommands.XAddOptions options = addOptions();
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (PendingOrder pending : batch) {
+                    connection.streamCommands().xAdd(StreamRecords.newRecord()
+                            .in(stream)
+                            .ofMap(orderRecordMapper.toHash(pending.order())), options);
+                }
+                return null;
+            });
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete((RecordId) results.get(i));
+            }
+            published.add(batch.size());
+        } catch (RuntimeException exception) {
+            log.error("failed to publish {} orders", batch.size(), exception);
+            failed.add(batch.size());
+            batch.forEach(pending -> pending.future().completeExceptionally(exception));
+        }
+    }
+
+    private RedisStreamCommands.XAddOptions addOptions() {
+        if (properties.getMaxLength() != null) {
+            return RedisStreamCommands.XAddOptions.maxlen(properties.getMaxLength())
+                    .approximateTrimming(properties.isApproximateTrimming());
+        }
+        if (properties.getMaxAge() != null) {
+            long minTimestamp = System.currentTimeMillis() - properties.getMaxAge().toMillis();
+            return RedisStreamCommands.XAddOptions.none()
+                    .minId(RecordId.of(minTimestamp + "-0"))
+                    .approximateTrimming(properties.isApproximateTrimming());
+        }
+        return RedisStreamCommands.XAddOptions.none();
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int getBufferSize() {
+        return buffer.size();
+    }
+
+    private record PendingOrder(Order order, CompletableFuture<RecordId> future) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.peppo.redis;
+
+/**
+ * version 1: [version][flags][id][amount][sentAt], field null tidak ditulis sama sekali.
+ * sentAt ditambahkan belakangan sebagai flag baru, pembaca lama cukup mengabaikan byte sisanya
+ */
+public class OrderCodec implements EntityCodec<Order> {
+
+    public static final OrderCodec INSTANCE = new OrderCodec();
+
+    private static final int VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int AMOUNT = 1 << 1;
+    private static final int SENT_AT = 1 << 2;
+
+    @Override
+    public Class<Order> getType() {
+        return Order.class;
+    }
+
+    @Override
+    public byte[] encode(Order order) {
+        int flags = 0;
+        int size = 2;
+        if (order.getId() != null) {
+            flags |= ID;
+            size += BinaryOutput.sizeOfString(order.getId());
+        }
+        if (order.getAmount() != null) {
+            flags |= AMOUNT;
+            size += BinaryOutput.sizeOfVarLong(order.getAmount());
+        }
+        if (order.getSentAt() != null) {
+            flags |= SENT_AT;
+            size += BinaryOutput.sizeOfVarLong(order.getSentAt());
+        }
+
+        var output = new BinaryOutput(size).writeByte(VERSION).writeByte(flags);
+        if ((flags & ID) != 0) {
+            output.writeString(order.getId());
+        }
+        if ((flags & AMOUNT) != 0) {
+            output.writeVarLong(order.getAmount());
+        }
+        if ((flags & SENT_AT) != 0) {
+            output.writeVarLong(order.getSentAt());
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public Order decode(byte[] bytes, int offset, int length) {
+        var input = new BinaryInput(bytes, offset, length);
+        int version = input.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported order codec version " + version);
+        }
+
+        int flags = input.readByte();
+        return new Order(
+                (flags & ID) != 0 ? input.readString() : null,
+                (flags & AMOUNT) != 0 ? input.readVarLong() : null,
+                (flags & SENT_AT) != 0 ? input.readVarLong() : null
+        );
+    }
+}
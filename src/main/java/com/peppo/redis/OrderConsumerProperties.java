@@ -0,0 +1,56 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.consumer")
+public class OrderConsumerProperties {
+
+    private String stream = "orders";
+
+    private String group = "my-group";
+
+    /**
+     * prefix nama consumer, harus unik per instance karena dipakai juga untuk klaim pending entry
+     */
+    private String name = defaultName();
+
+    /**
+     * jumlah consumer per instance, masing-masing jalan di virtual thread sendiri
+     */
+    private int consumers = Runtime.getRuntime().availableProcessors();
+
+    private int batchSize = 10;
+
+    /**
+     * block XREADGROUP, harus di bawah spring.data.redis.timeout supaya tidak dianggap command timeout
+     */
+    private Duration pollTimeout = Duration.ofSeconds(2);
+
+    /**
+     * entry yang pending lebih lama dari ini dianggap milik consumer yang mati dan diambil alih
+     */
+    private Duration reclaimMinIdle = Duration.ofMinutes(1);
+
+    private int reclaimBatchSize = 100;
+
+    /**
+     * entry yang sudah dikirim lebih dari sekian kali dipindah ke deadLetterStream lalu di-ACK, 0 = tidak dibatasi
+     */
+    private int maxDeliveries = 5;
+
+    private String deadLetterStream = "orders-dead-letter";
+
+    private static String defaultName() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + ProcessHandle.current().pid();
+        } catch (UnknownHostException exception) {
+            return "consumer-" + ProcessHandle.current().pid();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.dedup")
+public class OrderDedupProperties {
+
+    /**
+     * order dengan id yang sudah diproses tidak diteruskan lagi ke OrderListener, cukup di-ACK
+     */
+    private boolean enabled = true;
+
+    /**
+     * jumlah id per generasi bloom filter, jendela dedup in-process antara 1x dan 2x nilai ini
+     */
+    private int windowSize = 1_000_000;
+
+    /**
+     * false positive yang lolos filter dikonfirmasi dengan SET NX, jadi ini hanya menentukan
+     * seberapa sering round trip tambahan terjadi
+     */
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * prefix key penanda id yang sudah diproses, ditulis di pipeline yang sama dengan XACK
+     */
+    private String keyPrefix = "orders:processed:";
+
+    private Duration keyTimeToLive = Duration.ofDays(1);
+}
@@ -8,9 +8,21 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @Component
 public class OrderListener implements StreamListener<String, ObjectRecord<String, Order>> {
+
+    private final EndToEndLatency endToEndLatency;
+
+    public OrderListener(EndToEndLatency endToEndLatency) {
+        this.endToEndLatency = endToEndLatency;
+    }
+
     @Override
     public void onMessage(ObjectRecord<String, Order> message) {
         Order order = message.getValue();
+        // order dari LoadGenerator tidak di-log satu per satu
+        if (order != null && order.getSentAt() != null) {
+            endToEndLatency.record("orders", order.getSentAt());
+            return;
+        }
         log.info("receive order: {}", order);
     }
 }
@@ -1,24 +1,30 @@
 package com.peppo.redis;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.connection.stream.ObjectRecord;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Component
 public class OrderPublisher {
 
     @Autowired
-    private StringRedisTemplate redisTemplate;
+    private OrderBatchPublisher orderBatchPublisher;
 
     @Scheduled(fixedRate = 10, timeUnit = TimeUnit.SECONDS)
     public void publish() {
         Order order = new Order(UUID.randomUUID().toString(), 1000L);
-        ObjectRecord<String, Order> record = ObjectRecord.create("orders", order);
-        redisTemplate.opsForStream().add(record);
+        orderBatchPublisher.publish(order);
+    }
+
+    /**
+     * dipakai LoadGenerator, sentAtMicros dibaca OrderListener untuk EndToEndLatency
+     */
+    public CompletableFuture<RecordId> publish(long sentAtMicros) {
+        return orderBatchPublisher.publish(new Order(UUID.randomUUID().toString(), 1000L, sentAtMicros));
     }
 }
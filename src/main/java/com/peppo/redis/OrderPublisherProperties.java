@@ -0,0 +1,46 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders.publisher")
+public class OrderPublisherProperties {
+
+    private String stream = "orders";
+
+    /**
+     * jumlah maksimal XADD dalam satu pipeline
+     */
+    private int batchSize = 16;
+
+    /**
+     * waktu tunggu batch terisi setelah order pertama masuk
+     */
+    private Duration linger = Duration.ofMillis(5);
+
+    private int bufferCapacity = 10_000;
+
+    /**
+     * berapa lama publish() boleh block saat buffer penuh sebelum order ditolak
+     */
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    /**
+     * XADD ... MAXLEN, stream dipotong ke kira-kira sekian entry. null = tidak dipotong.
+     * harus null kalau orders.archive.enabled, sama dengan maxAge
+     */
+    private Long maxLength;
+
+    /**
+     * XADD ... MINID, entry yang lebih tua dari ini dibuang. tidak bisa dipakai bersamaan dengan maxLength
+     */
+    private Duration maxAge;
+
+    /**
+     * trimming "~" hanya membuang node radix tree yang penuh, jauh lebih murah dari trimming exact
+     */
+    private boolean approximateTrimming = true;
+}
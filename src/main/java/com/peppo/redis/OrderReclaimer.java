@@ -0,0 +1,211 @@
+package com.peppo.redis;
+
+import io.lettuce.core.Consumer;
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XAutoClaimArgs;
+import io.lettuce.core.api.async.RedisStreamAsyncCommands;
+import io.lettuce.core.models.stream.ClaimedMessages;
+import io.lettuce.core.models.stream.PendingMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mengambil alih entry yang terlalu lama di pending list (consumer-nya mati sebelum XACK)
+ * dengan XAUTOCLAIM, lalu memprosesnya lewat AcknowledgingOrderListener. Entry yang delivery count-nya
+ * sudah melewati maxDeliveries tidak diproses lagi tapi dipindah ke dead-letter stream lalu di-ACK,
+ * supaya entry yang selalu gagal tidak di-reclaim selamanya.
+ */
+@Slf4j
+@Component
+public class OrderReclaimer {
+
+    private static final String START = "0-0";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final AcknowledgingOrderListener listener;
+
+    private final OrderConsumerProperties properties;
+
+    private final OrderRecordMapper orderRecordMapper;
+
+    private final LongAdder deadLettered = new LongAdder();
+
+    public OrderReclaimer(StringRedisTemplate redisTemplate, AcknowledgingOrderListener listener,
+                          OrderConsumerProperties properties, OrderRecordMapper orderRecordMapper) {
+        this.redisTemplate = redisTemplate;
+        this.listener = listener;
+        this.properties = properties;
+        this.orderRecordMapper = orderRecordMapper;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.consumer.reclaim-interval:30}", timeUnit = TimeUnit.SECONDS)
+    public void reclaim() {
+        String cursor = START;
+        int total = 0;
+        do {
+            ClaimedMessages<byte[], byte[]> claimed = autoClaim(cursor);
+            if (claimed == null) {
+                return;
+            }
+
+            Map<String, Long> deliveries = deliveryCounts(claimed.getMessages());
+            for (StreamMessage<byte[], byte[]> message : claimed.getMessages()) {
+                Long deliveryCount = deliveries.get(message.getId());
+                if (properties.getMaxDeliveries() > 0 && deliveryCount == null) {
+                    // sudah di-ACK di antara klaim dan XPENDING, atau XPENDING-nya gagal: dicoba di putaran berikutnya
+                    log.debug("delivery count of order {} is unknown, skipped", message.getId());
+                    continue;
+                }
+                if (properties.getMaxDeliveries() > 0 && deliveryCount > properties.getMaxDeliveries()) {
+                    deadLetter(message, deliveryCount);
+                } else {
+                    process(message);
+                }
+                total++;
+            }
+            cursor = claimed.getId();
+        } while (!START.equals(cursor));
+
+        if (total > 0) {
+            log.info("reclaimed {} pending orders", total);
+        }
+    }
+
+    public long getDeadLettered() {
+        return deadLettered.sum();
+    }
+
+    /**
+     * delivery count dari XPENDING milik consumer reclaimer, sudah termasuk klaim barusan. satu XPENDING per id
+     * yang dikirim berurutan tanpa menunggu balasan: dengan satu range [first, last] entry lama milik reclaimer
+     * di range yang sama ikut mengisi count. id yang tidak ada di hasil tidak masuk map (tidak diketahui)
+     */
+    private Map<String, Long> deliveryCounts(List<StreamMessage<byte[], byte[]>> messages) {
+        Map<String, Long> counts = new HashMap<>();
+        if (messages.isEmpty() || properties.getMaxDeliveries() <= 0) {
+            return counts;
+        }
+
+        return redisTemplate.execute((RedisCallback<Map<String, Long>>) connection -> {
+            var commands = commands(connection);
+            var reclaimer = Consumer.from(bytes(properties.getGroup()), bytes(reclaimerName()));
+            Map<String, RedisFuture<List<PendingMessage>>> futures = new LinkedHashMap<>();
+            for (StreamMessage<byte[], byte[]> message : messages) {
+                futures.put(message.getId(), commands.xpending(bytes(properties.getStream()), reclaimer,
+                        Range.create(message.getId(), message.getId()), Limit.from(1)));
+            }
+
+            for (Map.Entry<String, RedisFuture<List<PendingMessage>>> entry : futures.entrySet()) {
+                try {
+                    List<PendingMessage> pending = entry.getValue().get();
+                    if (!pending.isEmpty()) {
+                        counts.put(entry.getKey(), pending.get(0).getRedeliveryCount());
+                    }
+                } catch (ExecutionException exception) {
+                    log.warn("xpending failed for order {}: {}", entry.getKey(), exception.getCause().getMessage());
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * XADD ke dead-letter stream dan XACK dalam satu MULTI, field asli disalin apa adanya
+     */
+    private void deadLetter(StreamMessage<byte[], byte[]> message, long deliveryCount) {
+        RecordId recordId = RecordId.of(message.getId());
+        Map<byte[], byte[]> body = new LinkedHashMap<>();
+        if (message.getBody() != null) {
+            body.putAll(message.getBody());
+        }
+        body.put(bytes("dead-letter-source-id"), bytes(message.getId()));
+        body.put(bytes("dead-letter-deliveries"), bytes(String.valueOf(deliveryCount)));
+
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.multi();
+            connection.streamCommands().xAdd(StreamRecords.newRecord()
+                    .in(bytes(properties.getDeadLetterStream()))
+                    .ofMap(body));
+            connection.streamCommands().xAck(bytes(properties.getStream()), properties.getGroup(), recordId);
+            return connection.exec();
+        });
+        deadLettered.increment();
+        log.warn("moved order {} to {} after {} deliveries", recordId, properties.getDeadLetterStream(), deliveryCount);
+    }
+
+    private String reclaimerName() {
+        return properties.getName() + "-reclaimer";
+    }
+
+    private ClaimedMessages<byte[], byte[]> autoClaim(String cursor) {
+        var args = XAutoClaimArgs.Builder
+                .<byte[]>xautoclaim(Consumer.from(bytes(properties.getGroup()), bytes(reclaimerName())),
+                        properties.getReclaimMinIdle(), cursor)
+                .count(properties.getReclaimBatchSize());
+
+        return redisTemplate.execute((RedisCallback<ClaimedMessages<byte[], byte[]>>) connection -> {
+            try {
+                return commands(connection).xautoclaim(bytes(properties.getStream()), args).get();
+            } catch (ExecutionException exception) {
+                // stream atau group belum ada
+                log.debug("xautoclaim failed: {}", exception.getCause().getMessage());
+                return null;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        });
+    }
+
+    private void process(StreamMessage<byte[], byte[]> message) {
+        RecordId recordId = RecordId.of(message.getId());
+        if (message.getBody() == null || message.getBody().isEmpty()) {
+            // entry sudah dihapus dari stream, cukup dibuang dari pending list
+            redisTemplate.opsForStream().acknowledge(properties.getStream(), properties.getGroup(), recordId);
+            return;
+        }
+
+        try {
+            Order order = orderRecordMapper.fromHash(message.getBody());
+            ObjectRecord<String, Order> record = StreamRecords.newRecord()
+                    .in(properties.getStream())
+                    .withId(recordId)
+                    .ofObject(order);
+            listener.onMessage(record);
+        } catch (RuntimeException exception) {
+            log.error("failed to process reclaimed order {}", recordId, exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisStreamAsyncCommands<byte[], byte[]> commands(RedisConnection connection) {
+        return (RedisStreamAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.hash.HashMapper;
+import org.springframework.data.redis.hash.ObjectHashMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Mapping Order ke field stream entry. Format BINARY menulis satu field "_bin" berisi OrderCodec,
+ * format DEFAULT sama dengan ObjectHashMapper. Pembacaan mengenali keduanya. Payload "_bin" yang besar
+ * dikompresi ValueCompressor.
+ */
+@Component
+public class OrderRecordMapper implements HashMapper<Order, byte[], byte[]> {
+
+    private static final byte[] PAYLOAD = "_bin".getBytes(StandardCharsets.UTF_8);
+
+    private final CodecFormat format;
+
+    private final ValueCompressor compressor;
+
+    public OrderRecordMapper(CodecProperties properties, ValueCompressor compressor) {
+        this.format = properties.getFormat();
+        this.compressor = compressor;
+    }
+
+    @Override
+    public Map<byte[], byte[]> toHash(Order order) {
+        if (format == CodecFormat.BINARY) {
+            return Map.of(PAYLOAD, compressor.compress(OrderCodec.INSTANCE.encode(order)));
+        }
+        return ObjectHashMapper.getSharedInstance().toHash(order);
+    }
+
+    @Override
+    public Order fromHash(Map<byte[], byte[]> hash) {
+        if (hash.size() == 1) {
+            for (Map.Entry<byte[], byte[]> entry : hash.entrySet()) {
+                if (Arrays.equals(PAYLOAD, entry.getKey())) {
+                    return OrderCodec.INSTANCE.decode(compressor.decompress(entry.getValue()));
+                }
+            }
+        }
+        return ObjectHashMapper.getSharedInstance().fromHash(hash, Order.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.peppo.redis;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Panjang stream orders dan pending / lag consumer group. Nilainya di-refresh terjadwal
+ * supaya scrape prometheus tidak menunggu redis. Lag hanya tersedia di redis 7+ (XINFO GROUPS "lag").
+ */
+@Slf4j
+@Component
+public class OrderStreamMetrics implements MeterBinder {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final OrderConsumerProperties properties;
+
+    private volatile double length = Double.NaN;
+
+    private volatile double pending = Double.NaN;
+
+    private volatile double lag = Double.NaN;
+
+    public OrderStreamMetrics(StringRedisTemplate redisTemplate, OrderConsumerProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orders.stream.length", this, metrics -> metrics.length)
+                .tag("stream", properties.getStream()).register(registry);
+        Gauge.builder("orders.stream.pending", this, metrics -> metrics.pending)
+                .tags("stream", properties.getStream(), "group", properties.getGroup()).register(registry);
+        Gauge.builder("orders.stream.lag", this, metrics -> metrics.lag)
+                .tags("stream", properties.getStream(), "group", properties.getGroup()).register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${redis.metrics.stream-refresh-interval:15}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        try {
+            Long size = redisTemplate.opsForStream().size(properties.getStream());
+            length = size == null ? Double.NaN : size;
+
+            StreamInfo.XInfoGroup group = redisTemplate.opsForStream().groups(properties.getStream()).stream()
+                    .filter(info -> properties.getGroup().equals(info.groupName()))
+                    .findFirst()
+                    .orElse(null);
+            pending = group == null ? Double.NaN : group.pendingCount();
+            lag = group != null && group.getRaw().get("lag") instanceof Number value ? value.doubleValue() : Double.NaN;
+        } catch (RuntimeException exception) {
+            log.warn("failed to refresh stream metrics for {}: {}", properties.getStream(), exception.getMessage());
+        }
+    }
+}
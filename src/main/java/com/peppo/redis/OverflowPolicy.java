@@ -0,0 +1,24 @@
+package com.peppo.redis;
+
+/**
+ * Apa yang dilakukan MessageDispatcher saat antrian stripe penuh
+ */
+public enum OverflowPolicy {
+
+    /**
+     * pemanggil menunggu sampai ada tempat. Tidak boleh dipakai untuk listener pub/sub: thread subscription adalah
+     * event loop lettuce, menunggu di sana menahan semua koneksi di event loop itu. Redis tidak ikut melambat,
+     * pesan menumpuk di output buffer client sampai client-output-buffer-limit memutus koneksi.
+     */
+    BLOCK,
+
+    /**
+     * pesan baru dibuang
+     */
+    DROP,
+
+    /**
+     * pesan paling lama di antrian dibuang untuk memberi tempat pesan baru
+     */
+    DROP_OLDEST
+}
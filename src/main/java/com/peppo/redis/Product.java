@@ -23,6 +23,7 @@ public class Product implements Serializable {
 
     private String name;
 
+    @RangeIndexed
     private Long price;
 
     @TimeToLive(unit = TimeUnit.SECONDS)
@@ -0,0 +1,66 @@
+package com.peppo.redis;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.redis.core.convert.Bucket;
+import org.springframework.data.redis.core.convert.MappingRedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+
+import java.util.Map;
+
+/**
+ * Dengan ProductToBytesConverter ProductRepository menyimpan Product sebagai satu field _raw di hash
+ * products:&lt;id&gt;, dikompresi ValueCompressor kalau cukup besar. MapToProductConverter membaca kedua format,
+ * jadi data lama tetap terbaca setelah codec.format diganti.
+ */
+public class ProductBinaryConverters {
+
+    static final String RAW = "_raw";
+
+    @WritingConverter
+    public static class ProductToBytesConverter implements Converter<Product, byte[]> {
+
+        private final ValueCompressor compressor;
+
+        public ProductToBytesConverter(ValueCompressor compressor) {
+            this.compressor = compressor;
+        }
+
+        @Override
+        public byte[] convert(Product source) {
+            return compressor.compress(ProductCodec.INSTANCE.encode(source));
+        }
+    }
+
+    /**
+     * menerima seluruh hash: ada field _raw berarti format biner, selain itu hash per field
+     * yang dibaca MappingRedisConverter tanpa custom conversion
+     */
+    @ReadingConverter
+    public static class MapToProductConverter implements Converter<Map<String, byte[]>, Product> {
+
+        private final ValueCompressor compressor;
+
+        private final MappingRedisConverter fieldConverter;
+
+        public MapToProductConverter(ValueCompressor compressor) {
+            this.compressor = compressor;
+            this.fieldConverter = new MappingRedisConverter(new RedisMappingContext());
+            this.fieldConverter.afterPropertiesSet();
+        }
+
+        @Override
+        public Product convert(Map<String, byte[]> source) {
+            byte[] raw = source.get(RAW);
+            if (raw != null) {
+                return ProductCodec.INSTANCE.decode(compressor.decompress(raw));
+            }
+
+            Bucket bucket = new Bucket();
+            source.forEach(bucket::put);
+            return fieldConverter.read(Product.class, new RedisData(bucket));
+        }
+    }
+}
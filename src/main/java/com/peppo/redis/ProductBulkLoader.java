@@ -0,0 +1,185 @@
+package com.peppo.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kebalikan ProductExporter: membaca NDJSON baris per baris dan menulis per load-batch-size product dalam
+ * satu pipeline per shard, dengan command yang sama seperti RedisKeyValueAdapter.put (DEL, HMSET, SADD
+ * keyspace, EXPIRE) ditambah index @RangeIndexed. Paling banyak load-parallelism batch berjalan bersamaan,
+ * pembacaan file menunggu kalau semua sedang dipakai, jadi memori tetap berapa pun ukuran file.
+ * Setelah setiap batch tertulis, entry cache products untuk id yang sama dibuang lewat BulkCacheOperations.evictAll,
+ * termasuk L1 near cache di semua instance.
+ */
+@Component
+public class ProductBulkLoader {
+
+    private final RedisShards redisShards;
+
+    private final RedisConverter redisConverter;
+
+    private final RangeIndexOperations rangeIndexOperations;
+
+    private final ReplicaReads replicaReads;
+
+    private final CacheManager cacheManager;
+
+    private final BulkCacheOperations bulkCacheOperations;
+
+    private final ObjectMapper objectMapper;
+
+    private final ProductTransferProperties properties;
+
+    private final String keyspace;
+
+    public ProductBulkLoader(RedisShards redisShards, RedisConverter redisConverter,
+                             RangeIndexOperations rangeIndexOperations, ReplicaReads replicaReads,
+                             CacheManager cacheManager, BulkCacheOperations bulkCacheOperations,
+                             ObjectMapper objectMapper, ProductTransferProperties properties) {
+        this.redisShards = redisShards;
+        this.redisConverter = redisConverter;
+        this.rangeIndexOperations = rangeIndexOperations;
+        this.replicaReads = replicaReads;
+        this.cacheManager = cacheManager;
+        this.bulkCacheOperations = bulkCacheOperations;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.keyspace = redisConverter.getMappingContext().getRequiredPersistentEntity(Product.class).getKeySpace();
+    }
+
+    /**
+     * @return jumlah product yang ditulis
+     */
+    public long load(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return load(input);
+        }
+    }
+
+    /**
+     * input tidak ditutup. kalau ada batch yang gagal, batch lain yang sudah berjalan tetap diselesaikan
+     * lalu error pertama dilempar
+     */
+    public long load(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        Semaphore permits = new Semaphore(properties.getLoadParallelism());
+        LongAdder loaded = new LongAdder();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Product> batch = new ArrayList<>(properties.getLoadBatchSize());
+            String line;
+            while ((line = reader.readLine()) != null && failure.get() == null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, Product.class));
+                if (batch.size() >= properties.getLoadBatchSize()) {
+                    submit(executor, permits, batch, loaded, failure);
+                    batch = new ArrayList<>(properties.getLoadBatchSize());
+                }
+            }
+            if (!batch.isEmpty() && failure.get() == null) {
+                submit(executor, permits, batch, loaded, failure);
+            }
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return loaded.sum();
+    }
+
+    private void submit(ExecutorService executor, Semaphore permits, List<Product> batch, LongAdder loaded,
+                        AtomicReference<RuntimeException> failure) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free load slot", exception);
+        }
+        executor.submit(() -> {
+            try {
+                write(batch);
+                loaded.add(batch.size());
+            } catch (RuntimeException exception) {
+                failure.compareAndSet(null, exception);
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private void write(List<Product> products) {
+        Map<RedisShards.Shard, List<Product>> byShard = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product.getId() == null) {
+                product.setId(UUID.randomUUID().toString());
+            }
+            byShard.computeIfAbsent(redisShards.shardFor(key(product.getId())), shard -> new ArrayList<>()).add(product);
+        }
+
+        redisShards.parallel(byShard.keySet(), shard -> shard.redisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            byte[] keyspaceKey = bytes(keyspace);
+            for (Product product : byShard.get(shard)) {
+                RedisData redisData = new RedisData();
+                redisConverter.write(product, redisData);
+                byte[] key = bytes(key(product.getId()));
+                byte[] id = bytes(product.getId());
+
+                connection.keyCommands().del(key);
+                connection.hashCommands().hMSet(key, redisData.getBucket().rawMap());
+                connection.setCommands().sAdd(keyspaceKey, id);
+                Long timeToLive = redisData.getTimeToLive();
+                if (timeToLive != null && timeToLive > 0) {
+                    connection.keyCommands().expire(key, timeToLive);
+                }
+                rangeIndexOperations.indexValues(keyspace, product).forEach((indexKey, value) -> {
+                    if (value == null) {
+                        connection.zSetCommands().zRem(bytes(indexKey), id);
+                    } else {
+                        connection.zSetCommands().zAdd(bytes(indexKey), value.doubleValue(), id);
+                    }
+                });
+            }
+            return null;
+        }));
+        products.forEach(product -> replicaReads.written(key(product.getId())));
+
+        Cache cache = cacheManager.getCache("products");
+        if (cache != null) {
+            bulkCacheOperations.evictAll(cache, products.stream().map(Product::getId).toList());
+        }
+    }
+
+    private String key(String productId) {
+        return keyspace + ":" + productId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
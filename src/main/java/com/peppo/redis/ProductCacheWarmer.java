@@ -0,0 +1,110 @@
+package com.peppo.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memuat product yang paling sering diakses (HotKeyTracker) ke cache products saat startup lewat
+ * ProductService.getProducts: MGET per batch, yang miss di-load lalu ditulis dalam satu pipeline, dan L1
+ * near cache ikut terisi. Batch berjalan paralel di virtual thread. Selama warm-up berjalan health
+ * dilaporkan OUT_OF_SERVICE, setelah selesai, gagal atau lewat warm-up-timeout dilaporkan UP.
+ */
+@Slf4j
+@Component
+public class ProductCacheWarmer implements HealthIndicator {
+
+    private static final String CACHE_NAME = "products";
+
+    private final ProductService productService;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private final HotKeyProperties properties;
+
+    private final LongAdder warmed = new LongAdder();
+
+    private volatile String state = "pending";
+
+    public ProductCacheWarmer(ProductService productService, HotKeyTracker hotKeyTracker, HotKeyProperties properties) {
+        this.productService = productService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || properties.getWarmUpSize() <= 0) {
+            state = "disabled";
+            return;
+        }
+        Thread.ofVirtual().name("cache-warm-up").start(this::warmUp);
+    }
+
+    public void warmUp() {
+        state = "warming";
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<String> ids = hotKeyTracker.hotKeys(CACHE_NAME, properties.getWarmUpSize());
+            Semaphore permits = new Semaphore(properties.getWarmUpParallelism());
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += properties.getWarmUpBatchSize()) {
+                List<String> batch = ids.subList(from, Math.min(from + properties.getWarmUpBatchSize(), ids.size()));
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        productService.getProducts(batch);
+                        warmed.add(batch.size());
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+
+            long deadline = start + properties.getWarmUpTimeout().toNanos();
+            for (Future<?> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            state = "done";
+            log.info("warmed up {} products in {} ms", warmed.sum(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException exception) {
+            state = "timed-out";
+            log.warn("cache warm-up timed out after {} products", warmed.sum());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            state = "failed";
+        } catch (Exception exception) {
+            state = "failed";
+            log.warn("cache warm-up failed after {} products", warmed.sum(), exception);
+        } finally {
+            // batch yang belum selesai setelah timeout / gagal dibatalkan
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = "pending".equals(state) || "warming".equals(state)
+                ? Health.outOfService() : Health.up();
+        return builder.withDetail("state", state).withDetail("warmed", warmed.sum()).build();
+    }
+
+    public long getWarmed() {
+        return warmed.sum();
+    }
+}
@@ -0,0 +1,75 @@
+package com.peppo.redis;
+
+/**
+ * version 1: [version][flags][id][name][price][ttl], field null tidak ditulis sama sekali
+ */
+public class ProductCodec implements EntityCodec<Product> {
+
+    public static final ProductCodec INSTANCE = new ProductCodec();
+
+    private static final int VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int NAME = 1 << 1;
+    private static final int PRICE = 1 << 2;
+    private static final int TTL = 1 << 3;
+
+    @Override
+    public Class<Product> getType() {
+        return Product.class;
+    }
+
+    @Override
+    public byte[] encode(Product product) {
+        int flags = 0;
+        int size = 2;
+        if (product.getId() != null) {
+            flags |= ID;
+            size += BinaryOutput.sizeOfString(product.getId());
+        }
+        if (product.getName() != null) {
+            flags |= NAME;
+            size += BinaryOutput.sizeOfString(product.getName());
+        }
+        if (product.getPrice() != null) {
+            flags |= PRICE;
+            size += BinaryOutput.sizeOfVarLong(product.getPrice());
+        }
+        if (product.getTtl() != null) {
+            flags |= TTL;
+            size += BinaryOutput.sizeOfVarLong(product.getTtl());
+        }
+
+        var output = new BinaryOutput(size).writeByte(VERSION).writeByte(flags);
+        if ((flags & ID) != 0) {
+            output.writeString(product.getId());
+        }
+        if ((flags & NAME) != 0) {
+            output.writeString(product.getName());
+        }
+        if ((flags & PRICE) != 0) {
+            output.writeVarLong(product.getPrice());
+        }
+        if ((flags & TTL) != 0) {
+            output.writeVarLong(product.getTtl());
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public Product decode(byte[] bytes, int offset, int length) {
+        var input = new BinaryInput(bytes, offset, length);
+        int version = input.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported product codec version " + version);
+        }
+
+        int flags = input.readByte();
+        var product = new Product();
+        product.setId((flags & ID) != 0 ? input.readString() : null);
+        product.setName((flags & NAME) != 0 ? input.readString() : null);
+        product.setPrice((flags & PRICE) != 0 ? input.readVarLong() : null);
+        product.setTtl((flags & TTL) != 0 ? input.readVarLong() : null);
+        return product;
+    }
+}
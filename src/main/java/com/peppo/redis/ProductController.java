@@ -0,0 +1,73 @@
+package com.peppo.redis;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pasangan blocking dari ReactiveProductController lewat ProductRepository,
+ * satu thread tomcat tertahan per request sampai redis membalas.
+ * Save memakai script yang sama dengan ReactiveProductService.save, jadi kedua endpoint melakukan kerja yang sama
+ */
+@RestController
+@RequestMapping("/products")
+public class ProductController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ProductRepository productRepository;
+
+    private final ProductExporter productExporter;
+
+    private final ProductBulkLoader productBulkLoader;
+
+    private final ScriptedProductWriter scriptedProductWriter;
+
+    public ProductController(ProductRepository productRepository, ProductExporter productExporter,
+                             ProductBulkLoader productBulkLoader, ScriptedProductWriter scriptedProductWriter) {
+        this.productRepository = productRepository;
+        this.productExporter = productExporter;
+        this.productBulkLoader = productBulkLoader;
+        this.scriptedProductWriter = scriptedProductWriter;
+    }
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<Product> getProduct(@PathVariable String productId) {
+        return ResponseEntity.of(productRepository.findById(productId));
+    }
+
+    @GetMapping
+    public Iterable<Product> getProducts(@RequestParam List<String> ids) {
+        return productRepository.findAllById(ids);
+    }
+
+    @PostMapping
+    public Product saveProduct(@RequestBody Product product) {
+        return scriptedProductWriter.save(product);
+    }
+
+    /**
+     * seluruh products sebagai NDJSON, ditulis langsung ke response tanpa dimuat ke memori
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ResponseEntity.ok().contentType(NDJSON).body(productExporter::export);
+    }
+
+    @PostMapping(path = "/import", consumes = "application/x-ndjson")
+    public Map<String, Long> importProducts(InputStream body) throws IOException {
+        return Map.of("loaded", productBulkLoader.load(body));
+    }
+}
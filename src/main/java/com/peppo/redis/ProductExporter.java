@@ -0,0 +1,128 @@
+package com.peppo.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.convert.Bucket;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Export seluruh keyspace products sebagai NDJSON (satu Product per baris) tanpa memuat semuanya ke memori:
+ * SSCAN set keyspace per export-batch-size id, lalu HGETALL id tersebut dalam satu pipeline dan langsung
+ * ditulis. Dengan sharding setiap shard di-scan bergantian. SSCAN bisa mengembalikan id yang sama dua kali
+ * kalau set berubah selama scan, ProductBulkLoader menimpa jadi hasilnya tetap sama.
+ */
+@Component
+public class ProductExporter {
+
+    private static final byte NEWLINE = '\n';
+
+    private final RedisShards redisShards;
+
+    private final RedisConverter redisConverter;
+
+    private final ObjectMapper objectMapper;
+
+    private final ProductTransferProperties properties;
+
+    private final String keyspace;
+
+    public ProductExporter(RedisShards redisShards, RedisConverter redisConverter, ObjectMapper objectMapper,
+                           ProductTransferProperties properties) {
+        this.redisShards = redisShards;
+        this.redisConverter = redisConverter;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.keyspace = redisConverter.getMappingContext().getRequiredPersistentEntity(Product.class).getKeySpace();
+    }
+
+    /**
+     * @return jumlah product yang ditulis
+     */
+    public long export(Path file) throws IOException {
+        try (OutputStream output = Files.newOutputStream(file)) {
+            return export(output);
+        }
+    }
+
+    /**
+     * output tidak ditutup
+     */
+    public long export(OutputStream output) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(output, 64 * 1024);
+        long exported = 0;
+        try {
+            for (RedisShards.Shard shard : redisShards.getShards()) {
+                exported += export(shard, buffered);
+            }
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        buffered.flush();
+        return exported;
+    }
+
+    private long export(RedisShards.Shard shard, OutputStream output) {
+        ScanOptions options = ScanOptions.scanOptions().count(properties.getExportBatchSize()).build();
+        long exported = 0;
+        List<String> ids = new ArrayList<>(properties.getExportBatchSize());
+        try (Cursor<String> cursor = shard.redisTemplate().opsForSet().scan(keyspace, options)) {
+            while (cursor.hasNext()) {
+                ids.add(cursor.next());
+                if (ids.size() >= properties.getExportBatchSize()) {
+                    exported += write(shard, ids, output);
+                    ids.clear();
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            exported += write(shard, ids, output);
+        }
+        return exported;
+    }
+
+    /**
+     * hash yang sudah expire tapi id-nya masih di set dilewati
+     */
+    @SuppressWarnings("unchecked")
+    private long write(RedisShards.Shard shard, List<String> ids, OutputStream output) {
+        List<Object> hashes = shard.redisTemplate().execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            for (String id : ids) {
+                connection.hashCommands().hGetAll((keyspace + ":" + id).getBytes(StandardCharsets.UTF_8));
+            }
+            return connection.closePipeline();
+        });
+
+        long written = 0;
+        try {
+            for (int i = 0; hashes != null && i < hashes.size(); i++) {
+                Map<byte[], byte[]> hash = (Map<byte[], byte[]>) hashes.get(i);
+                if (hash == null || hash.isEmpty()) {
+                    continue;
+                }
+                Product product = redisConverter.read(Product.class, new RedisData(Bucket.newBucketFromRawMap(hash)));
+                output.write(objectMapper.writeValueAsBytes(product));
+                output.write(NEWLINE);
+                written++;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return written;
+    }
+}
@@ -4,5 +4,5 @@ import org.springframework.data.keyvalue.repository.KeyValueRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductRepository extends KeyValueRepository<Product, String> {
+public interface ProductRepository extends KeyValueRepository<Product, String>, ProductRepositoryCustom {
 }
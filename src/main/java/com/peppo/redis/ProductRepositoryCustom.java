@@ -0,0 +1,9 @@
+package com.peppo.redis;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ProductRepositoryCustom {
+
+    Page<Product> findByPriceBetween(long minPrice, long maxPrice, Pageable pageable);
+}
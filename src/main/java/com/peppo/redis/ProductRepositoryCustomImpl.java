@@ -0,0 +1,18 @@
+package com.peppo.redis;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final RangeIndexOperations rangeIndexOperations;
+
+    public ProductRepositoryCustomImpl(RangeIndexOperations rangeIndexOperations) {
+        this.rangeIndexOperations = rangeIndexOperations;
+    }
+
+    @Override
+    public Page<Product> findByPriceBetween(long minPrice, long maxPrice, Pageable pageable) {
+        return rangeIndexOperations.findBetween(Product.class, "price", minPrice, maxPrice, pageable);
+    }
+}
@@ -1,29 +1,111 @@
 package com.peppo.redis;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 @Slf4j
 @Component
-public class ProductService {
+public class ProductService implements CacheRefreshLoader {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private BulkCacheOperations bulkCacheOperations;
 
-    @Cacheable(value = "products", key = "#productId")
+    @Autowired
+    private ScriptedProductWriter scriptedProductWriter;
+
+    @Cacheable(value = "products", key = "#productId", sync = true)
     public Product getProduct(String productId) {
         log.info("getProduct productId={}", productId);
-        return Product.builder().id(productId).name("contoh").price(10L).build();
+        return loadProduct(productId);
     }
 
-    @CachePut(value = "products", key = "#product.id")
+    /**
+     * satu MGET untuk semua id, yang miss di-load sekaligus lalu ditulis balik dalam satu pipeline.
+     * miss lewat CoalescingCache, jadi id yang sedang di-load request lain (getProduct atau getProducts) ditunggu,
+     * bukan di-load ulang. urutan hasil sama dengan urutan productIds
+     */
+    public List<Product> getProducts(Collection<String> productIds) {
+        Cache cache = cacheManager.getCache("products");
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(productIds));
+        Map<String, Cache.ValueWrapper> cached = bulkCacheOperations.getAll(cache, uniqueIds);
+
+        List<String> missingIds = uniqueIds.stream().filter(id -> !cached.containsKey(id)).toList();
+        Map<String, ?> loaded = missingIds.isEmpty() ? Map.of() : loadMissing(cache, missingIds);
+
+        List<Product> products = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            Cache.ValueWrapper wrapper = cached.get(productId);
+            products.add((Product) (wrapper != null ? wrapper.get() : loaded.get(productId)));
+        }
+        return products;
+    }
+
+    /**
+     * hash products, index dan entry cache products ditulis atomik oleh ScriptedProductWriter dalam satu EVALSHA.
+     * entry write-behind yang masih pending ikut diganti, getProduct / getProducts di instance ini
+     * langsung melihat product yang baru disimpan
+     */
     public Product saveProduct(Product product) {
         log.info("saveProduct product={}", product);
-        return product;
+        return scriptedProductWriter.save(product);
     }
 
-    @CacheEvict(value = "products", key = "#productId")
     public void removeProduct(String productId) {
         log.info("removeProduct productId={}", productId);
+        scriptedProductWriter.remove(productId);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "products";
+    }
+
+    /**
+     * early refresh cache products, sama dengan load di getProduct
+     */
+    @Override
+    public Object load(Object key) {
+        return loadProduct((String) key);
+    }
+
+    private Map<String, ?> loadMissing(Cache cache, List<String> missingIds) {
+        Function<List<String>, Map<String, ?>> loader = productIds -> {
+            Map<String, Product> products = loadProducts(productIds);
+            bulkCacheOperations.putAll(cache, products);
+            return products;
+        };
+        CoalescingCache coalescing = DelegatingCache.find(cache, CoalescingCache.class);
+        return coalescing != null ? coalescing.getAll(missingIds, loader) : loader.apply(missingIds);
+    }
+
+    private Product loadProduct(String productId) {
+        return Product.builder().id(productId).name("contoh").price(10L).build();
+    }
+
+    /**
+     * versi batch dari loadProduct, id yang tidak ditemukan di-map ke null supaya tetap di-cache
+     */
+    private Map<String, Product> loadProducts(List<String> productIds) {
+        log.info("loadProducts productIds={}", productIds);
+        Map<String, Product> products = new LinkedHashMap<>();
+        for (String productId : productIds) {
+            products.put(productId, loadProduct(productId));
+        }
+        return products;
     }
 }
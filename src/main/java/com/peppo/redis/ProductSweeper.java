@@ -0,0 +1,339 @@
+package com.peppo.redis;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Membuang id di set keyspace products yang hash-nya sudah expire. Tanpa keyspace event RedisKeyValueAdapter
+ * tidak tahu hash-nya expire, jadi id-nya tertinggal di set dan di index @RangeIndexed, count() dan findAll()
+ * makin lambat. Setiap interval hanya satu batch per shard yang diperiksa: SSCAN lanjut dari posisi terakhir,
+ * EXISTS dalam satu pipeline, lalu id yang hash-nya tidak ada dibuang lewat script yang mengecek ulang
+ * secara atomik. Setelah satu putaran selesai sweeper diam selama pause.
+ * Opsional id dari event expired dimasukkan ke antrian per shard dan dibuang di interval berikutnya,
+ * sweeper tetap menangkap event yang hilang atau yang tidak muat di antrian.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "products.sweeper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSweeper {
+
+    private static final RedisScript<Long> SWEEP = RedisScript.of(new ClassPathResource("scripts/product-sweep.lua"), Long.class);
+
+    private static final String EXPIRED_EVENTS = "__keyevent@*__:expired";
+
+    private final RedisShards redisShards;
+
+    private final RangeIndexOperations rangeIndexOperations;
+
+    private final ProductSweeperProperties properties;
+
+    private final String keyspace;
+
+    private final Map<RedisShards.Shard, Pass> passes = new LinkedHashMap<>();
+
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+
+    private final LongAdder checked = new LongAdder();
+
+    private final LongAdder removed = new LongAdder();
+
+    private final LongAdder expiredEvents = new LongAdder();
+
+    private final LongAdder expiredDropped = new LongAdder();
+
+    private final LongAdder completedPasses = new LongAdder();
+
+    private final LongAdder passNanos = new LongAdder();
+
+    public ProductSweeper(RedisShards redisShards, RedisConverter redisConverter,
+                          RangeIndexOperations rangeIndexOperations, ProductSweeperProperties properties) {
+        this.redisShards = redisShards;
+        this.rangeIndexOperations = rangeIndexOperations;
+        this.properties = properties;
+        this.keyspace = redisConverter.getMappingContext().getRequiredPersistentEntity(Product.class).getKeySpace();
+        redisShards.getShards().forEach(shard -> passes.put(shard, new Pass(properties.getExpiredQueueCapacity())));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isExpirationEvents()) {
+            return;
+        }
+
+        for (RedisShards.Shard shard : redisShards.getShards()) {
+            if (properties.isConfigureKeyspaceNotifications()) {
+                configureKeyspaceNotifications(shard);
+            }
+
+            var container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(shard.connectionFactory());
+            // listener hanya memasukkan id ke antrian, tidak ada command redis di thread subscription
+            container.setTaskExecutor(new SyncTaskExecutor());
+            Pass pass = passes.get(shard);
+            container.addMessageListener((message, pattern) -> onExpired(pass, message), new PatternTopic(EXPIRED_EVENTS));
+            container.afterPropertiesSet();
+            container.start();
+            containers.add(container);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws Exception {
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        passes.values().forEach(Pass::close);
+    }
+
+    /**
+     * id dari event expired yang sudah mengantri, lalu satu batch SSCAN per shard,
+     * jadi paling banyak batch-size / interval id per detik per shard dari SSCAN
+     */
+    @Scheduled(fixedDelayString = "${products.sweeper.interval:200}")
+    public synchronized void sweepStep() {
+        passes.forEach((shard, pass) -> {
+            try {
+                removeExpired(shard, pass);
+            } catch (RuntimeException exception) {
+                // id-nya nanti dibuang sweeper
+                log.warn("failed to remove expired ids from keyspace {} on {}", keyspace, shard, exception);
+            }
+
+            try {
+                step(shard, pass);
+            } catch (RuntimeException exception) {
+                log.warn("failed to sweep keyspace {} on {}, restarting after pause", keyspace, shard, exception);
+                pass.close();
+                pass.nextStartNanos = System.nanoTime() + properties.getPause().toNanos();
+            }
+        });
+    }
+
+    /**
+     * satu putaran penuh di semua shard tanpa jeda, untuk dipanggil manual
+     *
+     * @return jumlah id yang dibuang
+     */
+    public long sweepAll() {
+        long total = 0;
+        for (RedisShards.Shard shard : redisShards.getShards()) {
+            try (Cursor<String> cursor = scan(shard)) {
+                List<String> ids = new ArrayList<>(properties.getBatchSize());
+                while (cursor.hasNext()) {
+                    ids.add(cursor.next());
+                    if (ids.size() >= properties.getBatchSize() || !cursor.hasNext()) {
+                        total += sweep(shard, ids);
+                        ids.clear();
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    public long getChecked() {
+        return checked.sum();
+    }
+
+    public long getRemoved() {
+        return removed.sum();
+    }
+
+    public long getExpiredEvents() {
+        return expiredEvents.sum();
+    }
+
+    public long getExpiredDropped() {
+        return expiredDropped.sum();
+    }
+
+    public long getCompletedPasses() {
+        return completedPasses.sum();
+    }
+
+    public long getPassNanos() {
+        return passNanos.sum();
+    }
+
+    private void step(RedisShards.Shard shard, Pass pass) {
+        if (pass.cursor == null) {
+            if (System.nanoTime() - pass.nextStartNanos < 0) {
+                return;
+            }
+            // cursor tetap terbuka di antara interval supaya SSCAN lanjut dari posisi terakhir
+            pass.cursor = scan(shard);
+            pass.startedNanos = System.nanoTime();
+        }
+
+        List<String> ids = new ArrayList<>(properties.getBatchSize());
+        while (ids.size() < properties.getBatchSize() && pass.cursor.hasNext()) {
+            ids.add(pass.cursor.next());
+        }
+        sweep(shard, ids);
+
+        if (!pass.cursor.hasNext()) {
+            pass.close();
+            long elapsed = System.nanoTime() - pass.startedNanos;
+            completedPasses.increment();
+            passNanos.add(elapsed);
+            pass.nextStartNanos = System.nanoTime() + properties.getPause().toNanos();
+            log.debug("swept keyspace {} on {} in {} ms", keyspace, shard, elapsed / 1_000_000);
+        }
+    }
+
+    /**
+     * hanya id yang sudah mengantri saat mulai, per batch-size id satu script
+     */
+    private void removeExpired(RedisShards.Shard shard, Pass pass) {
+        int queued = pass.expired.size();
+        List<String> ids = new ArrayList<>(properties.getBatchSize());
+        while (queued > 0) {
+            ids.clear();
+            queued -= pass.expired.drainTo(ids, Math.min(queued, properties.getBatchSize()));
+            if (ids.isEmpty()) {
+                return;
+            }
+            remove(shard, ids);
+        }
+    }
+
+    private Cursor<String> scan(RedisShards.Shard shard) {
+        return shard.redisTemplate().opsForSet().scan(keyspace,
+                ScanOptions.scanOptions().count(properties.getBatchSize()).build());
+    }
+
+    /**
+     * EXISTS untuk semua id dalam satu pipeline, script hanya dijalankan untuk id yang hash-nya tidak ada
+     */
+    private long sweep(RedisShards.Shard shard, List<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> exists = shard.redisTemplate().execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            for (String id : ids) {
+                connection.keyCommands().exists(bytes(key(id)));
+            }
+            return connection.closePipeline();
+        });
+        checked.add(ids.size());
+
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; exists != null && i < ids.size(); i++) {
+            if (Boolean.FALSE.equals(exists.get(i))) {
+                missing.add(ids.get(i));
+            }
+        }
+        return remove(shard, missing);
+    }
+
+    private long remove(RedisShards.Shard shard, List<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<String> indexKeys = rangeIndexOperations.indexKeys(keyspace, Product.class);
+        List<String> keys = new ArrayList<>();
+        keys.add(keyspace);
+        keys.addAll(indexKeys);
+        ids.forEach(id -> keys.add(key(id)));
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(indexKeys.size()));
+        args.addAll(ids);
+
+        Long count = shard.redisTemplate().execute(SWEEP, keys, args.toArray());
+        long swept = count == null ? 0 : count;
+        removed.add(swept);
+        return swept;
+    }
+
+    private void onExpired(Pass pass, Message message) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!key.startsWith(keyspace + ":") || key.endsWith(":phantom") || key.endsWith(":idx")) {
+            return;
+        }
+
+        expiredEvents.increment();
+        if (!pass.expired.offer(key.substring(keyspace.length() + 1))) {
+            // antrian penuh, id-nya nanti dibuang sweeper
+            expiredDropped.increment();
+        }
+    }
+
+    private void configureKeyspaceNotifications(RedisShards.Shard shard) {
+        try {
+            Properties config = shard.redisTemplate().execute((RedisCallback<Properties>) connection ->
+                    connection.serverCommands().getConfig("notify-keyspace-events"));
+            String current = config == null ? "" : config.getProperty("notify-keyspace-events", "");
+            if (current.contains("E") && (current.contains("x") || current.contains("A"))) {
+                return;
+            }
+            shard.redisTemplate().execute((RedisCallback<Object>) connection -> {
+                connection.serverCommands().setConfig("notify-keyspace-events", current + "Ex");
+                return null;
+            });
+        } catch (RuntimeException exception) {
+            log.warn("cannot configure notify-keyspace-events on {}, expired ids are only removed by the sweeper",
+                    shard, exception);
+        }
+    }
+
+    private String key(String id) {
+        return keyspace + ":" + id;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class Pass {
+
+        /**
+         * id dari event expired, diisi thread subscription dan dikosongkan sweepStep
+         */
+        private final BlockingQueue<String> expired;
+
+        private Cursor<String> cursor;
+
+        private long startedNanos;
+
+        private long nextStartNanos = System.nanoTime();
+
+        Pass(int expiredQueueCapacity) {
+            this.expired = new LinkedBlockingQueue<>(expiredQueueCapacity);
+        }
+
+        void close() {
+            if (cursor != null) {
+                cursor.close();
+                cursor = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "products.sweeper")
+public class ProductSweeperProperties {
+
+    /**
+     * buang id di set keyspace products (dan index @RangeIndexed) yang hash-nya sudah expire
+     */
+    private boolean enabled = true;
+
+    /**
+     * jumlah id per SSCAN dan per pipeline EXISTS, satu batch per shard setiap interval
+     */
+    private int batchSize = 100;
+
+    /**
+     * jeda sebelum satu putaran SSCAN penuh diulang dari awal
+     */
+    private Duration pause = Duration.ofMinutes(5);
+
+    /**
+     * subscribe ke event expired supaya id langsung dibuang saat hash-nya expire, sweeper tetap jalan
+     * untuk event yang hilang (pub/sub tidak menyimpan pesan saat koneksi putus)
+     */
+    private boolean expirationEvents = false;
+
+    /**
+     * id dari event expired yang menunggu dibuang per shard, event yang tidak muat diserahkan ke sweeper
+     */
+    private int expiredQueueCapacity = 10_000;
+
+    /**
+     * CONFIG SET notify-keyspace-events kalau belum mencakup event expired. matikan kalau CONFIG
+     * tidak diizinkan server, notify-keyspace-events harus di-set sendiri (minimal "Ex")
+     */
+    private boolean configureKeyspaceNotifications = true;
+}
@@ -0,0 +1,24 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "products.transfer")
+public class ProductTransferProperties {
+
+    /**
+     * jumlah id per SSCAN dan per pipeline HGETALL saat export
+     */
+    private int exportBatchSize = 500;
+
+    /**
+     * jumlah product per pipeline saat bulk load
+     */
+    private int loadBatchSize = 500;
+
+    /**
+     * jumlah pipeline bulk load yang berjalan bersamaan, memori paling banyak parallelism x load-batch-size product
+     */
+    private int loadParallelism = 4;
+}
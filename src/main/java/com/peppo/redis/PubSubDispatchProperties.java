@@ -0,0 +1,34 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "pubsub.dispatch")
+public class PubSubDispatchProperties {
+
+    /**
+     * pesan pub/sub diserahkan ke MessageDispatcher, thread subscription hanya enqueue
+     */
+    private boolean enabled = true;
+
+    /**
+     * jumlah worker (stripe)
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * kapasitas antrian per stripe, cukup besar untuk menyerap burst publish
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * pesan dengan key yang sama selalu masuk stripe yang sama jadi diproses berurutan,
+     * kalau false semua worker mengambil dari satu antrian bersama
+     */
+    private boolean ordered = true;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    private boolean virtualThreads = true;
+}
@@ -0,0 +1,311 @@
+package com.peppo.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.keyvalue.core.event.KeyValueEvent;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisKeyExpiredEvent;
+import org.springframework.data.redis.core.convert.Bucket;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Menjaga sorted set untuk field @RangeIndexed saat entity disimpan/dihapus lewat repository,
+ * dan query range yang biayanya sebanding dengan ukuran halaman: ZCOUNT + ZRANGEBYSCORE LIMIT,
+ * lalu HGETALL per id dalam satu pipeline. Query tidak pernah mengubah index: id yang hash-nya sudah expire
+ * hanya dilewati dan dibuang ProductSweeper, jadi total bisa sedikit lebih besar dari jumlah entity sebenarnya.
+ * Dengan sharding setiap shard punya index sendiri untuk entity yang disimpan di shard itu, query dijalankan
+ * di semua shard lalu hasilnya digabung berdasarkan score.
+ */
+@Slf4j
+@Component
+public class RangeIndexOperations {
+
+    private final RedisShards redisShards;
+
+    private final RedisConverter redisConverter;
+
+    private final ConcurrentMap<Class<?>, List<Field>> indexedFields = new ConcurrentHashMap<>();
+
+    public RangeIndexOperations(RedisShards redisShards, RedisConverter redisConverter) {
+        this.redisShards = redisShards;
+        this.redisConverter = redisConverter;
+    }
+
+    public static String indexKey(String keyspace, String field) {
+        return keyspace + ":idx:" + field;
+    }
+
+    public <T> Page<T> findBetween(Class<T> type, String field, double min, double max, Pageable pageable) {
+        String keyspace = keyspace(type);
+        byte[] indexKey = bytes(indexKey(keyspace, field));
+        Range<Double> range = Range.closed(min, max);
+
+        if (!redisShards.isSharded()) {
+            return findBetween(redisShards.getShards().get(0), type, keyspace, indexKey, range,
+                    pageable.getOffset(), pageable.getPageSize(), pageable);
+        }
+
+        // setiap shard bisa menyumbang seluruh halaman, jadi tiap shard diminta offset + size teratas
+        // lalu digabung berdasarkan score dan dipotong di sini
+        Map<RedisShards.Shard, RangedIds> ranged = redisShards.parallel(redisShards.getShards(), shard ->
+                range(shard, indexKey, range, 0, pageable.getOffset() + pageable.getPageSize(), true));
+
+        long total = ranged.values().stream().mapToLong(RangedIds::total).sum();
+        List<ScoredId> merged = new ArrayList<>();
+        ranged.forEach((shard, ids) -> {
+            for (int i = 0; i < ids.ids().size(); i++) {
+                merged.add(new ScoredId(shard, ids.ids().get(i), ids.scores().get(i)));
+            }
+        });
+        merged.sort(Comparator.comparingDouble(ScoredId::score)
+                .thenComparing((left, right) -> Arrays.compareUnsigned(left.id(), right.id())));
+        List<ScoredId> page = merged.subList((int) Math.min(pageable.getOffset(), merged.size()),
+                (int) Math.min(pageable.getOffset() + pageable.getPageSize(), merged.size()));
+        if (page.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        Map<RedisShards.Shard, List<byte[]>> idsByShard = new LinkedHashMap<>();
+        page.forEach(id -> idsByShard.computeIfAbsent(id.shard(), shard -> new ArrayList<>()).add(id.id()));
+        Map<RedisShards.Shard, List<T>> loaded = redisShards.parallel(idsByShard.keySet(), shard ->
+                load(shard, type, keyspace, idsByShard.get(shard)));
+
+        // hasil load per shard urut sesuai id yang dikirim, jadi urutan halaman tinggal diikuti
+        Map<RedisShards.Shard, Iterator<T>> iterators = new LinkedHashMap<>();
+        loaded.forEach((shard, entities) -> iterators.put(shard, entities.iterator()));
+        List<T> content = new ArrayList<>(page.size());
+        for (ScoredId id : page) {
+            T entity = iterators.get(id.shard()).next();
+            if (entity != null) {
+                content.add(entity);
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private <T> Page<T> findBetween(RedisShards.Shard shard, Class<T> type, String keyspace, byte[] indexKey,
+                                    Range<Double> range, long offset, int count, Pageable pageable) {
+        RangedIds ranged = range(shard, indexKey, range, offset, count, false);
+        if (ranged.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ranged.total());
+        }
+
+        List<T> content = load(shard, type, keyspace, ranged.ids()).stream().filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ranged.total());
+    }
+
+    @SuppressWarnings("unchecked")
+    private RangedIds range(RedisShards.Shard shard, byte[] indexKey, Range<Double> range, long offset, long count,
+                            boolean withScores) {
+        Limit limit = Limit.limit().offset((int) offset).count((int) Math.min(count, Integer.MAX_VALUE));
+        List<Object> ranged = shard.redisTemplate().execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            connection.zSetCommands().zCount(indexKey, range);
+            if (withScores) {
+                connection.zSetCommands().zRangeByScoreWithScores(indexKey, range, limit);
+            } else {
+                connection.zSetCommands().zRangeByScore(indexKey, range, limit);
+            }
+            return connection.closePipeline();
+        });
+
+        long total = (Long) ranged.get(0);
+        List<byte[]> ids = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        if (withScores) {
+            for (Tuple tuple : (Set<Tuple>) ranged.get(1)) {
+                ids.add(tuple.getValue());
+                scores.add(tuple.getScore());
+            }
+        } else {
+            ids.addAll((Set<byte[]>) ranged.get(1));
+        }
+        return new RangedIds(total, ids, scores);
+    }
+
+    /**
+     * HGETALL untuk ids dalam satu pipeline, urutan hasil sama dengan ids dan null untuk hash yang sudah expire
+     */
+    private <T> List<T> load(RedisShards.Shard shard, Class<T> type, String keyspace, List<byte[]> ids) {
+        List<Object> hashes = shard.redisTemplate().execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            for (byte[] id : ids) {
+                connection.hashCommands().hGetAll(entityKey(keyspace, id));
+            }
+            return connection.closePipeline();
+        });
+
+        List<T> content = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<byte[], byte[]> hash = (Map<byte[], byte[]>) hashes.get(i);
+            // hash sudah expire tapi id masih di index
+            content.add(hash == null || hash.isEmpty() ? null
+                    : redisConverter.read(type, new RedisData(Bucket.newBucketFromRawMap(hash))));
+        }
+        return content;
+    }
+
+    @EventListener
+    public void onInsert(KeyValueEvent.AfterInsertEvent<?> event) {
+        index(event.getKeyspace(), event.getKey(), event.getPayload());
+    }
+
+    @EventListener
+    public void onUpdate(KeyValueEvent.AfterUpdateEvent<?> event) {
+        index(event.getKeyspace(), event.getKey(), event.after());
+    }
+
+    @EventListener
+    public void onDelete(KeyValueEvent.AfterDeleteEvent<?> event) {
+        List<Field> fields = fields(event.getType());
+        if (fields.isEmpty()) {
+            return;
+        }
+
+        byte[] id = bytes(String.valueOf(event.getKey()));
+        shardFor(event.getKeyspace(), id).redisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            for (Field field : fields) {
+                connection.zSetCommands().zRem(bytes(indexKey(event.getKeyspace(), field.getName())), id);
+            }
+            return null;
+        });
+    }
+
+    @EventListener
+    public void onDropKeyspace(KeyValueEvent.AfterDropKeySpaceEvent<?> event) {
+        redisConverter.getMappingContext().getPersistentEntities().stream()
+                .filter(entity -> event.getKeyspace().equals(entity.getKeySpace()))
+                .flatMap(entity -> fields(entity.getType()).stream())
+                .forEach(field -> redisShards.parallel(redisShards.getShards(), shard ->
+                        shard.redisTemplate().delete(indexKey(event.getKeyspace(), field.getName()))));
+    }
+
+    /**
+     * hanya terpanggil kalau keyspace event redis diaktifkan, selain itu id basi dibuang ProductSweeper
+     */
+    @EventListener
+    public void onExpired(RedisKeyExpiredEvent<?> event) {
+        if (event.getValue() == null) {
+            return;
+        }
+
+        List<Field> fields = fields(event.getValue().getClass());
+        shardFor(event.getKeyspace(), event.getId()).redisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            for (Field field : fields) {
+                connection.zSetCommands().zRem(bytes(indexKey(event.getKeyspace(), field.getName())), event.getId());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * key index -&gt; score untuk entity ini, score null berarti id harus dibuang dari index.
+     * dipakai juga oleh jalur tulis yang tidak lewat repository (ReactiveProductService)
+     */
+    public Map<String, Number> indexValues(String keyspace, Object entity) {
+        Map<String, Number> values = new LinkedHashMap<>();
+        for (Field field : fields(entity.getClass())) {
+            values.put(indexKey(keyspace, field.getName()), (Number) ReflectionUtils.getField(field, entity));
+        }
+        return values;
+    }
+
+    /**
+     * semua key index untuk tipe ini, urutannya sama dengan indexValues
+     */
+    public List<String> indexKeys(String keyspace, Class<?> type) {
+        return fields(type).stream().map(field -> indexKey(keyspace, field.getName())).toList();
+    }
+
+    private void index(String keyspace, Object key, Object entity) {
+        if (entity == null) {
+            return;
+        }
+        Map<String, Number> values = indexValues(keyspace, entity);
+        if (values.isEmpty()) {
+            return;
+        }
+
+        byte[] id = bytes(String.valueOf(key));
+        shardFor(keyspace, id).redisTemplate().executePipelined((RedisCallback<Object>) connection -> {
+            values.forEach((indexKey, value) -> {
+                if (value == null) {
+                    connection.zSetCommands().zRem(bytes(indexKey), id);
+                } else {
+                    connection.zSetCommands().zAdd(bytes(indexKey), value.doubleValue(), id);
+                }
+            });
+            return null;
+        });
+    }
+
+    private List<Field> fields(Class<?> type) {
+        if (type == null) {
+            return List.of();
+        }
+        return indexedFields.computeIfAbsent(type, key -> {
+            List<Field> fields = new ArrayList<>();
+            ReflectionUtils.doWithFields(key, field -> {
+                if (!Number.class.isAssignableFrom(field.getType())) {
+                    throw new IllegalStateException("@RangeIndexed field must be numeric: " + field);
+                }
+                ReflectionUtils.makeAccessible(field);
+                fields.add(field);
+            }, field -> field.isAnnotationPresent(RangeIndexed.class));
+            return List.copyOf(fields);
+        });
+    }
+
+    private String keyspace(Class<?> type) {
+        return redisConverter.getMappingContext().getRequiredPersistentEntity(type).getKeySpace();
+    }
+
+    /**
+     * index ikut disimpan di shard yang sama dengan hash entity-nya
+     */
+    private RedisShards.Shard shardFor(String keyspace, byte[] id) {
+        return redisShards.shardFor(entityKey(keyspace, id));
+    }
+
+    private static byte[] entityKey(String keyspace, byte[] id) {
+        byte[] prefix = bytes(keyspace + ":");
+        byte[] key = new byte[prefix.length + id.length];
+        System.arraycopy(prefix, 0, key, 0, prefix.length);
+        System.arraycopy(id, 0, key, prefix.length, id.length);
+        return key;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record RangedIds(long total, List<byte[]> ids, List<Double> scores) {
+    }
+
+    private record ScoredId(RedisShards.Shard shard, byte[] id, double score) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.peppo.redis;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Field numerik yang di-index di sorted set &lt;keyspace&gt;:idx:&lt;field&gt; (member = id, score = nilai field)
+ * supaya bisa di-query per range lewat RangeIndexOperations
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface RangeIndexed {
+}
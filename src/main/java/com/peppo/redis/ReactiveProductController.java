@@ -0,0 +1,46 @@
+package com.peppo.redis;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Spring MVC menangani Mono / Flux sebagai async request, thread tomcat dilepas
+ * selama menunggu redis dan baru dipakai lagi saat response ditulis
+ */
+@RestController
+@RequestMapping("/reactive/products")
+public class ReactiveProductController {
+
+    private final ReactiveProductService reactiveProductService;
+
+    public ReactiveProductController(ReactiveProductService reactiveProductService) {
+        this.reactiveProductService = reactiveProductService;
+    }
+
+    @GetMapping("/{productId}")
+    public Mono<ResponseEntity<Product>> getProduct(@PathVariable String productId) {
+        return reactiveProductService.findById(productId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public Flux<Product> getProducts(@RequestParam List<String> ids) {
+        return reactiveProductService.findAllById(ids);
+    }
+
+    @PostMapping
+    public Mono<Product> saveProduct(@RequestBody Product product) {
+        return reactiveProductService.save(product);
+    }
+}
@@ -0,0 +1,94 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.convert.Bucket;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Versi non-blocking dari ProductRepository di atas ReactiveRedisTemplate, membaca dan menulis
+ * hash products:&lt;id&gt; dengan format yang sama (MappingRedisConverter) jadi datanya bisa dipakai bergantian.
+ * Semua command jalan di satu koneksi lettuce yang di-share per shard, tidak ada thread yang menunggu redis.
+ */
+@Component
+public class ReactiveProductService {
+
+    /**
+     * jumlah HGETALL yang boleh in-flight untuk satu bulk lookup
+     */
+    private static final int BULK_CONCURRENCY = 64;
+
+    private final RedisShards redisShards;
+
+    private final Map<RedisShards.Shard, ReactiveRedisTemplate<String, byte[]>> redisTemplates = new HashMap<>();
+
+    private final RedisConverter redisConverter;
+
+    private final ScriptedProductWriter scriptedProductWriter;
+
+    private final String keyspace;
+
+    public ReactiveProductService(RedisShards redisShards, RedisConverter redisConverter,
+                                  ScriptedProductWriter scriptedProductWriter) {
+        var serializationContext = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .hashKey(RedisSerializer.byteArray())
+                .hashValue(RedisSerializer.byteArray())
+                .build();
+        this.redisShards = redisShards;
+        for (RedisShards.Shard shard : redisShards.getShards()) {
+            redisTemplates.put(shard, new ReactiveRedisTemplate<>(shard.connectionFactory(), serializationContext));
+        }
+        this.redisConverter = redisConverter;
+        this.scriptedProductWriter = scriptedProductWriter;
+        this.keyspace = redisConverter.getMappingContext().getRequiredPersistentEntity(Product.class).getKeySpace();
+    }
+
+    public Mono<Product> findById(String productId) {
+        String key = key(productId);
+        return redisTemplate(key).<byte[], byte[]>opsForHash().entries(key)
+                .collectMap(entry -> entry.getKey(), entry -> entry.getValue(), HashMap::new)
+                .filter(hash -> !hash.isEmpty())
+                .map(hash -> redisConverter.read(Product.class, new RedisData(Bucket.newBucketFromRawMap(hash))));
+    }
+
+    /**
+     * urutan hasil sama dengan urutan productIds, id yang tidak ada dilewati
+     */
+    public Flux<Product> findAllById(Collection<String> productIds) {
+        return Flux.fromIterable(productIds)
+                .flatMapSequential(this::findById, BULK_CONCURRENCY);
+    }
+
+    /**
+     * script yang sama dengan ScriptedProductWriter.save: hash, set keyspace, index @RangeIndexed, entry cache
+     * products dan invalidation near cache ditulis atomik dalam satu EVALSHA, tanpa thread yang menunggu redis.
+     * Hanya kalau entry cache ada di shard lain cache ditulis terpisah, di boundedElastic karena blocking.
+     */
+    public Mono<Product> save(Product product) {
+        ScriptedProductWriter.Write write = scriptedProductWriter.prepareSave(product);
+        Mono<Void> afterWrite = Mono.fromRunnable(() -> scriptedProductWriter.afterWrite(write));
+        return redisTemplates.get(write.shard()).execute(ScriptedProductWriter.SAVE, write.keys(), write.args())
+                .then(write.colocated() ? afterWrite : afterWrite.subscribeOn(Schedulers.boundedElastic()))
+                .thenReturn(product);
+    }
+
+    private ReactiveRedisTemplate<String, byte[]> redisTemplate(String key) {
+        return redisTemplates.get(redisShards.shardFor(key));
+    }
+
+    private String key(String productId) {
+        return keyspace + ":" + productId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.peppo.redis;
+
+/**
+ * Node yang dipakai untuk jalur baca (cache products dan ProductRepository.findById)
+ */
+public enum ReadPolicy {
+
+    /**
+     * semua baca ke primary, tanpa koneksi tambahan
+     */
+    PRIMARY,
+
+    /**
+     * baca ke replica, kembali ke primary kalau tidak ada replica yang bisa dihubungi
+     */
+    REPLICA_PREFERRED,
+
+    /**
+     * baca ke node (primary atau replica) dengan latency terukur paling kecil
+     */
+    NEAREST
+}
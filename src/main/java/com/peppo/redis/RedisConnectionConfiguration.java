@@ -0,0 +1,31 @@
+package com.peppo.redis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+@Configuration
+public class RedisConnectionConfiguration {
+
+    /**
+     * default lettuce mem-flush setiap command di dalam pipeline, di sini command ditahan
+     * dan di-flush per flushAfter command supaya satu batch = sedikit write syscall.
+     * diset sebelum connection factory di-init, bukan dengan mengubah bean yang sudah dipakai
+     */
+    @Bean
+    public static BeanPostProcessor pipeliningFlushPolicyPostProcessor(
+            @Value("${redis.pipeline.flush-after:128}") int flushAfter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LettuceConnectionFactory connectionFactory) {
+                    connectionFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.buffered(flushAfter));
+                }
+                return bean;
+            }
+        };
+    }
+}
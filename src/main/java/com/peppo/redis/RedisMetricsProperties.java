@@ -0,0 +1,20 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "redis.metrics")
+public class RedisMetricsProperties {
+
+    /**
+     * publish bucket histogram untuk latency per command (lettuce.command.completion / firstresponse)
+     */
+    private boolean commandHistogram = true;
+
+    private Duration commandMinLatency = Duration.ofNanos(100_000);
+
+    private Duration commandMaxLatency = Duration.ofSeconds(5);
+}
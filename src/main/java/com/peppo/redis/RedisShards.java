@@ -0,0 +1,123 @@
+package com.peppo.redis;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Daftar node untuk data yang di-shard beserta routing key-nya. Tanpa sharding isinya satu shard
+ * yaitu koneksi utama, jadi pemakai tidak perlu membedakan dua mode.
+ */
+public class RedisShards implements DisposableBean {
+
+    private final List<Shard> shards;
+
+    private final ConsistentHashRing<Shard> ring;
+
+    private final boolean owned;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private RedisShards(List<Shard> shards, int virtualNodes, boolean owned) {
+        this.shards = List.copyOf(shards);
+        this.ring = new ConsistentHashRing<>(this.shards, Shard::name, virtualNodes);
+        this.owned = owned;
+    }
+
+    public static RedisShards single(LettuceConnectionFactory connectionFactory, StringRedisTemplate redisTemplate) {
+        return new RedisShards(List.of(new Shard("primary", connectionFactory, redisTemplate)), 1, false);
+    }
+
+    /**
+     * connection factory di sini dibuat sendiri dan ikut ditutup saat destroy
+     */
+    public static RedisShards of(List<Shard> shards, int virtualNodes) {
+        return new RedisShards(shards, virtualNodes, true);
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    public Shard shardFor(byte[] key) {
+        return shards.size() == 1 ? shards.get(0) : ring.get(key);
+    }
+
+    public Shard shardFor(String key) {
+        return shardFor(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public StringRedisTemplate template(String key) {
+        return shardFor(key).redisTemplate();
+    }
+
+    /**
+     * posisi key (index di list keys) dikelompokkan per shard supaya hasil per shard bisa digabung
+     * kembali sesuai urutan awal
+     */
+    public Map<Shard, List<Integer>> partition(List<byte[]> keys) {
+        Map<Shard, List<Integer>> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            partitions.computeIfAbsent(shardFor(keys.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        return partitions;
+    }
+
+    /**
+     * menjalankan operasi per shard secara paralel, satu shard langsung di thread pemanggil
+     */
+    public <R> Map<Shard, R> parallel(Collection<Shard> targets, Function<Shard, R> operation) {
+        Map<Shard, R> results = new LinkedHashMap<>();
+        if (targets.size() == 1) {
+            Shard shard = targets.iterator().next();
+            results.put(shard, operation.apply(shard));
+            return results;
+        }
+
+        Map<Shard, CompletableFuture<R>> futures = new LinkedHashMap<>();
+        for (Shard shard : targets) {
+            futures.put(shard, CompletableFuture.supplyAsync(() -> operation.apply(shard), executor));
+        }
+        try {
+            futures.forEach((shard, future) -> results.put(shard, future.join()));
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        if (owned) {
+            shards.forEach(shard -> shard.connectionFactory().destroy());
+        }
+    }
+
+    public record Shard(String name, LettuceConnectionFactory connectionFactory, StringRedisTemplate redisTemplate) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
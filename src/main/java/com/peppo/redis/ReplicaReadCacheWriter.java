@@ -0,0 +1,102 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RedisCacheWriter yang membaca lewat koneksi replica dan menulis ke primary. Key yang ditulis
+ * dicatat di ReplicaReads supaya baca berikutnya tetap ke primary selama read-your-writes window.
+ */
+public class ReplicaReadCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter primary;
+
+    private final RedisCacheWriter replica;
+
+    private final ReplicaReads replicaReads;
+
+    public ReplicaReadCacheWriter(RedisCacheWriter primary, ReplicaReads replicaReads) {
+        this(primary, RedisCacheWriter.nonLockingRedisCacheWriter(replicaReads.getConnectionFactory()), replicaReads);
+    }
+
+    private ReplicaReadCacheWriter(RedisCacheWriter primary, RedisCacheWriter replica, ReplicaReads replicaReads) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaReads = replicaReads;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return reader(key).get(name, key);
+    }
+
+    /**
+     * get dengan ttl (time-to-idle) menulis ulang expire jadi tidak bisa ke replica
+     */
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return ttl == null ? get(name, key) : primary.get(name, key, ttl);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return (ttl == null ? reader(key) : primary).retrieve(name, key, ttl);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        primary.put(name, key, value, ttl);
+        replicaReads.written(key);
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        replicaReads.written(key);
+        return primary.store(name, key, value, ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        byte[] existing = primary.putIfAbsent(name, key, value, ttl);
+        replicaReads.written(key);
+        return existing;
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        primary.remove(name, key);
+        replicaReads.written(key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        primary.clean(name, pattern);
+    }
+
+    /**
+     * collector yang sama dipasang di kedua writer, jadi statistik cukup dibaca dari primary
+     */
+    @Override
+    public void clearStatistics(String name) {
+        primary.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new ReplicaReadCacheWriter(primary.withStatisticsCollector(cacheStatisticsCollector),
+                replica.withStatisticsCollector(cacheStatisticsCollector), replicaReads);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return primary.getCacheStatistics(cacheName);
+    }
+
+    private RedisCacheWriter reader(byte[] key) {
+        return replicaReads.fromReplica(key) ? replica : primary;
+    }
+}
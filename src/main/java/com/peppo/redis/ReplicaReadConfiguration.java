@@ -0,0 +1,66 @@
+package com.peppo.redis;
+
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.resource.ClientResources;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStaticMasterReplicaConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.convert.RedisConverter;
+
+@Configuration
+public class ReplicaReadConfiguration {
+
+    @Bean
+    public ReplicaReads replicaReads(
+            ReplicaReadProperties properties,
+            ShardingProperties shardingProperties,
+            RedisProperties redisProperties,
+            ClientResources clientResources) {
+        if (properties.getPolicy() == ReadPolicy.PRIMARY) {
+            return ReplicaReads.disabled();
+        }
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("redis.read.policy=" + properties.getPolicy()
+                    + " is not supported together with redis.sharding.enabled=true");
+        }
+        if (properties.getReplicas().isEmpty()) {
+            throw new IllegalStateException("redis.read.replicas must not be empty when redis.read.policy is "
+                    + properties.getPolicy());
+        }
+
+        // lettuce mengirim command read-only ke node sesuai ReadFrom dan command tulis ke primary,
+        // NEAREST mengurutkan node berdasarkan latency yang diukur lettuce sendiri
+        var configuration = new RedisStaticMasterReplicaConfiguration(redisProperties.getHost(), redisProperties.getPort());
+        for (String replica : properties.getReplicas()) {
+            RedisStandaloneConfiguration node = ShardingConfiguration.standaloneConfiguration(replica, redisProperties);
+            configuration.addNode(node.getHostName(), node.getPort());
+        }
+        configuration.setDatabase(redisProperties.getDatabase());
+        configuration.setUsername(redisProperties.getUsername());
+        if (redisProperties.getPassword() != null) {
+            configuration.setPassword(redisProperties.getPassword());
+        }
+
+        ReadFrom readFrom = properties.getPolicy() == ReadPolicy.NEAREST ? ReadFrom.LOWEST_LATENCY : ReadFrom.REPLICA_PREFERRED;
+        var connectionFactory = new LettuceConnectionFactory(configuration,
+                ShardingConfiguration.clientConfiguration(redisProperties, clientResources, readFrom));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        return ReplicaReads.of(connectionFactory, properties.getReadYourWritesWindow(),
+                properties.getReadYourWritesMaximumSize());
+    }
+
+    /**
+     * sama seperti ShardingConfiguration, nama bean menggantikan adapter bawaan @EnableRedisRepositories
+     */
+    @Bean(name = "redisKeyValueAdapter")
+    @ConditionalOnExpression("!'${redis.read.policy:primary}'.equalsIgnoreCase('primary')")
+    public ReplicaReadKeyValueAdapter redisKeyValueAdapter(RedisShards redisShards, ReplicaReads replicaReads,
+                                                           RedisConverter redisConverter) {
+        return new ReplicaReadKeyValueAdapter(redisShards.getShards().get(0).redisTemplate(), replicaReads, redisConverter);
+    }
+}
@@ -0,0 +1,94 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.core.PartialUpdate;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.convert.RedisConverter;
+
+/**
+ * RedisKeyValueAdapter yang menjalankan baca per id (findById, existsById) lewat koneksi replica,
+ * operasi lain tetap ke primary. Key yang ditulis lewat adapter ini dibaca dari primary selama
+ * read-your-writes window.
+ */
+public class ReplicaReadKeyValueAdapter extends RedisKeyValueAdapter {
+
+    private final ReplicaReads replicaReads;
+
+    private final RedisKeyValueAdapter replica;
+
+    public ReplicaReadKeyValueAdapter(StringRedisTemplate redisTemplate, ReplicaReads replicaReads,
+                                      RedisConverter redisConverter) {
+        super(redisTemplate, redisConverter);
+        this.replicaReads = replicaReads;
+        this.replica = new RedisKeyValueAdapter(replicaReads.getRedisTemplate(), redisConverter);
+    }
+
+    /**
+     * adapter replica bukan bean, jadi init dan destroy-nya ikut adapter ini
+     */
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        replica.afterPropertiesSet();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        try {
+            replica.destroy();
+        } finally {
+            super.destroy();
+        }
+    }
+
+    @Override
+    public boolean contains(Object id, String keyspace) {
+        return fromReplica(id, keyspace) ? replica.contains(id, keyspace) : super.contains(id, keyspace);
+    }
+
+    @Override
+    public Object get(Object id, String keyspace) {
+        return fromReplica(id, keyspace) ? replica.get(id, keyspace) : super.get(id, keyspace);
+    }
+
+    @Override
+    public <T> T get(Object id, String keyspace, Class<T> type) {
+        return fromReplica(id, keyspace) ? replica.get(id, keyspace, type) : super.get(id, keyspace, type);
+    }
+
+    @Override
+    public Object put(Object id, Object item, String keyspace) {
+        Object result = super.put(id, item, keyspace);
+        replicaReads.written(key(id, keyspace));
+        return result;
+    }
+
+    @Override
+    public Object delete(Object id, String keyspace) {
+        Object result = super.delete(id, keyspace);
+        replicaReads.written(key(id, keyspace));
+        return result;
+    }
+
+    @Override
+    public <T> T delete(Object id, String keyspace, Class<T> type) {
+        T result = super.delete(id, keyspace, type);
+        replicaReads.written(key(id, keyspace));
+        return result;
+    }
+
+    @Override
+    public void update(PartialUpdate<?> update) {
+        super.update(update);
+        replicaReads.written(key(update.getId(), getConverter().getMappingContext()
+                .getRequiredPersistentEntity(update.getTarget()).getKeySpace()));
+    }
+
+    private boolean fromReplica(Object id, String keyspace) {
+        return replicaReads.fromReplica(key(id, keyspace));
+    }
+
+    private String key(Object id, String keyspace) {
+        return keyspace + ":" + getConverter().getConversionService().convert(id, String.class);
+    }
+}
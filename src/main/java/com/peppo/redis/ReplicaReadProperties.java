@@ -0,0 +1,35 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "redis.read")
+public class ReplicaReadProperties {
+
+    /**
+     * hanya jalur baca yang mengikuti policy ini, tulis, evict, stream dan ack tetap ke primary
+     */
+    private ReadPolicy policy = ReadPolicy.PRIMARY;
+
+    /**
+     * replica dari spring.data.redis.host dalam format host:port
+     */
+    private List<String> replicas = new ArrayList<>();
+
+    /**
+     * selama window ini key yang baru ditulis instance ini tetap dibaca dari primary supaya
+     * tidak kena replication lag, 0 berarti tidak ada jaminan read-your-writes.
+     * default jauh di atas lag replikasi normal (milidetik)
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(1);
+
+    /**
+     * batas jumlah key yang diingat untuk read-your-writes
+     */
+    private long readYourWritesMaximumSize = 100_000;
+}
@@ -0,0 +1,82 @@
+package com.peppo.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Koneksi master/replica untuk jalur baca beserta daftar key yang baru ditulis instance ini.
+ * Key di daftar itu dibaca dari primary sampai read-your-writes window lewat.
+ */
+public class ReplicaReads implements DisposableBean {
+
+    private final LettuceConnectionFactory connectionFactory;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Cache<ByteBuffer, Boolean> recentWrites;
+
+    private ReplicaReads(LettuceConnectionFactory connectionFactory, Duration window, long maximumSize) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = connectionFactory == null ? null : new StringRedisTemplate(connectionFactory);
+        this.recentWrites = connectionFactory == null || window.isZero() || window.isNegative() ? null
+                : Caffeine.newBuilder().expireAfterWrite(window).maximumSize(maximumSize).build();
+    }
+
+    public static ReplicaReads disabled() {
+        return new ReplicaReads(null, Duration.ZERO, 0);
+    }
+
+    /**
+     * connection factory di sini dibuat sendiri dan ikut ditutup saat destroy
+     */
+    public static ReplicaReads of(LettuceConnectionFactory connectionFactory, Duration window, long maximumSize) {
+        return new ReplicaReads(connectionFactory, window, maximumSize);
+    }
+
+    public boolean isEnabled() {
+        return connectionFactory != null;
+    }
+
+    public LettuceConnectionFactory getConnectionFactory() {
+        return connectionFactory;
+    }
+
+    public StringRedisTemplate getRedisTemplate() {
+        return redisTemplate;
+    }
+
+    public void written(byte[] key) {
+        if (recentWrites != null) {
+            recentWrites.put(ByteBuffer.wrap(key), Boolean.TRUE);
+        }
+    }
+
+    public void written(String key) {
+        written(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * false kalau replica read mati atau key baru saja ditulis, artinya harus dibaca dari primary
+     */
+    public boolean fromReplica(byte[] key) {
+        return isEnabled() && (recentWrites == null || recentWrites.getIfPresent(ByteBuffer.wrap(key)) == null);
+    }
+
+    public boolean fromReplica(String key) {
+        return fromReplica(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+}
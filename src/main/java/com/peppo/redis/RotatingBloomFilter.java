@@ -0,0 +1,126 @@
+package com.peppo.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter dua generasi untuk jendela dedup yang ukurannya tetap. Key baru masuk generasi aktif,
+ * setelah generasi aktif berisi expectedInsertions key generasi lama dibuang, jadi yang diingat
+ * selalu antara expectedInsertions dan 2 x expectedInsertions key terakhir.
+ */
+public class RotatingBloomFilter {
+
+    private final int expectedInsertions;
+
+    private final int bits;
+
+    private final int hashes;
+
+    private volatile Generation current;
+
+    private volatile Generation previous;
+
+    public RotatingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate in (0, 1)");
+        }
+        this.expectedInsertions = expectedInsertions;
+        // m = -n ln p / (ln 2)^2, k = m / n ln 2, dibulatkan ke kelipatan 64 bit
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, (optimalBits + 63) / 64 * 64);
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.current = new Generation(bits);
+        this.previous = new Generation(bits);
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        return current.contains(hash, hashes, bits) || previous.contains(hash, hashes, bits);
+    }
+
+    public void put(String key) {
+        Generation generation = current;
+        generation.put(hash(key), hashes, bits);
+        if (generation.insertions.incrementAndGet() >= expectedInsertions) {
+            rotate(generation);
+        }
+    }
+
+    /**
+     * memori yang dipakai kedua generasi dalam byte
+     */
+    public long getSizeInBytes() {
+        return 2L * bits / 8;
+    }
+
+    /**
+     * perkiraan false positive rate saat ini dari jumlah bit yang sudah terisi
+     */
+    public double getExpectedFalsePositiveRate() {
+        double currentRate = Math.pow(current.fillRatio(bits), hashes);
+        double previousRate = Math.pow(previous.fillRatio(bits), hashes);
+        return 1 - (1 - currentRate) * (1 - previousRate);
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (current != full) {
+            return;
+        }
+        previous = full;
+        current = new Generation(bits);
+    }
+
+    private static long hash(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return ConsistentHashRing.hash(bytes, 0, bytes.length);
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray(bits / 64);
+        }
+
+        /**
+         * double hashing (Kirsch-Mitzenmacher): posisi ke-i = h1 + i * h2
+         */
+        private void put(long hash, int hashes, int bits) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int index = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << index;
+                int word = index >>> 6;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+            }
+        }
+
+        private boolean contains(long hash, int hashes, int bits) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int index = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(index >>> 6) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private double fillRatio(int bits) {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return (double) set / bits;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.peppo.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Jalur tulis product lewat lua script: hash products:&lt;id&gt;, set keyspace, index @RangeIndexed, entry cache
+ * products dan invalidation near cache dalam satu EVALSHA yang atomik. RedisTemplate mengirim EVALSHA dengan
+ * SHA yang sudah dihitung RedisScript dan mengulang dengan EVAL kalau redis membalas NOSCRIPT.
+ * Format hash dan cache sama dengan ProductRepository dan RedisCache, jadi kedua jalur bisa dipakai bersamaan.
+ * Dengan sharding entry cache yang ada di shard lain ditulis terpisah lewat cache biasa.
+ */
+@Component
+public class ScriptedProductWriter {
+
+    static final RedisScript<Long> SAVE = RedisScript.of(new ClassPathResource("scripts/product-save.lua"), Long.class);
+
+    private static final RedisScript<Long> REMOVE = RedisScript.of(new ClassPathResource("scripts/product-remove.lua"), Long.class);
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final RedisShards redisShards;
+
+    private final RedisConverter redisConverter;
+
+    private final RangeIndexOperations rangeIndexOperations;
+
+    private final CacheManager cacheManager;
+
+    private final NearCacheProperties nearCacheProperties;
+
+    private final ReplicaReads replicaReads;
+
+    private final String keyspace;
+
+    public ScriptedProductWriter(RedisShards redisShards, RedisConverter redisConverter,
+                                 RangeIndexOperations rangeIndexOperations, CacheManager cacheManager,
+                                 NearCacheProperties nearCacheProperties, ReplicaReads replicaReads) {
+        this.redisShards = redisShards;
+        this.redisConverter = redisConverter;
+        this.rangeIndexOperations = rangeIndexOperations;
+        this.cacheManager = cacheManager;
+        this.nearCacheProperties = nearCacheProperties;
+        this.replicaReads = replicaReads;
+        this.keyspace = redisConverter.getMappingContext().getRequiredPersistentEntity(Product.class).getKeySpace();
+    }
+
+    public Product save(Product product) {
+        Write write = prepareSave(product);
+        write.shard().redisTemplate().execute(SAVE, RedisSerializer.byteArray(), null, write.keys(), write.args().toArray());
+        afterWrite(write);
+        return product;
+    }
+
+    /**
+     * keys dan args script save, dipakai juga oleh ReactiveProductService yang mengirim script yang sama
+     * lewat ReactiveRedisTemplate lalu memanggil afterWrite
+     */
+    Write prepareSave(Product product) {
+        if (product.getId() == null) {
+            product.setId(UUID.randomUUID().toString());
+        }
+
+        RedisData redisData = new RedisData();
+        redisConverter.write(product, redisData);
+        String key = key(product.getId());
+        RedisShards.Shard shard = redisShards.shardFor(key);
+        Map<String, Number> indexes = rangeIndexOperations.indexValues(keyspace, product);
+        Cache cache = cacheManager.getCache("products");
+        RedisCache redisCache = colocatedCache(cache, shard, product.getId());
+
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        keys.add(keyspace);
+        keys.addAll(indexes.keySet());
+
+        Long timeToLive = redisData.getTimeToLive();
+        List<byte[]> args = new ArrayList<>();
+        args.add(bytes(product.getId()));
+        args.add(bytes(String.valueOf(indexes.size())));
+        args.add(bytes(String.valueOf(timeToLive == null ? -1 : timeToLive)));
+        if (redisCache != null) {
+            keys.add(new String(BulkCacheOperations.rawKey(redisCache, product.getId()), StandardCharsets.UTF_8));
+            args.add(BulkCacheOperations.serialize(redisCache, product));
+            args.add(bytes(String.valueOf(cacheTimeToLive(redisCache, product.getId(), product))));
+        } else {
+            args.add(EMPTY);
+            args.add(bytes("-1"));
+        }
+        addInvalidation(args, cache, redisCache, product.getId());
+        indexes.values().forEach(value -> args.add(value == null ? EMPTY : bytes(String.valueOf(value.doubleValue()))));
+        redisData.getBucket().rawMap().forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+
+        return new Write(shard, key, product.getId(), product, cache, redisCache, keys, args);
+    }
+
+    /**
+     * L1 dan cache yang tidak ikut ditulis script, blocking kalau entry cache ada di shard lain
+     * (lihat Write.colocated)
+     */
+    void afterWrite(Write write) {
+        afterWrite(write.cache(), write.redisCache(), write.productId(), write.key(), write.product());
+    }
+
+    /**
+     * @return true kalau product memang ada
+     */
+    public boolean remove(String productId) {
+        String key = key(productId);
+        RedisShards.Shard shard = redisShards.shardFor(key);
+        Cache cache = cacheManager.getCache("products");
+        RedisCache redisCache = colocatedCache(cache, shard, productId);
+
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        keys.add(keyspace);
+        keys.addAll(rangeIndexOperations.indexKeys(keyspace, Product.class));
+        if (redisCache != null) {
+            keys.add(new String(BulkCacheOperations.rawKey(redisCache, productId), StandardCharsets.UTF_8));
+        }
+
+        List<byte[]> args = new ArrayList<>();
+        args.add(bytes(productId));
+        args.add(bytes(String.valueOf(keys.size() - 2 - (redisCache != null ? 1 : 0))));
+        addInvalidation(args, cache, redisCache, productId);
+
+        Long removed = shard.redisTemplate().execute(REMOVE, RedisSerializer.byteArray(), null, keys, args.toArray());
+        afterWrite(cache, redisCache, productId, key, null);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * RedisCache products kalau entry cache-nya bisa ikut ditulis script, yaitu ada di shard yang sama
+     */
+    private RedisCache colocatedCache(Cache cache, RedisShards.Shard shard, String productId) {
+        if (cache == null || !(DelegatingCache.unwrap(cache) instanceof RedisCache redisCache)) {
+            return null;
+        }
+        if (redisShards.isSharded() && !redisShards.shardFor(BulkCacheOperations.rawKey(redisCache, productId)).equals(shard)) {
+            return null;
+        }
+        return redisCache;
+    }
+
+    /**
+     * channel dan pesan yang sama dengan NearCache.publishInvalidation, kosong kalau near cache mati
+     * atau entry cache ditulis terpisah (cache biasa sudah publish sendiri)
+     */
+    private void addInvalidation(List<byte[]> args, Cache cache, RedisCache redisCache, String productId) {
+        if (redisCache != null && cache instanceof NearCache && cacheManager instanceof NearCacheManager nearCacheManager) {
+            args.add(bytes(nearCacheProperties.getInvalidationChannel()));
+            args.add(bytes(NearCacheInvalidationListener.format(nearCacheManager.getInstanceId(), cache.getName(), productId)));
+        } else {
+            args.add(EMPTY);
+            args.add(EMPTY);
+        }
+    }
+
+    private void afterWrite(Cache cache, RedisCache redisCache, String productId, String key, Product product) {
+        replicaReads.written(key);
+        if (redisCache != null) {
+            replicaReads.written(BulkCacheOperations.rawKey(redisCache, productId));
+            CoalescingCache coalescing = DelegatingCache.find(cache, CoalescingCache.class);
+            if (coalescing != null) {
+                // entry ditulis script, bukan hasil loader, jadi tidak boleh ditimpa early refresh
+                coalescing.forget(productId);
+            }
+            WriteBehindCache writeBehind = DelegatingCache.find(cache, WriteBehindCache.class);
+            if (writeBehind != null) {
+                // entry pending dari put / evict sebelumnya akan menimpa yang baru ditulis script
+                if (product == null) {
+                    writeBehind.evictIfPending(productId);
+                } else {
+                    writeBehind.putIfPending(productId, product);
+                }
+            }
+            if (cache instanceof NearCache nearCache) {
+                if (product == null) {
+                    nearCache.invalidateLocal(productId);
+                } else {
+                    nearCache.putLocal(productId, product);
+                }
+            }
+        } else if (cache != null) {
+            if (product == null) {
+                cache.evict(productId);
+            } else {
+                cache.put(productId, product);
+            }
+        }
+    }
+
+    private static long cacheTimeToLive(RedisCache redisCache, String key, Object value) {
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? -1 : ttl.toMillis();
+    }
+
+    private String key(String productId) {
+        return keyspace + ":" + productId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    record Write(RedisShards.Shard shard, String key, String productId, Product product, Cache cache,
+                 RedisCache redisCache, List<String> keys, List<byte[]> args) {
+
+        /**
+         * true kalau entry cache ikut ditulis script, afterWrite tidak menyentuh redis
+         */
+        boolean colocated() {
+            return redisCache != null || cache == null;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.peppo.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metric;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.domain.geo.BoundingBox;
+import org.springframework.data.redis.domain.geo.GeoReference;
+import org.springframework.data.redis.domain.geo.Metrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Lokasi seller di geo set redis. Hasil pencarian di-cache lokal per geohash cell dari titik pusat dan
+ * bucket radius: satu GEOSEARCH di sekitar center cell dengan radius bucket + setengah diagonal cell
+ * mencakup semua pencarian yang pusatnya di cell itu, hasil per request tinggal difilter dan diurutkan lokal.
+ * Saat seller ditambah / dipindah hanya cell yang jangkauannya mencakup posisi lama atau baru yang dibuang,
+ * lalu posisi itu di-broadcast ke instance lain lewat pub/sub.
+ */
+@Slf4j
+@Component
+public class SellerLocator implements MessageListener {
+
+    private static final char SEPARATOR = '|';
+
+    private static final String ALL = "*";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final SellerLocatorProperties properties;
+
+    private final GeoGrid grid;
+
+    private final List<Integer> radiusBuckets;
+
+    private final Cache<String, List<RedisGeoCommands.GeoLocation<String>>> cells;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public SellerLocator(StringRedisTemplate redisTemplate, SellerLocatorProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.grid = new GeoGrid(properties.getCellPrecision());
+        this.radiusBuckets = properties.getRadiusBuckets().stream().sorted().toList();
+        this.cells = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTimeToLive())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * GEOADD per importBatchSize seller, semua batch dikirim dalam satu pipeline. Posisi lama seller yang
+     * dipindah tidak diketahui tanpa GEOPOS, jadi seluruh cache hasil pencarian dibuang
+     */
+    public void importSellers(Map<String, Point> sellers) {
+        if (sellers.isEmpty()) {
+            return;
+        }
+
+        byte[] key = bytes(properties.getKey());
+        List<Map.Entry<String, Point>> entries = new ArrayList<>(sellers.entrySet());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < entries.size(); from += properties.getImportBatchSize()) {
+                Map<byte[], Point> members = new LinkedHashMap<>();
+                for (Map.Entry<String, Point> entry : entries.subList(from,
+                        Math.min(from + properties.getImportBatchSize(), entries.size()))) {
+                    members.put(bytes(entry.getKey()), entry.getValue());
+                }
+                connection.geoCommands().geoAdd(key, members);
+            }
+            return null;
+        });
+
+        cells.invalidateAll();
+        publishInvalidation(ALL);
+    }
+
+    /**
+     * GEOPOS posisi lama dan GEOADD posisi baru dalam satu pipeline
+     */
+    public void saveSeller(String name, Point point) {
+        byte[] key = bytes(properties.getKey());
+        Point previous = previousPosition(redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            connection.geoCommands().geoPos(key, bytes(name));
+            connection.geoCommands().geoAdd(key, point, bytes(name));
+            return connection.closePipeline();
+        }));
+
+        List<Point> changed = previous == null ? List.of(point) : List.of(previous, point);
+        changed.forEach(this::invalidateAround);
+        publishInvalidation(format(changed));
+    }
+
+    public void removeSeller(String name) {
+        byte[] key = bytes(properties.getKey());
+        Point previous = previousPosition(redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            connection.geoCommands().geoPos(key, bytes(name));
+            connection.zSetCommands().zRem(key, bytes(name));
+            return connection.closePipeline();
+        }));
+
+        if (previous != null) {
+            invalidateAround(previous);
+            publishInvalidation(format(List.of(previous)));
+        }
+    }
+
+    /**
+     * seller dalam radius dari center, urut dari yang terdekat
+     */
+    public GeoResults<RedisGeoCommands.GeoLocation<String>> searchRadius(Point center, Distance radius) {
+        double radiusMeters = radius.in(Metrics.METERS).getValue();
+        Integer bucket = bucket(radiusMeters);
+        if (bucket == null) {
+            return redisTemplate.opsForGeo().search(properties.getKey(), GeoReference.fromCoordinate(center), radius,
+                    RedisGeoCommands.GeoSearchCommandArgs.newGeoSearchArgs().includeCoordinates().includeDistance().sortAscending());
+        }
+
+        return filter(candidates(center, bucket), center, radius.getMetric(),
+                location -> GeoGrid.distanceMeters(center, location.getPoint()) <= radiusMeters);
+    }
+
+    /**
+     * seller dalam kotak width x height yang berpusat di center, urut dari yang terdekat.
+     * cek di dalam kotak sama dengan GEOSEARCH BYBOX: jarak lintang dan jarak bujur di lintang seller
+     */
+    public GeoResults<RedisGeoCommands.GeoLocation<String>> searchBox(Point center, Distance width, Distance height) {
+        double halfWidth = width.in(Metrics.METERS).getValue() / 2;
+        double halfHeight = height.in(Metrics.METERS).getValue() / 2;
+        Integer bucket = bucket(Math.hypot(halfWidth, halfHeight));
+        if (bucket == null) {
+            return redisTemplate.opsForGeo().search(properties.getKey(), GeoReference.fromCoordinate(center),
+                    new BoundingBox(width, height),
+                    RedisGeoCommands.GeoSearchCommandArgs.newGeoSearchArgs().includeCoordinates().includeDistance().sortAscending());
+        }
+
+        return filter(candidates(center, bucket), center, width.getMetric(), location -> {
+            Point point = location.getPoint();
+            return GeoGrid.distanceMeters(center, new Point(center.getX(), point.getY())) <= halfHeight
+                    && GeoGrid.distanceMeters(new Point(center.getX(), point.getY()), point) <= halfWidth;
+        });
+    }
+
+    /**
+     * posisi dari instance lain, "*" berarti seluruh cache
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        if (separator < 0) {
+            log.warn("invalid seller invalidation message: {}", body);
+            return;
+        }
+        if (body.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+
+        String positions = body.substring(separator + 1);
+        if (ALL.equals(positions)) {
+            cells.invalidateAll();
+            return;
+        }
+        for (String position : positions.split(";")) {
+            int comma = position.indexOf(',');
+            invalidateAround(new Point(Double.parseDouble(position.substring(0, comma)),
+                    Double.parseDouble(position.substring(comma + 1))));
+        }
+    }
+
+    public long getCacheHits() {
+        return cells.stats().hitCount();
+    }
+
+    public long getCacheMisses() {
+        return cells.stats().missCount();
+    }
+
+    /**
+     * seller di sekitar cell dari center, dari cache atau satu GEOSEARCH kalau belum ada.
+     * miss bersamaan untuk cell yang sama hanya menjalankan satu GEOSEARCH
+     */
+    private List<RedisGeoCommands.GeoLocation<String>> candidates(Point center, int bucket) {
+        GeoGrid.Cell cell = grid.cellOf(center);
+        return cells.get(cacheKey(cell, bucket), key -> {
+            var results = redisTemplate.opsForGeo().search(properties.getKey(),
+                    GeoReference.fromCoordinate(grid.center(cell)),
+                    new Distance(bucket + grid.halfDiagonalMeters(cell), Metrics.METERS),
+                    RedisGeoCommands.GeoSearchCommandArgs.newGeoSearchArgs().includeCoordinates());
+            if (results == null) {
+                return List.of();
+            }
+            return results.getContent().stream().map(GeoResult::getContent).toList();
+        });
+    }
+
+    private GeoResults<RedisGeoCommands.GeoLocation<String>> filter(
+            List<RedisGeoCommands.GeoLocation<String>> candidates, Point center, Metric metric,
+            Predicate<RedisGeoCommands.GeoLocation<String>> matches) {
+        ToDoubleFunction<RedisGeoCommands.GeoLocation<String>> distance =
+                location -> GeoGrid.distanceMeters(center, location.getPoint());
+        List<GeoResult<RedisGeoCommands.GeoLocation<String>>> results = candidates.stream()
+                .filter(matches)
+                .sorted(Comparator.comparingDouble(distance))
+                .map(location -> new GeoResult<>(location,
+                        new Distance(distance.applyAsDouble(location), Metrics.METERS).in(metric)))
+                .toList();
+        return new GeoResults<>(results, metric);
+    }
+
+    private void invalidateAround(Point point) {
+        for (int bucket : radiusBuckets) {
+            for (GeoGrid.Cell cell : grid.cellsCovering(point, bucket)) {
+                cells.invalidate(cacheKey(cell, bucket));
+            }
+        }
+    }
+
+    private void publishInvalidation(String positions) {
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), instanceId + SEPARATOR + positions);
+        } catch (RuntimeException exception) {
+            // cache di instance lain tetap kadaluarsa sendiri setelah cache-time-to-live
+            log.warn("failed to publish seller invalidation {}", positions, exception);
+        }
+    }
+
+    private Integer bucket(double radiusMeters) {
+        for (int bucket : radiusBuckets) {
+            if (radiusMeters <= bucket) {
+                return bucket;
+            }
+        }
+        return null;
+    }
+
+    private String cacheKey(GeoGrid.Cell cell, int bucket) {
+        return grid.geohash(cell) + ":" + bucket;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Point previousPosition(List<Object> results) {
+        List<Point> positions = results == null ? null : (List<Point>) results.get(0);
+        return positions == null || positions.isEmpty() ? null : positions.get(0);
+    }
+
+    private static String format(List<Point> points) {
+        return String.join(";", points.stream().map(point -> point.getX() + "," + point.getY()).toList());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,38 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "sellers")
+public class SellerLocatorProperties {
+
+    private String key = "sellers";
+
+    /**
+     * presisi geohash cell untuk cache hasil pencarian, 6 = sekitar 1.2 x 0.6 km
+     */
+    private int cellPrecision = 6;
+
+    /**
+     * radius dibulatkan ke atas ke bucket terdekat (dalam meter), pencarian di atas bucket terbesar tidak di-cache
+     */
+    private List<Integer> radiusBuckets = List.of(1_000, 2_000, 5_000, 10_000);
+
+    private long cacheMaximumSize = 10_000;
+
+    /**
+     * batas maksimal hasil cache bisa stale kalau pesan invalidation hilang
+     */
+    private Duration cacheTimeToLive = Duration.ofSeconds(30);
+
+    /**
+     * jumlah seller per GEOADD saat import
+     */
+    private int importBatchSize = 1_000;
+
+    private String invalidationChannel = "seller-invalidation";
+}
@@ -0,0 +1,219 @@
+package com.peppo.redis;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.keyvalue.core.query.KeyValueQuery;
+import org.springframework.data.redis.core.PartialUpdate;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.convert.RedisConverter;
+import org.springframework.data.util.CloseableIterator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * RedisKeyValueAdapter yang menyimpan setiap entity di shard dari key &lt;keyspace&gt;:&lt;id&gt;. Setiap shard punya
+ * adapter biasa dengan set keyspace dan index-nya sendiri, operasi per id diteruskan ke satu shard sedangkan
+ * operasi per keyspace (findAll, count, deleteAll) dijalankan di semua shard lalu digabung.
+ */
+public class ShardedKeyValueAdapter extends RedisKeyValueAdapter {
+
+    private final RedisShards redisShards;
+
+    private final Map<RedisShards.Shard, RedisKeyValueAdapter> adapters = new LinkedHashMap<>();
+
+    public ShardedKeyValueAdapter(RedisShards redisShards, RedisConverter redisConverter) {
+        super(redisShards.getShards().get(0).redisTemplate(), redisConverter);
+        this.redisShards = redisShards;
+        for (RedisShards.Shard shard : redisShards.getShards()) {
+            adapters.put(shard, new RedisKeyValueAdapter(shard.redisTemplate(), redisConverter));
+        }
+    }
+
+    @Override
+    public Object put(Object id, Object item, String keyspace) {
+        return adapter(id, keyspace).put(id, item, keyspace);
+    }
+
+    @Override
+    public boolean contains(Object id, String keyspace) {
+        return adapter(id, keyspace).contains(id, keyspace);
+    }
+
+    @Override
+    public Object get(Object id, String keyspace) {
+        return adapter(id, keyspace).get(id, keyspace);
+    }
+
+    @Override
+    public <T> T get(Object id, String keyspace, Class<T> type) {
+        return adapter(id, keyspace).get(id, keyspace, type);
+    }
+
+    @Override
+    public Object delete(Object id, String keyspace) {
+        return adapter(id, keyspace).delete(id, keyspace);
+    }
+
+    @Override
+    public <T> T delete(Object id, String keyspace, Class<T> type) {
+        return adapter(id, keyspace).delete(id, keyspace, type);
+    }
+
+    @Override
+    public void update(PartialUpdate<?> update) {
+        adapter(update.getId(), getConverter().getMappingContext()
+                .getRequiredPersistentEntity(update.getTarget()).getKeySpace()).update(update);
+    }
+
+    @Override
+    public List<?> getAllOf(String keyspace) {
+        List<Object> all = new ArrayList<>();
+        all(adapter -> adapter.getAllOf(keyspace)).values().forEach(items -> items.forEach(all::add));
+        return all;
+    }
+
+    @Override
+    public <T> List<T> getAllOf(String keyspace, Class<T> type) {
+        return getAllOf(keyspace, type, -1, -1);
+    }
+
+    /**
+     * urutan SMEMBERS memang tidak stabil, jadi paging cukup dengan meminta offset + rows pertama dari
+     * setiap shard lalu memotong hasil gabungannya
+     */
+    @Override
+    public <T> List<T> getAllOf(String keyspace, Class<T> type, long offset, int rows) {
+        int limit = offset < 0 || rows < 0 ? -1 : (int) Math.min(offset + rows, Integer.MAX_VALUE);
+        List<T> all = new ArrayList<>();
+        all(adapter -> adapter.getAllOf(keyspace, type, 0, limit)).values().forEach(items -> items.forEach(all::add));
+        return page(all, offset, rows);
+    }
+
+    /**
+     * query dengan criteria (@Indexed) memakai SINTER / SUNION di index milik shard masing-masing
+     */
+    @Override
+    public <T> List<T> find(KeyValueQuery<?> query, String keyspace, Class<T> type) {
+        if (query.getCriteria() == null) {
+            return getAllOf(keyspace, type, query.getOffset(), query.getRows());
+        }
+
+        long offset = query.getOffset();
+        int rows = query.getRows();
+        List<T> all = new ArrayList<>();
+        all(adapter -> {
+            List<T> found = new ArrayList<>();
+            adapter.find(unpaged(query, offset, rows), keyspace, type).forEach(found::add);
+            return found;
+        }).values().forEach(all::addAll);
+        return page(all, offset, rows);
+    }
+
+    @Override
+    public long count(KeyValueQuery<?> query, String keyspace) {
+        if (query.getCriteria() == null) {
+            return count(keyspace);
+        }
+        return all(adapter -> adapter.count(query, keyspace)).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public long count(String keyspace) {
+        return all(adapter -> adapter.count(keyspace)).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public void deleteAllOf(String keyspace) {
+        all(adapter -> {
+            adapter.deleteAllOf(keyspace);
+            return null;
+        });
+    }
+
+    @Override
+    public CloseableIterator<Map.Entry<Object, Object>> entries(String keyspace) {
+        List<CloseableIterator<Map.Entry<Object, Object>>> iterators = new ArrayList<>();
+        adapters.values().forEach(adapter -> iterators.add(adapter.entries(keyspace)));
+        Iterator<CloseableIterator<Map.Entry<Object, Object>>> shards = iterators.iterator();
+
+        return new CloseableIterator<>() {
+
+            private CloseableIterator<Map.Entry<Object, Object>> current = shards.next();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && shards.hasNext()) {
+                    current = shards.next();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Map.Entry<Object, Object> next() {
+                hasNext();
+                return current.next();
+            }
+
+            @Override
+            public void close() {
+                iterators.forEach(CloseableIterator::close);
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        adapters.values().forEach(RedisKeyValueAdapter::clear);
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        super.setApplicationContext(applicationContext);
+        adapters.values().forEach(adapter -> adapter.setApplicationContext(applicationContext));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        adapters.values().forEach(RedisKeyValueAdapter::afterPropertiesSet);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        super.destroy();
+        for (RedisKeyValueAdapter adapter : adapters.values()) {
+            adapter.destroy();
+        }
+    }
+
+    private RedisKeyValueAdapter adapter(Object id, String keyspace) {
+        String key = keyspace + ":" + getConverter().getConversionService().convert(id, String.class);
+        return adapters.get(redisShards.shardFor(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private <R> Map<RedisShards.Shard, R> all(Function<RedisKeyValueAdapter, R> operation) {
+        return redisShards.parallel(adapters.keySet(), shard -> operation.apply(adapters.get(shard)));
+    }
+
+    private static <C> KeyValueQuery<C> unpaged(KeyValueQuery<C> query, long offset, int rows) {
+        KeyValueQuery<C> unpaged = new KeyValueQuery<>(query.getCriteria(), query.getSort());
+        if (offset >= 0 && rows >= 0) {
+            unpaged.setRows((int) Math.min(offset + rows, Integer.MAX_VALUE));
+        }
+        return unpaged;
+    }
+
+    private static <T> List<T> page(List<T> all, long offset, int rows) {
+        if (offset <= 0 && rows < 0) {
+            return all;
+        }
+        int from = (int) Math.min(Math.max(offset, 0), all.size());
+        int to = rows < 0 ? all.size() : (int) Math.min((long) from + rows, all.size());
+        return new ArrayList<>(all.subList(from, to));
+    }
+}
@@ -0,0 +1,108 @@
+package com.peppo.redis;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RedisCacheWriter yang meneruskan setiap key ke writer milik shard-nya. RedisCache di atasnya tidak berubah,
+ * jadi serializer, ttl dan statistik tetap dari RedisCacheConfiguration yang sama.
+ */
+public class ShardedRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisShards redisShards;
+
+    private final Map<RedisShards.Shard, RedisCacheWriter> writers;
+
+    public ShardedRedisCacheWriter(RedisShards redisShards) {
+        this.redisShards = redisShards;
+        this.writers = new LinkedHashMap<>();
+        for (RedisShards.Shard shard : redisShards.getShards()) {
+            writers.put(shard, RedisCacheWriter.nonLockingRedisCacheWriter(shard.connectionFactory()));
+        }
+    }
+
+    private ShardedRedisCacheWriter(RedisShards redisShards, Map<RedisShards.Shard, RedisCacheWriter> writers) {
+        this.redisShards = redisShards;
+        this.writers = writers;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return writer(key).get(name, key);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return writer(key).get(name, key, ttl);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return writer(key).retrieve(name, key, ttl);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        writer(key).put(name, key, value, ttl);
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return writer(key).store(name, key, value, ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return writer(key).putIfAbsent(name, key, value, ttl);
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        writer(key).remove(name, key);
+    }
+
+    /**
+     * pattern bisa cocok dengan key di shard mana pun, jadi dijalankan di semua shard
+     */
+    @Override
+    public void clean(String name, byte[] pattern) {
+        redisShards.parallel(writers.keySet(), shard -> {
+            writers.get(shard).clean(name, pattern);
+            return null;
+        });
+    }
+
+    /**
+     * collector yang sama dipasang di semua writer, jadi statistik cukup dibaca dari salah satunya
+     */
+    @Override
+    public void clearStatistics(String name) {
+        anyWriter().clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        Map<RedisShards.Shard, RedisCacheWriter> collecting = new LinkedHashMap<>();
+        writers.forEach((shard, writer) -> collecting.put(shard, writer.withStatisticsCollector(cacheStatisticsCollector)));
+        return new ShardedRedisCacheWriter(redisShards, collecting);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return anyWriter().getCacheStatistics(cacheName);
+    }
+
+    private RedisCacheWriter writer(byte[] key) {
+        return writers.get(redisShards.shardFor(key));
+    }
+
+    private RedisCacheWriter anyWriter() {
+        return writers.values().iterator().next();
+    }
+}
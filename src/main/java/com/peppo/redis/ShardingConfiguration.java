@@ -0,0 +1,108 @@
+package com.peppo.redis;
+
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.resource.ClientResources;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.convert.RedisConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ShardingConfiguration {
+
+    @Bean
+    public RedisShards redisShards(
+            ShardingProperties properties,
+            RedisProperties redisProperties,
+            LettuceConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate,
+            ClientResources clientResources,
+            @Value("${redis.pipeline.flush-after:128}") int flushAfter) {
+        if (!properties.isEnabled()) {
+            return RedisShards.single(connectionFactory, redisTemplate);
+        }
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("redis.sharding.nodes must not be empty when sharding is enabled");
+        }
+
+        List<RedisShards.Shard> shards = new ArrayList<>();
+        for (String node : properties.getNodes()) {
+            var shardFactory = new LettuceConnectionFactory(standaloneConfiguration(node, redisProperties),
+                    clientConfiguration(redisProperties, clientResources, null));
+            shardFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.buffered(flushAfter));
+            shardFactory.afterPropertiesSet();
+            shardFactory.start();
+            shards.add(new RedisShards.Shard(node, shardFactory, new StringRedisTemplate(shardFactory)));
+        }
+        return RedisShards.of(shards, properties.getVirtualNodes());
+    }
+
+    /**
+     * nama bean sama dengan adapter bawaan @EnableRedisRepositories, jadi adapter bawaan tidak didaftarkan
+     * dan ProductRepository memakai adapter ini
+     */
+    @Bean(name = "redisKeyValueAdapter")
+    @ConditionalOnProperty(prefix = "redis.sharding", name = "enabled", havingValue = "true")
+    public ShardedKeyValueAdapter redisKeyValueAdapter(RedisShards redisShards, RedisConverter redisConverter) {
+        return new ShardedKeyValueAdapter(redisShards, redisConverter);
+    }
+
+    static RedisStandaloneConfiguration standaloneConfiguration(String node, RedisProperties redisProperties) {
+        int separator = node.lastIndexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Redis node must be host:port but was " + node);
+        }
+
+        var configuration = new RedisStandaloneConfiguration(node.substring(0, separator),
+                Integer.parseInt(node.substring(separator + 1)));
+        configuration.setDatabase(redisProperties.getDatabase());
+        configuration.setUsername(redisProperties.getUsername());
+        if (redisProperties.getPassword() != null) {
+            configuration.setPassword(redisProperties.getPassword());
+        }
+        return configuration;
+    }
+
+    /**
+     * dipakai juga oleh ReplicaReadConfiguration, readFrom null berarti default lettuce (primary).
+     * pool hanya dipakai kalau spring.data.redis.lettuce.pool.enabled, sama dengan koneksi utama
+     */
+    static LettuceClientConfiguration clientConfiguration(RedisProperties redisProperties, ClientResources clientResources,
+                                                          ReadFrom readFrom) {
+        RedisProperties.Pool pool = redisProperties.getLettuce().getPool();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder;
+        if (Boolean.TRUE.equals(pool.getEnabled())) {
+            var poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(pool.getMaxActive());
+            poolConfig.setMaxIdle(pool.getMaxIdle());
+            poolConfig.setMinIdle(pool.getMinIdle());
+            if (pool.getMaxWait() != null) {
+                poolConfig.setMaxWait(pool.getMaxWait());
+            }
+            builder = LettucePoolingClientConfiguration.builder().poolConfig(poolConfig);
+        } else {
+            builder = LettuceClientConfiguration.builder();
+        }
+
+        builder.clientResources(clientResources);
+        if (readFrom != null) {
+            builder.readFrom(readFrom);
+        }
+        if (redisProperties.getTimeout() != null) {
+            builder.commandTimeout(redisProperties.getTimeout());
+        }
+        return builder.build();
+    }
+}
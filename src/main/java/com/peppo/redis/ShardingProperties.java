@@ -0,0 +1,28 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "redis.sharding")
+public class ShardingProperties {
+
+    /**
+     * redis cache (products), ProductRepository dan index-nya disebar ke nodes, sisanya (stream, pub/sub, lock)
+     * tetap di spring.data.redis.host
+     */
+    private boolean enabled = false;
+
+    /**
+     * daftar node standalone dalam format host:port, urutan tidak berpengaruh ke routing
+     */
+    private List<String> nodes = new ArrayList<>();
+
+    /**
+     * titik per node di ring, makin banyak makin rata pembagian key-nya
+     */
+    private int virtualNodes = 160;
+}
@@ -0,0 +1,36 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "cache.stampede")
+public class StampedeProperties {
+
+    /**
+     * satu load per key per instance untuk @Cacheable(sync = true)
+     */
+    private boolean enabled = true;
+
+    private Set<String> cacheNames = Set.of("products");
+
+    /**
+     * beta untuk probabilistic early refresh (XFetch), makin besar makin awal refresh-nya, 0 = mati
+     */
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * lock SET NX antar instance supaya hanya satu instance yang load key yang sama
+     */
+    private boolean lockEnabled = false;
+
+    private Duration lockTimeout = Duration.ofSeconds(5);
+
+    /**
+     * berapa lama instance yang tidak dapat lock menunggu value muncul sebelum load sendiri
+     */
+    private Duration lockWait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,129 @@
+package com.peppo.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Dedup untuk stream listener. Id yang belum pernah dilihat instance ini (bloom filter negatif) langsung
+ * diproses tanpa round trip tambahan, penandanya ditulis dengan SET NX di pipeline yang sama dengan XACK.
+ * Hanya id yang dicurigai duplikat (bloom filter positif) yang dicek dulu ke redis dengan SET NX.
+ */
+@Component
+public class StreamDeduplicator {
+
+    public enum Claim {
+
+        /**
+         * tidak ada di filter, penanda ditulis bersama XACK
+         */
+        NEW,
+
+        /**
+         * ada di filter tapi SET NX berhasil (false positive), penanda sudah ditulis
+         */
+        CLAIMED,
+
+        /**
+         * penanda sudah ada di redis, tidak perlu diproses lagi
+         */
+        DUPLICATE
+    }
+
+    private static final byte[] MARKER = "1".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final OrderDedupProperties properties;
+
+    private final RotatingBloomFilter filter;
+
+    private final Counter newCounter;
+
+    private final Counter duplicateCounter;
+
+    private final Counter falsePositiveCounter;
+
+    private final Counter lateDuplicateCounter;
+
+    public StreamDeduplicator(StringRedisTemplate redisTemplate, OrderDedupProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.filter = new RotatingBloomFilter(properties.getWindowSize(), properties.getFalsePositiveRate());
+        this.newCounter = counter(meterRegistry, "new");
+        this.duplicateCounter = counter(meterRegistry, "duplicate");
+        this.falsePositiveCounter = counter(meterRegistry, "false_positive");
+        this.lateDuplicateCounter = counter(meterRegistry, "late_duplicate");
+        Gauge.builder("stream.dedup.filter.false.positive.rate", filter, RotatingBloomFilter::getExpectedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("stream.dedup.filter.size", filter, RotatingBloomFilter::getSizeInBytes)
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Claim claim(String id) {
+        if (!filter.mightContain(id)) {
+            return Claim.NEW;
+        }
+
+        Boolean set = redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(key(id), MARKER, Expiration.from(properties.getKeyTimeToLive()), RedisStringCommands.SetOption.ifAbsent()));
+        if (Boolean.TRUE.equals(set)) {
+            falsePositiveCounter.increment();
+            return Claim.CLAIMED;
+        }
+        duplicateCounter.increment();
+        return Claim.DUPLICATE;
+    }
+
+    /**
+     * dipanggil kalau listener gagal setelah CLAIMED, supaya redelivery berikutnya tetap diproses
+     */
+    public void release(String id) {
+        redisTemplate.delete(properties.getKeyPrefix() + id);
+    }
+
+    /**
+     * XACK, ditambah SET NX penanda untuk id NEW, dalam satu pipeline
+     */
+    public void acknowledge(String stream, String group, RecordId recordId, String id, Claim claim) {
+        filter.put(id);
+        byte[] streamKey = stream.getBytes(StandardCharsets.UTF_8);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (claim == Claim.NEW) {
+                connection.stringCommands().set(key(id), MARKER, Expiration.from(properties.getKeyTimeToLive()),
+                        RedisStringCommands.SetOption.ifAbsent());
+            }
+            connection.streamCommands().xAck(streamKey, group, recordId);
+            return null;
+        });
+
+        if (claim == Claim.NEW) {
+            newCounter.increment();
+            if (Boolean.FALSE.equals(results.get(0))) {
+                // sudah diproses instance lain (atau sebelum restart), baru ketahuan setelah diproses ulang
+                lateDuplicateCounter.increment();
+            }
+        }
+    }
+
+    private byte[] key(String id) {
+        return (properties.getKeyPrefix() + id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("stream.dedup.messages").tag("result", result).register(meterRegistry);
+    }
+}
@@ -0,0 +1,183 @@
+package com.peppo.redis;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Penghitung unique visitor di HyperLogLog per menit, jam dan hari. Visitor id ditampung di memori per
+ * menit (id yang sama cukup sekali), lalu dikirim terjadwal sebagai PFADD per batch ke key menit dan
+ * PFMERGE ke key jam / hari dalam satu pipeline. Karena HLL union idempoten, merge berulang dari
+ * beberapa instance tetap menghasilkan hitungan yang sama.
+ */
+@Slf4j
+@Component
+public class TrafficCounter {
+
+    private static final int STRIPES = 16;
+
+    private static final DateTimeFormatter MINUTE = DateTimeFormatter.ofPattern("yyyyMMddHHmm").withZone(ZoneOffset.UTC);
+
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyyMMddHH").withZone(ZoneOffset.UTC);
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final TrafficCounterProperties properties;
+
+    /**
+     * (menit, stripe) -&gt; id, set hanya diubah di dalam compute jadi aman diambil dengan remove
+     */
+    private final Map<Bucket, Set<String>> buffer = new ConcurrentHashMap<>();
+
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    private final LongAdder recorded = new LongAdder();
+
+    private final LongAdder commands = new LongAdder();
+
+    public TrafficCounter(StringRedisTemplate redisTemplate, TrafficCounterProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    public void record(String visitorId) {
+        record(visitorId, Instant.now());
+    }
+
+    public void record(String visitorId, Instant at) {
+        recorded.increment();
+        var bucket = new Bucket(at.getEpochSecond() / 60, visitorId.hashCode() & (STRIPES - 1));
+        buffer.compute(bucket, (key, ids) -> {
+            Set<String> set = ids == null ? new HashSet<>() : ids;
+            if (set.add(visitorId)) {
+                buffered.incrementAndGet();
+            }
+            return set;
+        });
+
+        if (buffered.get() >= properties.getMaxBuffered()) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${traffic.flush-interval:1000}")
+    public synchronized void flush() {
+        Map<Long, List<String>> minutes = new HashMap<>();
+        for (Bucket bucket : buffer.keySet()) {
+            Set<String> ids = buffer.remove(bucket);
+            if (ids != null) {
+                buffered.addAndGet(-ids.size());
+                minutes.computeIfAbsent(bucket.minute(), minute -> new ArrayList<>()).addAll(ids);
+            }
+        }
+        if (minutes.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                Set<Instant> hours = new LinkedHashSet<>();
+                minutes.forEach((minute, ids) -> {
+                    Instant at = Instant.ofEpochSecond(minute * 60);
+                    byte[] minuteKey = bytes(key(ChronoUnit.MINUTES, at));
+                    for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+                        connection.hyperLogLogCommands().pfAdd(minuteKey, ids.subList(from,
+                                Math.min(from + properties.getBatchSize(), ids.size())).stream().map(TrafficCounter::bytes).toArray(byte[][]::new));
+                    }
+                    connection.keyCommands().expire(minuteKey, properties.getMinuteTimeToLive().toSeconds());
+
+                    // menit -> jam, key jam ikut jadi sumber supaya isi sebelumnya tidak hilang
+                    byte[] hourKey = bytes(key(ChronoUnit.HOURS, at));
+                    connection.hyperLogLogCommands().pfMerge(hourKey, hourKey, minuteKey);
+                    connection.keyCommands().expire(hourKey, properties.getHourTimeToLive().toSeconds());
+                    hours.add(at.truncatedTo(ChronoUnit.HOURS));
+                });
+                for (Instant hour : hours) {
+                    byte[] hourKey = bytes(key(ChronoUnit.HOURS, hour));
+                    byte[] dayKey = bytes(key(ChronoUnit.DAYS, hour));
+                    connection.hyperLogLogCommands().pfMerge(dayKey, dayKey, hourKey);
+                    connection.keyCommands().expire(dayKey, properties.getDayTimeToLive().toSeconds());
+                }
+                return null;
+            });
+            commands.add(results.size());
+        } catch (RuntimeException exception) {
+            // id yang gagal dikirim dibuang, hitungan kurang sedikit lebih baik dari buffer yang terus membesar
+            log.warn("failed to flush {} traffic buckets", minutes.size(), exception);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    /**
+     * jumlah unique visitor di menit / jam / hari yang memuat at, yang masih di buffer belum terhitung
+     */
+    public long count(ChronoUnit unit, Instant at) {
+        Long count = redisTemplate.opsForHyperLogLog().size(key(unit, at));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * unique visitor gabungan beberapa periode, misalnya beberapa hari sekaligus
+     */
+    public long countUnion(ChronoUnit unit, Instant from, Instant to) {
+        List<String> keys = new ArrayList<>();
+        for (Instant at = from.truncatedTo(unit); !at.isAfter(to); at = at.plus(1, unit)) {
+            keys.add(key(unit, at));
+        }
+        Long count = redisTemplate.opsForHyperLogLog().size(keys.toArray(String[]::new));
+        return count == null ? 0 : count;
+    }
+
+    public String key(ChronoUnit unit, Instant at) {
+        return switch (unit) {
+            case MINUTES -> properties.getKeyPrefix() + ":m:" + MINUTE.format(at);
+            case HOURS -> properties.getKeyPrefix() + ":h:" + HOUR.format(at);
+            case DAYS -> properties.getKeyPrefix() + ":d:" + DAY.format(at);
+            default -> throw new IllegalArgumentException("Unsupported traffic bucket: " + unit);
+        };
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    public long getCommands() {
+        return commands.sum();
+    }
+
+    public int getBuffered() {
+        return buffered.get();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Bucket(long minute, int stripe) {
+    }
+}
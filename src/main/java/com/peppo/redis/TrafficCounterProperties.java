@@ -0,0 +1,32 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "traffic")
+public class TrafficCounterProperties {
+
+    /**
+     * key menjadi &lt;prefix&gt;:m:yyyyMMddHHmm, &lt;prefix&gt;:h:yyyyMMddHH dan &lt;prefix&gt;:d:yyyyMMdd (UTC)
+     */
+    private String keyPrefix = "traffics";
+
+    /**
+     * jumlah visitor id per PFADD
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * kalau id yang belum di-flush melebihi ini, pemanggil record ikut flush
+     */
+    private int maxBuffered = 100_000;
+
+    private Duration minuteTimeToLive = Duration.ofHours(2);
+
+    private Duration hourTimeToLive = Duration.ofDays(2);
+
+    private Duration dayTimeToLive = Duration.ofDays(35);
+}
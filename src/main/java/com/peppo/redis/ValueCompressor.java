@@ -0,0 +1,167 @@
+package com.peppo.redis;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Kompresi deflate untuk value cache, repository dan stream. Value terkompresi ditulis sebagai
+ * [MAGIC][panjang asli 4 byte][deflate], value lain tetap apa adanya jadi data lama dan baru bisa dibaca
+ * bersamaan. MAGIC tidak bentrok dengan awal jdk serialization (0xAC), BinaryRedisSerializer (0xB1)
+ * maupun byte versi EntityCodec. Hasil yang tidak lebih kecil dari aslinya tidak dipakai.
+ */
+@Component
+public class ValueCompressor {
+
+    static final byte MAGIC = (byte) 0xC1;
+
+    private static final int HEADER_LENGTH = 5;
+
+    private final CompressionProperties properties;
+
+    private final LongAdder attempts = new LongAdder();
+
+    private final LongAdder compressed = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private final LongAdder decompressed = new LongAdder();
+
+    private final LongAdder originalBytes = new LongAdder();
+
+    private final LongAdder compressedBytes = new LongAdder();
+
+    private final LongAdder compressNanos = new LongAdder();
+
+    private final LongAdder decompressNanos = new LongAdder();
+
+    public ValueCompressor(CompressionProperties properties) {
+        this.properties = properties;
+    }
+
+    public byte[] compress(byte[] value) {
+        if (value == null || !properties.isEnabled()) {
+            return value;
+        }
+        if (value.length < properties.getThreshold()) {
+            skipped.increment();
+            return value;
+        }
+
+        attempts.increment();
+        long start = System.nanoTime();
+        Deflater deflater = new Deflater(properties.getLevel());
+        try {
+            deflater.setInput(value);
+            deflater.finish();
+            // hanya dipakai kalau lebih kecil, jadi buffer seukuran value asli sudah cukup
+            byte[] buffer = new byte[value.length];
+            buffer[0] = MAGIC;
+            buffer[1] = (byte) (value.length >>> 24);
+            buffer[2] = (byte) (value.length >>> 16);
+            buffer[3] = (byte) (value.length >>> 8);
+            buffer[4] = (byte) value.length;
+            int length = HEADER_LENGTH;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                skipped.increment();
+                return value;
+            }
+
+            compressed.increment();
+            originalBytes.add(value.length);
+            compressedBytes.add(length);
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+            compressNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public byte[] decompress(byte[] value) {
+        if (!isCompressed(value)) {
+            return value;
+        }
+
+        long start = System.nanoTime();
+        Inflater inflater = new Inflater();
+        try {
+            int length = (value[1] & 0xFF) << 24 | (value[2] & 0xFF) << 16 | (value[3] & 0xFF) << 8 | (value[4] & 0xFF);
+            byte[] result = new byte[length];
+            inflater.setInput(value, HEADER_LENGTH, value.length - HEADER_LENGTH);
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(result, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            // finished() baru true setelah checksum adler32 di akhir stream terbaca
+            if (read != length || !inflater.finished()) {
+                throw new IllegalArgumentException("Truncated compressed value, expected " + length + " bytes but got " + read);
+            }
+            decompressed.increment();
+            return result;
+        } catch (DataFormatException exception) {
+            throw new IllegalArgumentException("Invalid compressed value", exception);
+        } finally {
+            inflater.end();
+            decompressNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public static boolean isCompressed(byte[] value) {
+        return value != null && value.length > HEADER_LENGTH && value[0] == MAGIC;
+    }
+
+    /**
+     * jumlah value yang di-deflate, termasuk yang hasilnya tidak dipakai karena tidak lebih kecil
+     */
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    public long getCompressed() {
+        return compressed.sum();
+    }
+
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public long getDecompressed() {
+        return decompressed.sum();
+    }
+
+    public long getOriginalBytes() {
+        return originalBytes.sum();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * ukuran terkompresi dibagi ukuran asli untuk semua value yang dikompresi, 1 kalau belum ada
+     */
+    public double getCompressionRatio() {
+        long original = originalBytes.sum();
+        return original == 0 ? 1 : (double) compressedBytes.sum() / original;
+    }
+
+    public long getCompressNanos() {
+        return compressNanos.sum();
+    }
+
+    public long getDecompressNanos() {
+        return decompressNanos.sum();
+    }
+}
@@ -0,0 +1,359 @@
+package com.peppo.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Menunda put / evict ke cache di dalamnya: hanya perubahan terakhir per key yang disimpan di memori,
+ * lalu WriteBehindFlusher menulisnya dalam pipeline per batch. get dari instance ini langsung melihat
+ * perubahan yang belum ter-flush, flushListener dipanggil setelah batch tertulis. Jumlah key yang belum tertulis dibatasi maxPending, put untuk key baru
+ * block saat penuh lalu ditolak setelah offerTimeout.
+ */
+@Slf4j
+public class WriteBehindCache implements DelegatingCache {
+
+    private static final Object EVICTED = new Object();
+
+    private final Cache delegate;
+
+    private final WriteBehindProperties properties;
+
+    private final BulkCacheOperations bulkCacheOperations;
+
+    private final Runnable batchFull;
+
+    // put / evict ke sini tidak sampai ke CoalescingCache.put, flush menulis lewat BulkCacheOperations
+    private final CoalescingCache coalescing;
+
+    private final ConcurrentMap<Object, Object> pending = new ConcurrentHashMap<>();
+
+    // sudah diambil dari pending tapi pipeline-nya belum selesai, tetap terbaca dari sini
+    private final ConcurrentMap<Object, Object> inFlight = new ConcurrentHashMap<>();
+
+    private final Semaphore capacity;
+
+    // dipanggil dengan key yang baru tertulis ke redis, NearCache mem-broadcast invalidation dari sini
+    private volatile Consumer<Collection<String>> flushListener = keys -> {
+    };
+
+    private final LongAdder writes = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile boolean stopped;
+
+    public WriteBehindCache(Cache delegate, WriteBehindProperties properties, BulkCacheOperations bulkCacheOperations,
+                            Runnable batchFull) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.bulkCacheOperations = bulkCacheOperations;
+        this.batchFull = batchFull;
+        this.coalescing = DelegatingCache.find(delegate, CoalescingCache.class);
+        this.capacity = new Semaphore(properties.getMaxPending());
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object stored = lookup(key);
+        if (stored == null) {
+            return delegate.get(key);
+        }
+        return stored == EVICTED ? null : new SimpleValueWrapper(fromStored(stored));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = lookup(key);
+        if (stored == null) {
+            return delegate.get(key, valueLoader);
+        }
+        if (stored != EVICTED) {
+            return (T) fromStored(stored);
+        }
+
+        // value lama masih ada di redis sampai DEL-nya ter-flush, jadi load tanpa lewat delegate
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        write(key, value == null ? NullValue.INSTANCE : value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        write(key, EVICTED);
+    }
+
+    /**
+     * perubahan pending dibuang, yang sedang di-flush tetap ditulis
+     */
+    @Override
+    public void clear() {
+        for (Object key : pending.keySet()) {
+            if (pending.remove(key) != null) {
+                capacity.release();
+            }
+        }
+        delegate.clear();
+    }
+
+    /**
+     * menulis semua key pending per batchSize key, dipanggil WriteBehindFlusher
+     */
+    synchronized void flush() {
+        List<Object> keys = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < keys.size(); from += properties.getBatchSize()) {
+            flush(keys.subList(from, Math.min(from + properties.getBatchSize(), keys.size())));
+        }
+    }
+
+    void setFlushListener(Consumer<Collection<String>> flushListener) {
+        this.flushListener = flushListener;
+    }
+
+    /**
+     * setelah flush terakhir saat shutdown put / evict langsung diteruskan ke delegate
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * dipakai jalur bulk yang membaca redis sendiri, key yang pending tidak boleh dibaca dari redis
+     */
+    boolean isPending(Object key) {
+        return lookup(key) != null;
+    }
+
+    /**
+     * @return value pending, null kalau key tidak pending atau pending untuk di-evict
+     */
+    ValueWrapper getPending(Object key) {
+        Object stored = lookup(key);
+        return stored == null || stored == EVICTED ? null : new SimpleValueWrapper(fromStored(stored));
+    }
+
+    /**
+     * dipakai jalur yang menghapus key langsung di redis (BulkCacheOperations.evictAll), put pending atau yang
+     * sedang di-flush untuk key ini diganti evict supaya value lama tidak tertulis lagi setelahnya
+     */
+    void evictIfPending(Object key) {
+        if (lookup(key) != null) {
+            write(key, EVICTED);
+        }
+    }
+
+    /**
+     * dipakai jalur yang menulis key langsung di redis (ScriptedProductWriter), perubahan pending atau yang
+     * sedang di-flush untuk key ini diganti value baru supaya flush berikutnya tidak mengembalikan value lama
+     */
+    void putIfPending(Object key, Object value) {
+        if (lookup(key) != null) {
+            write(key, value == null ? NullValue.INSTANCE : value);
+        }
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getFlushed() {
+        return flushed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int getPendingSize() {
+        return properties.getMaxPending() - capacity.availablePermits();
+    }
+
+    private void write(Object key, Object stored) {
+        if (coalescing != null) {
+            coalescing.forget(key);
+        }
+        if (stopped) {
+            // tunggu flush yang sedang jalan, lalu buang value pending yang lebih lama supaya flush terakhir
+            // di WriteBehindFlusher.stop tidak menimpa value yang ditulis langsung ini
+            synchronized (this) {
+                if (pending.remove(key) != null) {
+                    capacity.release();
+                }
+                if (stored == EVICTED) {
+                    delegate.evict(key);
+                } else {
+                    delegate.put(key, fromStored(stored));
+                }
+            }
+            flushListener.accept(List.of(String.valueOf(key)));
+            return;
+        }
+
+        writes.increment();
+        if (pending.replace(key, stored) != null) {
+            coalesced.increment();
+            return;
+        }
+
+        try {
+            if (!capacity.tryAcquire(properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new RejectedExecutionException("write-behind buffer of cache " + getName() + " is full");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for write-behind buffer", exception);
+        }
+
+        if (pending.put(key, stored) != null) {
+            // key yang sama baru saja masuk dari thread lain
+            capacity.release();
+            coalesced.increment();
+        } else if (pending.size() >= properties.getBatchSize()) {
+            batchFull.run();
+        }
+    }
+
+    private void flush(List<Object> keys) {
+        Map<Object, Object> batch = new LinkedHashMap<>();
+        for (Object key : keys) {
+            Object stored = take(key);
+            if (stored != null) {
+                batch.put(key, stored);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> puts = new LinkedHashMap<>();
+        List<String> evicts = new ArrayList<>();
+        batch.forEach((key, stored) -> {
+            if (stored == EVICTED) {
+                evicts.add(String.valueOf(key));
+            } else {
+                puts.put(String.valueOf(key), fromStored(stored));
+            }
+        });
+
+        try {
+            bulkCacheOperations.putAll(delegate, puts);
+            bulkCacheOperations.evictAll(delegate, evicts);
+            flushed.add(batch.size());
+            batch.forEach((key, stored) -> {
+                inFlight.remove(key, stored);
+                capacity.release();
+            });
+        } catch (RuntimeException exception) {
+            log.error("failed to flush {} write-behind entries of cache {}", batch.size(), getName(), exception);
+            failed.add(batch.size());
+            // dicoba lagi di flush berikutnya, kecuali key-nya sudah diubah lagi selama flush
+            batch.forEach((key, stored) -> {
+                if (pending.putIfAbsent(key, stored) != null) {
+                    capacity.release();
+                }
+                inFlight.remove(key, stored);
+            });
+            return;
+        }
+
+        List<String> written = new ArrayList<>(puts.keySet());
+        written.addAll(evicts);
+        flushListener.accept(written);
+    }
+
+    /**
+     * pindahkan key dari pending ke inFlight tanpa celah di mana key tidak terbaca dari keduanya
+     */
+    private Object take(Object key) {
+        while (true) {
+            Object stored = pending.get(key);
+            if (stored == null) {
+                return null;
+            }
+            inFlight.put(key, stored);
+            if (pending.remove(key, stored)) {
+                return stored;
+            }
+        }
+    }
+
+    private Object lookup(Object key) {
+        Object stored = pending.get(key);
+        return stored != null ? stored : inFlight.get(key);
+    }
+
+    private static Object fromStored(Object stored) {
+        return stored == NullValue.INSTANCE ? null : stored;
+    }
+}
@@ -0,0 +1,52 @@
+package com.peppo.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class WriteBehindCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final WriteBehindProperties properties;
+
+    private final WriteBehindFlusher flusher;
+
+    private final ConcurrentMap<String, WriteBehindCache> caches = new ConcurrentHashMap<>();
+
+    public WriteBehindCacheManager(CacheManager delegate, WriteBehindProperties properties, WriteBehindFlusher flusher) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.flusher = flusher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!properties.getCacheNames().contains(name)) {
+            return delegate.getCache(name);
+        }
+
+        WriteBehindCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = delegate.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> flusher.wrap(remote));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,94 @@
+package com.peppo.redis;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Satu thread yang mem-flush semua WriteBehindCache setiap flushInterval, atau lebih cepat begitu salah satu
+ * cache punya batchSize key pending. Saat shutdown semua yang masih pending di-flush sebelum koneksi redis ditutup.
+ */
+@Slf4j
+@Component
+public class WriteBehindFlusher {
+
+    private final WriteBehindProperties properties;
+
+    // di-inject di sini supaya bean redis baru di-destroy setelah flush terakhir di stop()
+    private final BulkCacheOperations bulkCacheOperations;
+
+    private final List<WriteBehindCache> caches = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+
+    private volatile Thread flusher;
+
+    public WriteBehindFlusher(WriteBehindProperties properties, BulkCacheOperations bulkCacheOperations) {
+        this.properties = properties;
+        this.bulkCacheOperations = bulkCacheOperations;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(this::run, "write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join();
+        caches.forEach(WriteBehindCache::stop);
+        flush();
+
+        int lost = caches.stream().mapToInt(WriteBehindCache::getPendingSize).sum();
+        if (lost > 0) {
+            log.error("{} write-behind entries were not written to redis", lost);
+        }
+    }
+
+    public WriteBehindCache wrap(Cache cache) {
+        WriteBehindCache writeBehind = new WriteBehindCache(cache, properties, bulkCacheOperations, this::wakeUp);
+        caches.add(writeBehind);
+        return writeBehind;
+    }
+
+    public void flush() {
+        caches.forEach(WriteBehindCache::flush);
+    }
+
+    private void wakeUp() {
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(properties.getFlushInterval().toNanos());
+            try {
+                flush();
+            } catch (RuntimeException exception) {
+                log.error("failed to flush write-behind caches", exception);
+            }
+        }
+    }
+}
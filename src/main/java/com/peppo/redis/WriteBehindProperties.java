@@ -0,0 +1,39 @@
+package com.peppo.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "cache.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * put / evict ke redis ditunda dan digabung per key, bukan langsung seperti @CachePut biasa
+     */
+    private boolean enabled = false;
+
+    /**
+     * nama cache yang ditulis secara write-behind, key-nya harus String
+     */
+    private Set<String> cacheNames = Set.of("products");
+
+    /**
+     * jumlah maksimal key yang belum tertulis ke redis (termasuk yang sedang di-flush)
+     */
+    private int maxPending = 10_000;
+
+    /**
+     * jumlah maksimal key dalam satu pipeline, flush juga langsung jalan begitu key pending sebanyak ini
+     */
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    /**
+     * berapa lama put() boleh block saat buffer penuh sebelum ditolak
+     */
+    private Duration offerTimeout = Duration.ofSeconds(1);
+}
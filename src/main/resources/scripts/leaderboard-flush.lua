@@ -0,0 +1,11 @@
+-- ZINCRBY untuk semua delta yang terkumpul dalam satu flush. script jalan atomik, jadi tidak ada batch yang
+-- setengah diterapkan; command yang gagal (misalnya key bukan sorted set) dilewati dan posisinya dikembalikan
+-- KEYS[i] board, ARGV[2i-1] member, ARGV[2i] delta
+local failed = {}
+for i = 1, #KEYS do
+    local result = redis.pcall('ZINCRBY', KEYS[i], ARGV[2 * i], ARGV[2 * i - 1])
+    if type(result) == 'table' and result.err then
+        failed[#failed + 1] = i
+    end
+end
+return failed
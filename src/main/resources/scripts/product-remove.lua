@@ -0,0 +1,19 @@
+-- hapus product, index range, entry cache products dan invalidation near cache dalam satu round trip
+-- KEYS[1] products:<id>, KEYS[2] set keyspace, KEYS[3..2+n] key index, KEYS[3+n] key cache (opsional)
+-- ARGV[1] id, ARGV[2] n, ARGV[3] channel invalidation ('' = tidak publish), ARGV[4] pesan invalidation
+local indexes = tonumber(ARGV[2])
+
+local removed = redis.call('DEL', KEYS[1])
+redis.call('SREM', KEYS[2], ARGV[1])
+for i = 1, indexes do
+    redis.call('ZREM', KEYS[2 + i], ARGV[1])
+end
+
+local cache = KEYS[3 + indexes]
+if cache then
+    redis.call('DEL', cache)
+end
+if ARGV[3] ~= '' then
+    redis.call('PUBLISH', ARGV[3], ARGV[4])
+end
+return removed
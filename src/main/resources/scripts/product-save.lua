@@ -0,0 +1,39 @@
+-- simpan product, index range, entry cache products dan invalidation near cache dalam satu round trip
+-- KEYS[1] products:<id>, KEYS[2] set keyspace, KEYS[3..2+n] key index, KEYS[3+n] key cache (opsional)
+-- ARGV[1] id, ARGV[2] n, ARGV[3] ttl hash dalam detik (<= 0 = permanen), ARGV[4] value cache,
+-- ARGV[5] ttl cache dalam ms (<= 0 = permanen), ARGV[6] channel invalidation ('' = tidak publish),
+-- ARGV[7] pesan invalidation, ARGV[8..7+n] score index ('' = dibuang dari index),
+-- sisanya pasangan field/value hash
+local indexes = tonumber(ARGV[2])
+local fields = 8 + indexes
+
+redis.call('DEL', KEYS[1])
+if #ARGV > fields then
+    redis.call('HSET', KEYS[1], unpack(ARGV, fields))
+end
+redis.call('SADD', KEYS[2], ARGV[1])
+if tonumber(ARGV[3]) > 0 then
+    redis.call('EXPIRE', KEYS[1], ARGV[3])
+end
+
+for i = 1, indexes do
+    local score = ARGV[7 + i]
+    if score == '' then
+        redis.call('ZREM', KEYS[2 + i], ARGV[1])
+    else
+        redis.call('ZADD', KEYS[2 + i], score, ARGV[1])
+    end
+end
+
+local cache = KEYS[3 + indexes]
+if cache then
+    if tonumber(ARGV[5]) > 0 then
+        redis.call('SET', cache, ARGV[4], 'PX', ARGV[5])
+    else
+        redis.call('SET', cache, ARGV[4])
+    end
+end
+if ARGV[6] ~= '' then
+    redis.call('PUBLISH', ARGV[6], ARGV[7])
+end
+return 1
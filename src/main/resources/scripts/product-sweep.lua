@@ -0,0 +1,16 @@
+-- buang id dari set keyspace dan index range, hanya kalau hash-nya memang sudah tidak ada.
+-- dicek ulang di sini supaya product yang disimpan lagi setelah EXISTS di pipeline tidak ikut terbuang
+-- KEYS[1] set keyspace, KEYS[2..1+n] key index, KEYS[2+n..] products:<id> sesuai urutan id
+-- ARGV[1] n, ARGV[2..] id
+local indexes = tonumber(ARGV[1])
+
+local removed = 0
+for i = 2, #ARGV do
+    if redis.call('EXISTS', KEYS[indexes + i]) == 0 then
+        removed = removed + redis.call('SREM', KEYS[1], ARGV[i])
+        for j = 1, indexes do
+            redis.call('ZREM', KEYS[1 + j], ARGV[i])
+        end
+    end
+end
+return removed
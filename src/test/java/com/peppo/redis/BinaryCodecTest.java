@@ -0,0 +1,62 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "codec.format=binary")
+public class BinaryCodecTest {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private OrderRecordMapper orderRecordMapper;
+
+    @Test
+    void testRepository() {
+        Product product = Product.builder().id("B-1").name("Shampoo").price(50_000L).ttl(-1L).build();
+        productRepository.save(product);
+
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries("products:B-1");
+        assertTrue(entries.containsKey("_raw"));
+        assertFalse(entries.containsKey("name"));
+
+        assertEquals(product, productRepository.findById("B-1").orElseThrow());
+        productRepository.deleteById("B-1");
+    }
+
+    @Test
+    void testCache() {
+        var cache = cacheManager.getCache("products");
+        Product product = Product.builder().id("B-2").name("Ikan").price(15_000L).build();
+        cache.put("B-2", product);
+        cache.put("B-3", 100);
+
+        assertEquals(product, cache.get("B-2", Product.class));
+        assertEquals(100, cache.get("B-3", Integer.class));
+        cache.evict("B-2");
+        cache.evict("B-3");
+    }
+
+    @Test
+    void testStreamMapper() {
+        Order order = new Order("O-1", 1000L);
+        Map<byte[], byte[]> hash = orderRecordMapper.toHash(order);
+
+        assertEquals(1, hash.size());
+        assertEquals(order, orderRecordMapper.fromHash(hash));
+    }
+}
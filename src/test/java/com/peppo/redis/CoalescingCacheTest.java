@@ -0,0 +1,199 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingCacheTest {
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        var properties = new StampedeProperties();
+        var cache = new CoalescingCache(new ConcurrentMapCache("products"), properties, Duration.ofSeconds(60),
+                null, new SyncTaskExecutor(), () -> null, () -> null);
+        var calls = new AtomicInteger();
+        var start = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (var executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("P-001", () -> {
+                        calls.incrementAndGet();
+                        Thread.sleep(200);
+                        return "contoh";
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertEquals("contoh", result.get());
+            }
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getLoads());
+        assertEquals(15, cache.getCoalescedWaits());
+    }
+
+    @Test
+    void testGetAllWaitsForInFlightLoad() throws Exception {
+        var cache = new CoalescingCache(new ConcurrentMapCache("products"), new StampedeProperties(),
+                Duration.ofSeconds(60), null, new SyncTaskExecutor(), () -> null, () -> null);
+        var loading = new CountDownLatch(1);
+        var batches = new ArrayList<List<String>>();
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            Future<String> single = executor.submit(() -> cache.get("P-001", () -> {
+                loading.countDown();
+                Thread.sleep(200);
+                return "single";
+            }));
+            loading.await();
+
+            Map<String, Object> values = cache.getAll(List.of("P-001", "P-002"), ids -> {
+                batches.add(ids);
+                return Map.of("P-002", "batch");
+            });
+
+            assertEquals("single", single.get());
+            assertEquals(Map.of("P-001", "single", "P-002", "batch"), values);
+        }
+
+        assertEquals(List.of(List.of("P-002")), batches);
+        assertEquals(2, cache.getLoads());
+        assertEquals(1, cache.getCoalescedWaits());
+    }
+
+    @Test
+    void testEarlyRefresh() throws Exception {
+        var properties = new StampedeProperties();
+        properties.setEarlyRefreshBeta(1_000_000);
+        var version = new AtomicInteger();
+        var cache = new CoalescingCache(new ConcurrentMapCache("products"), properties, Duration.ofSeconds(1),
+                null, new SyncTaskExecutor(), () -> loader(key -> version.incrementAndGet()), () -> null);
+
+        assertEquals(1, cache.get("P-001", () -> {
+            Thread.sleep(5);
+            return version.incrementAndGet();
+        }));
+
+        // beta besar: refresh hampir pasti terjadi walaupun TTL masih jauh, lewat loader cache, bukan valueLoader ini
+        Integer value = cache.get("P-001", () -> fail("valueLoader must not be used for refresh"));
+        assertEquals(1, value);
+        assertEquals(1, cache.getEarlyRefreshes());
+        assertEquals(2, cache.get("P-001", Integer.class));
+    }
+
+    @Test
+    void testExplicitPutNotRefreshed() throws Exception {
+        var properties = new StampedeProperties();
+        properties.setEarlyRefreshBeta(1_000_000);
+        var cache = new CoalescingCache(new ConcurrentMapCache("products"), properties, Duration.ofSeconds(1),
+                null, new SyncTaskExecutor(), () -> loader(key -> "dari loader"), () -> null);
+
+        cache.get("P-001", () -> {
+            Thread.sleep(5);
+            return "lama";
+        });
+        cache.put("P-001", "disimpan");
+
+        assertEquals("disimpan", cache.get("P-001", () -> fail("already cached")));
+        assertEquals(0, cache.getEarlyRefreshes());
+        assertEquals("disimpan", cache.get("P-001", String.class));
+    }
+
+    @Test
+    void testEarlyRefreshWritesThroughTarget() throws Exception {
+        var properties = new StampedeProperties();
+        properties.setEarlyRefreshBeta(1_000_000);
+        var targetPuts = new ArrayList<Object>();
+        var holder = new CoalescingCache[1];
+        // pengganti NearCache di luar: put diteruskan ke rantai di dalamnya
+        var outer = new ConcurrentMapCache("products") {
+            @Override
+            public void put(Object key, Object value) {
+                targetPuts.add(key);
+                holder[0].put(key, value);
+            }
+        };
+        var version = new AtomicInteger();
+        holder[0] = new CoalescingCache(new ConcurrentMapCache("products"), properties, Duration.ofSeconds(1),
+                null, new SyncTaskExecutor(), () -> loader(key -> {
+                    // load sama lambatnya dengan load pertama supaya refresh berikutnya tetap terpicu
+                    LockSupport.parkNanos(5_000_000);
+                    return version.incrementAndGet();
+                }), () -> outer);
+        var cache = holder[0];
+
+        cache.get("P-001", () -> {
+            Thread.sleep(5);
+            return version.incrementAndGet();
+        });
+        cache.get("P-001", () -> fail("valueLoader must not be used for refresh"));
+        assertEquals(List.of("P-001"), targetPuts);
+        assertEquals(2, cache.get("P-001", Integer.class));
+
+        // hasil refresh tetap boleh di-refresh lagi
+        cache.get("P-001", () -> fail("valueLoader must not be used for refresh"));
+        assertEquals(2, cache.getEarlyRefreshes());
+        assertEquals(3, cache.get("P-001", Integer.class));
+    }
+
+    @Test
+    void testNoEarlyRefreshWithoutLoader() throws Exception {
+        var properties = new StampedeProperties();
+        properties.setEarlyRefreshBeta(1_000_000);
+        var cache = new CoalescingCache(new ConcurrentMapCache("products"), properties, Duration.ofSeconds(1),
+                null, new SyncTaskExecutor(), () -> null, () -> null);
+
+        cache.get("P-001", () -> {
+            Thread.sleep(5);
+            return 1;
+        });
+        cache.get("P-001", () -> 2);
+        assertEquals(0, cache.getEarlyRefreshes());
+        assertEquals(1, cache.get("P-001", Integer.class));
+    }
+
+    @Test
+    void testEarlyRefreshDisabled() {
+        var properties = new StampedeProperties();
+        properties.setEarlyRefreshBeta(0);
+        var cache = new CoalescingCache(new ConcurrentMapCache("products"), properties, Duration.ofSeconds(1),
+                null, new SyncTaskExecutor(), () -> null, () -> null);
+
+        cache.get("P-001", () -> 1);
+        cache.get("P-001", () -> 2);
+        assertEquals(0, cache.getEarlyRefreshes());
+        assertEquals(1, cache.get("P-001", Integer.class));
+    }
+
+    private static CacheRefreshLoader loader(Function<Object, Object> values) {
+        return new CacheRefreshLoader() {
+            @Override
+            public String getCacheName() {
+                return "products";
+            }
+
+            @Override
+            public Object load(Object key) {
+                return values.apply(key);
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.convert.MappingRedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.hash.ObjectHashMapper;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodecComparisonTest {
+
+    private final Product product = Product.builder()
+            .id("P-001").name("Shampoo Anti Ketombe 170ml").price(50_000L).ttl(-1L).build();
+
+    private final Order order = new Order("4048b99f-c5f3-491c-8446-028578381ac3", 1000L);
+
+    @Test
+    void testProductRoundTrip() {
+        assertEquals(product, ProductCodec.INSTANCE.decode(ProductCodec.INSTANCE.encode(product)));
+
+        Product empty = new Product();
+        empty.setTtl(null);
+        assertEquals(empty, ProductCodec.INSTANCE.decode(ProductCodec.INSTANCE.encode(empty)));
+
+        Product unicode = Product.builder().id("P-😀").name("Kopi é中").price(-1L).build();
+        assertEquals(unicode, ProductCodec.INSTANCE.decode(ProductCodec.INSTANCE.encode(unicode)));
+    }
+
+    @Test
+    void testOrderRoundTrip() {
+        assertEquals(order, OrderCodec.INSTANCE.decode(OrderCodec.INSTANCE.encode(order)));
+        assertEquals(new Order(null, Long.MIN_VALUE),
+                OrderCodec.INSTANCE.decode(OrderCodec.INSTANCE.encode(new Order(null, Long.MIN_VALUE))));
+    }
+
+    @Test
+    void testSerializerFallback() {
+        var serializer = new BinaryRedisSerializer(new JdkSerializationRedisSerializer());
+        var jdk = new JdkSerializationRedisSerializer();
+
+        assertEquals(product, serializer.deserialize(serializer.serialize(product)));
+        assertEquals(100, serializer.deserialize(serializer.serialize(100)));
+        // data lama yang ditulis dengan jdk serialization tetap terbaca
+        assertEquals(product, serializer.deserialize(jdk.serialize(product)));
+    }
+
+    /**
+     * kecepatan encode/decode tiap format diukur di CodecBenchmark (module benchmarks)
+     */
+    @Test
+    void testBinaryIsSmallest() {
+        var jdk = new JdkSerializationRedisSerializer();
+        var converter = new MappingRedisConverter(new RedisMappingContext());
+        converter.afterPropertiesSet();
+        var data = new RedisData();
+        converter.write(product, data);
+
+        int binary = ProductCodec.INSTANCE.encode(product).length;
+        assertTrue(binary < jdk.serialize(product).length);
+        assertTrue(binary < hashSize(data.getBucket().rawMap()));
+
+        var objectHashMapper = ObjectHashMapper.getSharedInstance();
+        assertTrue(OrderCodec.INSTANCE.encode(order).length < hashSize(objectHashMapper.toHash(order)));
+    }
+
+    private static int hashSize(Map<byte[], byte[]> hash) {
+        return hash.entrySet().stream().mapToInt(entry -> entry.getKey().length + entry.getValue().length).sum();
+    }
+}
@@ -0,0 +1,71 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.convert.Bucket;
+import org.springframework.data.redis.core.convert.MappingRedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * data yang ditulis dengan satu codec.format harus tetap terbaca setelah format diganti
+ */
+public class CodecCompatibilityTest {
+
+    private final Product product = Product.builder().id("C-1").name("Shampoo").price(50_000L).ttl(-1L).build();
+
+    private final ValueCompressor compressor = new ValueCompressor(new CompressionProperties());
+
+    @Test
+    void testRepositoryDefaultToBinary() {
+        RedisData stored = write(converter(CodecFormat.DEFAULT), product);
+        assertNotNull(stored.getBucket().get("name"));
+
+        assertEquals(product, read(converter(CodecFormat.BINARY), stored));
+    }
+
+    @Test
+    void testRepositoryBinaryToDefault() {
+        RedisData stored = write(converter(CodecFormat.BINARY), product);
+        assertNotNull(stored.getBucket().get(ProductBinaryConverters.RAW));
+        assertNull(stored.getBucket().get("name"));
+
+        assertEquals(product, read(converter(CodecFormat.DEFAULT), stored));
+    }
+
+    @Test
+    void testCacheSerializerBothDirections() {
+        var binary = new BinaryRedisSerializer(new JdkSerializationRedisSerializer(), true);
+        var jdk = new BinaryRedisSerializer(new JdkSerializationRedisSerializer(), false);
+
+        byte[] binaryValue = binary.serialize(product);
+        byte[] jdkValue = jdk.serialize(product);
+        assertEquals(BinaryRedisSerializer.MAGIC, binaryValue[0]);
+        assertNotEquals(BinaryRedisSerializer.MAGIC, jdkValue[0]);
+
+        assertEquals(product, jdk.deserialize(binaryValue));
+        assertEquals(product, binary.deserialize(jdkValue));
+    }
+
+    private MappingRedisConverter converter(CodecFormat format) {
+        var converter = new MappingRedisConverter(new RedisMappingContext());
+        converter.setCustomConversions(CodecConfiguration.conversions(format, compressor));
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static RedisData write(MappingRedisConverter converter, Product product) {
+        RedisData data = new RedisData();
+        converter.write(product, data);
+        return data;
+    }
+
+    private static Product read(MappingRedisConverter converter, RedisData stored) {
+        // seperti dibaca ulang dari redis: isi hash dan id dari key yang di-set RedisKeyValueAdapter
+        RedisData data = new RedisData(Bucket.newBucketFromRawMap(stored.getBucket().rawMap()));
+        data.setId(stored.getId());
+        return converter.read(Product.class, data);
+    }
+}
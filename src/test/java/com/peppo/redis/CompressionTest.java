@@ -0,0 +1,83 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionTest {
+
+    private final Product large = Product.builder()
+            .id("P-LARGE").name("Shampoo Anti Ketombe 170ml ".repeat(100)).price(50_000L).build();
+
+    private final Product small = Product.builder().id("P-SMALL").name("Sabun").price(5_000L).build();
+
+    @Test
+    void testRoundTrip() {
+        var compressor = compressor(true, 256);
+        byte[] raw = ProductCodec.INSTANCE.encode(large);
+        byte[] compressed = compressor.compress(raw);
+
+        assertTrue(ValueCompressor.isCompressed(compressed));
+        assertTrue(compressed.length < raw.length / 10, "compressed " + compressed.length + " of " + raw.length);
+        assertArrayEquals(raw, compressor.decompress(compressed));
+        assertEquals(1, compressor.getCompressed());
+        assertEquals(1, compressor.getDecompressed());
+        assertTrue(compressor.getCompressionRatio() < 0.1);
+    }
+
+    @Test
+    void testBelowThresholdOrIncompressible() {
+        var compressor = compressor(true, 256);
+        byte[] raw = ProductCodec.INSTANCE.encode(small);
+        assertSame(raw, compressor.compress(raw));
+
+        byte[] random = new byte[1024];
+        new Random(1).nextBytes(random);
+        assertSame(random, compressor.compress(random));
+        assertEquals(2, compressor.getSkipped());
+        assertEquals(0, compressor.getCompressed());
+    }
+
+    @Test
+    void testDisabledStillReads() {
+        var writer = compressor(true, 256);
+        var reader = compressor(false, 256);
+        byte[] raw = ProductCodec.INSTANCE.encode(large);
+
+        assertSame(raw, reader.compress(raw));
+        assertArrayEquals(raw, reader.decompress(writer.compress(raw)));
+    }
+
+    @Test
+    void testSerializerReadsOldValues() {
+        var jdk = new JdkSerializationRedisSerializer();
+        var serializer = new CompressingRedisSerializer(
+                new BinaryRedisSerializer(new JdkSerializationRedisSerializer()), compressor(true, 256));
+
+        assertEquals(large, serializer.deserialize(serializer.serialize(large)));
+        assertEquals(small, serializer.deserialize(serializer.serialize(small)));
+        // data lama yang ditulis tanpa kompresi tetap terbaca
+        assertEquals(large, serializer.deserialize(jdk.serialize(large)));
+        assertEquals(large, serializer.deserialize(new BinaryRedisSerializer(jdk).serialize(large)));
+    }
+
+    @Test
+    void testTruncatedValue() {
+        var compressor = compressor(true, 256);
+        byte[] compressed = compressor.compress(ProductCodec.INSTANCE.encode(large));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> compressor.decompress(Arrays.copyOf(compressed, compressed.length - 4)));
+    }
+
+    private static ValueCompressor compressor(boolean enabled, int threshold) {
+        var properties = new CompressionProperties();
+        properties.setEnabled(enabled);
+        properties.setThreshold(threshold);
+        return new ValueCompressor(properties);
+    }
+}
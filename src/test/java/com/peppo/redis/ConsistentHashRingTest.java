@@ -0,0 +1,50 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+
+    @Test
+    void testDistribution() {
+        var ring = new ConsistentHashRing<>(List.of("a", "b", "c"), node -> node, 160);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.get("products:" + i), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 8_000 && count < 12_000, counts.toString()));
+    }
+
+    @Test
+    void testHashTag() {
+        var ring = new ConsistentHashRing<>(List.of("a", "b", "c"), node -> node, 160);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(ring.get("products:{" + i + "}"), ring.get("cache:{" + i + "}:idx"));
+            assertEquals(ring.get("products:{" + i + "}"), ring.get(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    void testRemapsOnlyMovedKeys() {
+        var ring = new ConsistentHashRing<>(List.of("a", "b", "c"), node -> node, 160);
+        var grown = new ConsistentHashRing<>(List.of("a", "b", "c", "d"), node -> node, 160);
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String before = ring.get("products:" + i);
+            String after = grown.get("products:" + i);
+            if (!before.equals(after)) {
+                assertEquals("d", after);
+                moved++;
+            }
+        }
+        assertTrue(moved < 3_500, "moved " + moved);
+    }
+}
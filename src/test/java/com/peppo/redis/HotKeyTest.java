@@ -0,0 +1,80 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "cache.hot-keys.capacity=3",
+        "cache.hot-keys.key-prefix=test-hot-keys:",
+        "cache.hot-keys.persist-interval=3600"
+})
+public class HotKeyTest {
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private ProductCacheWarmer productCacheWarmer;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void testSketchKeepsHeavyHitters() {
+        var sketch = new HotKeySketch(1024, 4, 3);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("cold-" + i);
+            if (i % 10 == 0) {
+                sketch.add("hot-1");
+            }
+            if (i % 20 == 0) {
+                sketch.add("hot-2");
+            }
+            if (i % 40 == 0) {
+                sketch.add("hot-3");
+            }
+        }
+
+        Map<String, Long> top = sketch.top();
+        assertEquals(List.of("hot-1", "hot-2", "hot-3"), List.copyOf(top.keySet()));
+        // count-min tidak pernah kurang dari jumlah sebenarnya
+        assertTrue(sketch.estimate("hot-1") >= 1_000);
+        assertTrue(sketch.estimate("hot-3") >= 250);
+    }
+
+    @Test
+    void testCacheAccessPersistedAndWarmedUp() {
+        redisTemplate.delete(redisTemplate.keys("test-hot-keys:*"));
+        hotKeyTracker.persist();
+
+        for (int i = 0; i < 10; i++) {
+            productService.getProduct("HOT-1");
+        }
+        for (int i = 0; i < 5; i++) {
+            productService.getProduct("HOT-2");
+        }
+        productService.getProduct("HOT-3");
+        assertEquals(Set.of("HOT-1", "HOT-2", "HOT-3"), hotKeyTracker.localTop("products").keySet());
+
+        hotKeyTracker.persist();
+        assertEquals(List.of("HOT-1", "HOT-2"), hotKeyTracker.hotKeys("products", 2));
+
+        productService.removeProduct("HOT-1");
+        long before = productCacheWarmer.getWarmed();
+        productCacheWarmer.warmUp();
+        assertEquals(Status.UP, productCacheWarmer.health().getStatus());
+        assertEquals(3, productCacheWarmer.getWarmed() - before);
+    }
+}
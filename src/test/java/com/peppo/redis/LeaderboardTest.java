@@ -0,0 +1,99 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "leaderboard.flush-interval=3600000",
+        "leaderboard.snapshot-refresh-interval=3600000",
+        "leaderboard.snapshot-size=3",
+        "leaderboard.max-staleness=0s"
+})
+public class LeaderboardTest {
+
+    @Autowired
+    private Leaderboard leaderboard;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard.flush();
+        redisTemplate.delete(List.of("score", "score-broken"));
+    }
+
+    @Test
+    void testIncrementsCoalesced() {
+        long before = leaderboard.getFlushed();
+        for (int i = 0; i < 100; i++) {
+            leaderboard.increment("score", "haris", 1);
+        }
+        leaderboard.increment("score", "sirah", 83);
+
+        assertEquals(2, leaderboard.getPending());
+        assertNull(redisTemplate.opsForZSet().score("score", "haris"));
+
+        leaderboard.flush();
+        assertEquals(2, leaderboard.getFlushed() - before);
+        assertEquals(100.0, redisTemplate.opsForZSet().score("score", "haris"));
+        assertEquals(83.0, redisTemplate.opsForZSet().score("score", "sirah"));
+    }
+
+    @Test
+    void testTopAndRank() {
+        leaderboard.increment("score", "haris", 100);
+        leaderboard.increment("score", "sirah", 83);
+        leaderboard.increment("score", "peppo", 92);
+        leaderboard.increment("score", "popi", 50);
+        leaderboard.flush();
+
+        assertEquals(List.of("haris", "peppo"),
+                leaderboard.top("score", 2).stream().map(Leaderboard.Entry::member).toList());
+        assertEquals(4, leaderboard.top("score", 10).size());
+
+        assertEquals(new Leaderboard.Entry("peppo", 92, 1), leaderboard.rank("score", "peppo"));
+        // di luar snapshot
+        assertEquals(new Leaderboard.Entry("popi", 50, 3), leaderboard.rank("score", "popi"));
+        assertNull(leaderboard.rank("score", "kurniawan"));
+    }
+
+    @Test
+    void testSnapshotRefresh() {
+        leaderboard.increment("score", "haris", 100);
+        leaderboard.flush();
+        assertEquals(100.0, leaderboard.rank("score", "haris").score());
+
+        redisTemplate.opsForZSet().incrementScore("score", "sirah", 200);
+        leaderboard.refresh();
+        assertEquals("sirah", leaderboard.top("score", 1).get(0).member());
+    }
+
+    @Test
+    void testPartialFlushFailureRetriesOnlyFailed() {
+        // ZINCRBY ke key string gagal WRONGTYPE, board lain di batch yang sama tetap masuk
+        redisTemplate.opsForValue().set("score-broken", "not a sorted set");
+        long before = leaderboard.getFlushed();
+        leaderboard.increment("score", "haris", 10);
+        leaderboard.increment("score-broken", "sirah", 5);
+
+        leaderboard.flush();
+        assertEquals(1, leaderboard.getFlushed() - before);
+        assertEquals(1, leaderboard.getPending());
+        assertEquals(10.0, redisTemplate.opsForZSet().score("score", "haris"));
+
+        redisTemplate.delete("score-broken");
+        leaderboard.flush();
+        assertEquals(0, leaderboard.getPending());
+        assertEquals(5.0, redisTemplate.opsForZSet().score("score-broken", "sirah"));
+        // tidak dikirim ulang, jadi tidak terhitung dua kali
+        assertEquals(10.0, redisTemplate.opsForZSet().score("score", "haris"));
+    }
+}
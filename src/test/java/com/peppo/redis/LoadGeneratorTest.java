@@ -0,0 +1,67 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "loadgen.order-rate=200",
+        "loadgen.customer-rate=200",
+        "loadgen.duration=2s",
+        "loadgen.warm-up=500ms",
+        "loadgen.drain=2s"
+})
+public class LoadGeneratorTest {
+
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    @Autowired
+    private EndToEndLatency endToEndLatency;
+
+    @Test
+    void testHistogramPercentiles() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000.5, histogram.getMean(), 0.001);
+        assertEquals(10_000, histogram.getMax());
+        // error relatif bucket paling besar 1/64
+        assertEquals(5_000, histogram.getValueAtPercentile(50), 5_000 / 64.0);
+        assertEquals(9_900, histogram.getValueAtPercentile(99), 9_900 / 64.0);
+        assertEquals(10_000, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+
+    @Test
+    void testHistogramBuckets() {
+        for (long value = 0; value < 100_000; value++) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestEquivalentValue(index - 1) < value);
+        }
+
+        var histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testRun() {
+        loadGenerator.run();
+
+        // 2 detik x 200 per detik setelah warm-up
+        assertEquals(400, loadGenerator.getOrdersSent(), 20);
+        assertEquals(400, loadGenerator.getCustomersSent(), 20);
+        assertEquals(0, loadGenerator.getFailed());
+        assertEquals(loadGenerator.getOrdersSent(), endToEndLatency.histogram("orders").getCount(), 20);
+        assertEquals(loadGenerator.getCustomersSent(), endToEndLatency.histogram("customers").getCount(), 20);
+        assertTrue(endToEndLatency.histogram("customers").getValueAtPercentile(50) > 0);
+    }
+}
@@ -0,0 +1,179 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageDispatcherTest {
+
+    private MessageDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.stop();
+    }
+
+    @Test
+    void testPerKeyOrdering() throws Exception {
+        dispatcher = createDispatcher(4, 1_000, OverflowPolicy.BLOCK);
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        var listener = new AsyncMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+            received.computeIfAbsent(parts[0], key -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(Integer.parseInt(parts[1]));
+        }, dispatcher, AsyncMessageListener.bodyPrefixKey((byte) ' '));
+
+        for (int i = 0; i < 1_000; i++) {
+            for (String customer : List.of("haris", "budi", "eko")) {
+                listener.onMessage(message(customer + " " + i), null);
+            }
+        }
+        dispatcher.stop();
+
+        for (List<Integer> values : received.values()) {
+            assertEquals(1_000, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(i, values.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testUnorderedUsesAllStripes() throws Exception {
+        dispatcher = createDispatcher(4, 1_000, OverflowPolicy.BLOCK);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        var listener = AsyncMessageListener.unordered((message, pattern) ->
+                threads.add(Thread.currentThread().getName()), dispatcher);
+
+        // prefix body selalu sama seperti pesan customers
+        for (int i = 0; i < 100; i++) {
+            listener.onMessage(message("haris " + i), null);
+        }
+        dispatcher.stop();
+
+        assertEquals(4, threads.size());
+    }
+
+    @Test
+    void testBodyCopiedOnce() throws Exception {
+        dispatcher = createDispatcher(1, 10, OverflowPolicy.BLOCK);
+        var copies = new AtomicInteger();
+        var original = message("haris 1");
+        var counting = new DefaultMessage(original.getChannel(), original.getBody()) {
+            @Override
+            public byte[] getBody() {
+                copies.incrementAndGet();
+                return super.getBody();
+            }
+        };
+        var received = new ArrayList<String>();
+        var listener = new AsyncMessageListener((message, pattern) -> {
+            received.add(new String(message.getBody(), StandardCharsets.UTF_8));
+            received.add(new String(message.getBody(), StandardCharsets.UTF_8));
+        }, dispatcher, AsyncMessageListener.bodyPrefixKey((byte) ' '));
+
+        listener.onMessage(counting, null);
+        dispatcher.stop();
+
+        assertEquals(List.of("haris 1", "haris 1"), received);
+        assertEquals(1, copies.get());
+    }
+
+    @Test
+    void testDropWhenFull() throws Exception {
+        dispatcher = createDispatcher(1, 2, OverflowPolicy.DROP);
+        var release = new CountDownLatch(1);
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        stall(release);
+
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            dispatcher.dispatch(0, () -> processed.add(value));
+        }
+        release.countDown();
+        dispatcher.stop();
+
+        assertEquals(List.of(0, 1), processed);
+        assertEquals(3, dispatcher.getDropped());
+    }
+
+    @Test
+    void testDropOldestWhenFull() throws Exception {
+        dispatcher = createDispatcher(1, 2, OverflowPolicy.DROP_OLDEST);
+        var release = new CountDownLatch(1);
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        stall(release);
+
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            dispatcher.dispatch(0, () -> processed.add(value));
+        }
+        release.countDown();
+        dispatcher.stop();
+
+        assertEquals(List.of(3, 4), processed);
+        assertEquals(3, dispatcher.getDropped());
+    }
+
+    @Test
+    void testDispatchRacingStopIsNeverLost() throws Exception {
+        dispatcher = createDispatcher(2, 1_000, OverflowPolicy.DROP);
+        var processed = new AtomicInteger();
+        var accepted = new AtomicInteger();
+
+        Thread producer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                if (dispatcher.dispatch(i, processed::incrementAndGet)) {
+                    accepted.incrementAndGet();
+                }
+            }
+        });
+        Thread.sleep(5);
+        dispatcher.stop();
+        producer.join();
+
+        // setiap task yang diterima dispatch() dijalankan, termasuk yang masuk saat stop() berjalan
+        assertEquals(accepted.get(), processed.get());
+        assertEquals(0, dispatcher.getQueueSize());
+    }
+
+    private void stall(CountDownLatch release) throws InterruptedException {
+        var started = new CountDownLatch(1);
+        dispatcher.dispatch(0, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private static MessageDispatcher createDispatcher(int threads, int queueCapacity, OverflowPolicy overflowPolicy) {
+        var properties = new PubSubDispatchProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setOverflowPolicy(overflowPolicy);
+        var dispatcher = new MessageDispatcher(properties);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("customers".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
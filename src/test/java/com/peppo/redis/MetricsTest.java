@@ -0,0 +1,74 @@
+package com.peppo.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+public class MetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderStreamMetrics orderStreamMetrics;
+
+    @Autowired
+    private OrderBatchPublisher orderBatchPublisher;
+
+    @Autowired
+    private CustomerPublisher customerPublisher;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void testCacheMetrics() {
+        productService.removeProduct("P-201");
+        double misses = meterRegistry.get("cache.gets").tags("cache", "products", "result", "miss").functionCounter().count();
+
+        productService.getProduct("P-201");
+        productService.getProduct("P-201");
+
+        assertEquals(misses + 1, meterRegistry.get("cache.gets").tags("cache", "products", "result", "miss").functionCounter().count());
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "products", "result", "hit").functionCounter().count(), greaterThanOrEqualTo(1.0));
+        assertThat(meterRegistry.get("cache.puts").tags("cache", "products").functionCounter().count(), greaterThanOrEqualTo(1.0));
+    }
+
+    @Test
+    void testCommandLatencyHistogram() {
+        redisTemplate.opsForValue().set("metrics-test", "value");
+        redisTemplate.opsForValue().get("metrics-test");
+
+        assertThat(meterRegistry.get("lettuce.command.completion").tags("command", "GET").timer().count(), greaterThanOrEqualTo(1L));
+        assertThat(prometheusMeterRegistry.scrape(), containsString("lettuce_command_completion_seconds_bucket"));
+    }
+
+    @Test
+    void testStreamAndPublishMetrics() throws Exception {
+        orderBatchPublisher.publish(new Order("metrics", 1L)).get();
+        orderStreamMetrics.refresh();
+        assertThat(meterRegistry.get("orders.stream.length").gauge().value(), greaterThanOrEqualTo(1.0));
+        assertFalse(Double.isNaN(meterRegistry.get("orders.stream.pending").gauge().value()));
+
+        double published = meterRegistry.get("redis.publish").tags("destination", "customers").functionCounter().count();
+        customerPublisher.publish();
+        assertEquals(published + 1, meterRegistry.get("redis.publish").tags("destination", "customers").functionCounter().count());
+        assertNotNull(meterRegistry.find("redis.listener.duration").tags("listener", "orders").timer());
+    }
+}
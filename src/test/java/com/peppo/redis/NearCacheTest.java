@@ -0,0 +1,125 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "cache.near.enabled=true")
+public class NearCacheTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private NearCacheProperties nearCacheProperties;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer messageListenerContainer;
+
+    @Test
+    void testNearCacheManager() {
+        assertInstanceOf(NearCacheManager.class, cacheManager);
+        assertInstanceOf(NearCache.class, cacheManager.getCache("products"));
+        assertFalse(cacheManager.getCache("scores") instanceof NearCache);
+    }
+
+    @Test
+    void testLocalHit() {
+        NearCache cache = (NearCache) cacheManager.getCache("products");
+        productService.removeProduct("P-101");
+
+        Product product = productService.getProduct("P-101");
+        long localHits = cache.getLocalHits();
+
+        Product product1 = productService.getProduct("P-101");
+        assertEquals(product, product1);
+        assertEquals(localHits + 1, cache.getLocalHits());
+    }
+
+    @Test
+    void testPutAndEvict() {
+        NearCache cache = (NearCache) cacheManager.getCache("products");
+        Product product = Product.builder().id("P-102").name("Sabun").price(5_000L).build();
+        productService.saveProduct(product);
+
+        assertEquals(product, cache.get("P-102", Product.class));
+        assertEquals(product, cache.getDelegate().get("P-102", Product.class));
+
+        productService.removeProduct("P-102");
+        assertNull(cache.get("P-102"));
+        assertNull(cache.getDelegate().get("P-102"));
+    }
+
+    @Test
+    void testInvalidationBetweenInstances() throws InterruptedException {
+        NearCacheManager manager = (NearCacheManager) cacheManager;
+        // instance kedua di atas redis cache yang sama, seperti aplikasi lain yang subscribe channel yang sama
+        var otherManager = new NearCacheManager(manager.getDelegate(), nearCacheProperties, redisTemplate);
+        var otherListener = new NearCacheInvalidationListener(otherManager);
+        var topic = new ChannelTopic(nearCacheProperties.getInvalidationChannel());
+        messageListenerContainer.addMessageListener(otherListener, topic);
+        try {
+            NearCache cache = (NearCache) manager.getCache("products");
+            NearCache other = (NearCache) otherManager.getCache("products");
+            Product product = Product.builder().id("P-103").name("Sabun").price(5_000L).build();
+            Product product1 = Product.builder().id("P-103").name("Sabun").price(6_000L).build();
+
+            cache.put("P-103", product);
+            assertEquals(product, other.get("P-103", Product.class));
+            assertNotNull(other.getLocal("P-103"));
+
+            cache.put("P-103", product1);
+            await(() -> other.getLocal("P-103") == null);
+            assertEquals(product1, other.get("P-103", Product.class));
+            // pesan dari instance sendiri tidak membuang L1
+            assertEquals(product1, cache.getLocal("P-103").get());
+
+            other.evict("P-103");
+            await(() -> cache.getLocal("P-103") == null);
+            assertNull(cache.get("P-103"));
+
+            cache.put("P-103", product);
+            assertEquals(product, other.get("P-103", Product.class));
+            var listener = new NearCacheInvalidationListener(manager);
+            listener.onMessage(message(manager.getInstanceId(), "P-103"), null);
+            assertEquals(product, cache.getLocal("P-103").get());
+            otherListener.onMessage(message(otherManager.getInstanceId(), "P-103"), null);
+            assertEquals(product, other.getLocal("P-103").get());
+            otherListener.onMessage(message(manager.getInstanceId(), "P-103"), null);
+            assertNull(other.getLocal("P-103"));
+        } finally {
+            messageListenerContainer.removeMessageListener(otherListener, topic);
+            cacheManager.getCache("products").evict("P-103");
+        }
+    }
+
+    private DefaultMessage message(String instanceId, String key) {
+        String body = NearCacheInvalidationListener.format(instanceId, "products", key);
+        return new DefaultMessage(nearCacheProperties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "invalidation not received");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "orders.consumer.stream=orders-archive-test",
+        "orders.consumer.consumers=0",
+        "orders.archive.enabled=true",
+        "orders.archive.directory=target/order-archive-test",
+        "orders.archive.batch-size=4",
+        "orders.archive.interval=3600"
+})
+public class OrderArchiverTest {
+
+    private static final String STREAM = "orders-archive-test";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderConsumerProperties properties;
+
+    @BeforeAll
+    static void cleanArchive() {
+        // dijalankan sebelum context dibuat, OrderArchiver membaca direktori saat start
+        FileSystemUtils.deleteRecursively(Path.of("target", "order-archive-test").toFile());
+    }
+
+    @Test
+    void testRejectPublishTrimming() {
+        var publisherProperties = new OrderPublisherProperties();
+        publisherProperties.setMaxLength(1_000L);
+        assertThrows(IllegalStateException.class, () -> new OrderArchiver(redisTemplate, properties,
+                new OrderArchiveProperties(), publisherProperties, null));
+
+        publisherProperties.setMaxLength(null);
+        publisherProperties.setMaxAge(Duration.ofDays(7));
+        assertThrows(IllegalStateException.class, () -> new OrderArchiver(redisTemplate, properties,
+                new OrderArchiveProperties(), publisherProperties, null));
+    }
+
+    @Test
+    void testArchiveOnlyAcknowledgedOrders() {
+        redisTemplate.delete(STREAM);
+        var operations = redisTemplate.opsForStream();
+        for (int i = 0; i < 10; i++) {
+            operations.add(ObjectRecord.create(STREAM, new Order("O-" + i, 1000L + i)));
+        }
+        operations.createGroup(STREAM, ReadOffset.from("0"), properties.getGroup());
+
+        var records = operations.read(Order.class, Consumer.from(properties.getGroup(), "archive-consumer"),
+                StreamReadOptions.empty().count(10), StreamOffset.create(STREAM, ReadOffset.lastConsumed()));
+        assertEquals(10, records.size());
+        // O-6 belum di-ACK, jadi hanya O-0 .. O-5 yang boleh diarsip
+        for (int i = 0; i < 10; i++) {
+            if (i != 6) {
+                operations.acknowledge(properties.getGroup(), records.get(i));
+            }
+        }
+
+        orderArchiver.archive();
+        assertEquals(List.of("O-0", "O-1", "O-2", "O-3", "O-4", "O-5"), replay());
+
+        operations.acknowledge(properties.getGroup(), records.get(6));
+        orderArchiver.archive();
+        assertEquals(10, replay().size());
+        assertEquals(records.get(9).getId(), orderArchiver.getLastArchivedId());
+
+        redisTemplate.delete(STREAM);
+    }
+
+    private List<String> replay() {
+        List<String> ids = new ArrayList<>();
+        orderArchiver.replay(null, (id, order) -> ids.add(order.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,135 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class OrderBatchPublisherTest {
+
+    private static final String STREAM = "orders-benchmark";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private OrderRecordMapper orderRecordMapper;
+
+    @Test
+    void testPublishReturnsRecordId() throws Exception {
+        redisTemplate.delete(STREAM);
+        OrderBatchPublisher publisher = createPublisher(16);
+
+        RecordId recordId = publisher.publish(new Order("O-1", 1000L)).get();
+        publisher.stop();
+
+        assertNotNull(recordId);
+        assertEquals(1L, redisTemplate.opsForStream().size(STREAM));
+        redisTemplate.delete(STREAM);
+    }
+
+    @Test
+    void testPublishAfterStopIsRejected() throws Exception {
+        OrderBatchPublisher publisher = createPublisher(16);
+        publisher.stop();
+
+        CompletableFuture<RecordId> future = publisher.publish(new Order("O-1", 1000L));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        assertEquals(1, publisher.getRejected());
+        assertEquals(0, publisher.getBufferSize());
+    }
+
+    @Test
+    void testTrimByMaxLength() throws Exception {
+        redisTemplate.delete(STREAM);
+        var properties = new OrderPublisherProperties();
+        properties.setStream(STREAM);
+        properties.setMaxLength(10L);
+        properties.setApproximateTrimming(false);
+        var publisher = new OrderBatchPublisher(redisTemplate, properties, orderRecordMapper);
+        publisher.start();
+
+        List<CompletableFuture<RecordId>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(publisher.publish(new Order("O-" + i, 1000L)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+        publisher.stop();
+
+        assertEquals(10L, redisTemplate.opsForStream().size(STREAM));
+        redisTemplate.delete(STREAM);
+    }
+
+    @Test
+    void testTrimByMaxAge() throws Exception {
+        redisTemplate.delete(STREAM);
+        // entry lama yang sudah lewat max-age
+        redisTemplate.opsForStream().add(StreamRecords.newRecord().in(STREAM)
+                .withId(RecordId.of(1, 0)).ofMap(Map.of("id", "old")));
+
+        var properties = new OrderPublisherProperties();
+        properties.setStream(STREAM);
+        properties.setMaxAge(Duration.ofMinutes(1));
+        properties.setApproximateTrimming(false);
+        var publisher = new OrderBatchPublisher(redisTemplate, properties, orderRecordMapper);
+        publisher.start();
+        publisher.publish(new Order("O-new", 1000L)).get();
+        publisher.stop();
+
+        assertEquals(1L, redisTemplate.opsForStream().size(STREAM));
+        redisTemplate.delete(STREAM);
+    }
+
+    /**
+     * throughput per batch size diukur di OrderBatchPublisherBenchmark (module benchmarks)
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 16, 256})
+    void testPublishManyOrders(int batchSize) throws Exception {
+        redisTemplate.delete(STREAM);
+        OrderBatchPublisher publisher = createPublisher(batchSize);
+        int total = 5_000;
+
+        List<CompletableFuture<RecordId>> futures = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            futures.add(publisher.publish(new Order(UUID.randomUUID().toString(), 1000L)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+        publisher.stop();
+
+        assertEquals(total, futures.stream().map(CompletableFuture::join).distinct().count());
+        assertEquals(total, publisher.getPublished());
+        assertEquals(0, publisher.getFailed());
+        assertEquals(total, redisTemplate.opsForStream().size(STREAM));
+        redisTemplate.delete(STREAM);
+    }
+
+    private OrderBatchPublisher createPublisher(int batchSize) {
+        var properties = new OrderPublisherProperties();
+        properties.setStream(STREAM);
+        properties.setBatchSize(batchSize);
+        properties.setLinger(Duration.ofMillis(2));
+
+        var publisher = new OrderBatchPublisher(redisTemplate, properties, orderRecordMapper);
+        publisher.start();
+        return publisher;
+    }
+}
@@ -0,0 +1,85 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "orders.consumer.stream=orders-reclaim-test",
+        "orders.consumer.consumers=0",
+        "orders.consumer.reclaim-min-idle=0s",
+        "orders.consumer.max-deliveries=2",
+        "orders.consumer.dead-letter-stream=orders-reclaim-test-dead"
+})
+public class OrderReclaimerTest {
+
+    private static final String STREAM = "orders-reclaim-test";
+
+    private static final String DEAD_LETTER_STREAM = "orders-reclaim-test-dead";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private OrderReclaimer orderReclaimer;
+
+    @Autowired
+    private OrderConsumerProperties properties;
+
+    @SpyBean
+    private OrderListener orderListener;
+
+    @Test
+    void testReclaimPendingOrder() {
+        redisTemplate.delete(STREAM);
+        var operations = redisTemplate.opsForStream();
+        operations.add(ObjectRecord.create(STREAM, new Order("O-1", 1000L)));
+        operations.createGroup(STREAM, ReadOffset.from("0"), properties.getGroup());
+
+        // consumer ini "mati" setelah membaca tanpa XACK
+        var records = operations.read(Order.class, Consumer.from(properties.getGroup(), "dead-consumer"),
+                StreamOffset.create(STREAM, ReadOffset.lastConsumed()));
+        assertEquals(1, records.size());
+        assertEquals(1L, operations.pending(STREAM, properties.getGroup()).getTotalPendingMessages());
+
+        orderReclaimer.reclaim();
+
+        verify(orderListener).onMessage(argThat(record -> "O-1".equals(record.getValue().getId())));
+        assertEquals(0L, operations.pending(STREAM, properties.getGroup()).getTotalPendingMessages());
+        redisTemplate.delete(STREAM);
+    }
+
+    @Test
+    void testFailingOrderIsDeadLettered() {
+        redisTemplate.delete(List.of(STREAM, DEAD_LETTER_STREAM));
+        var operations = redisTemplate.opsForStream();
+        operations.add(ObjectRecord.create(STREAM, new Order("O-poison", 1000L)));
+        operations.createGroup(STREAM, ReadOffset.from("0"), properties.getGroup());
+        operations.read(Order.class, Consumer.from(properties.getGroup(), "dead-consumer"),
+                StreamOffset.create(STREAM, ReadOffset.lastConsumed()));
+        doThrow(new IllegalStateException("gagal terus")).when(orderListener).onMessage(any());
+
+        // delivery ke-2 masih diproses dan gagal, delivery ke-3 melewati max-deliveries
+        orderReclaimer.reclaim();
+        assertEquals(1L, operations.pending(STREAM, properties.getGroup()).getTotalPendingMessages());
+        long deadLetteredBefore = orderReclaimer.getDeadLettered();
+        orderReclaimer.reclaim();
+
+        verify(orderListener, times(1)).onMessage(any());
+        assertEquals(0L, operations.pending(STREAM, properties.getGroup()).getTotalPendingMessages());
+        assertEquals(1L, operations.size(DEAD_LETTER_STREAM));
+        assertEquals(deadLetteredBefore + 1, orderReclaimer.getDeadLettered());
+        redisTemplate.delete(List.of(STREAM, DEAD_LETTER_STREAM));
+    }
+}
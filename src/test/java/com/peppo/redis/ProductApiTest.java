@@ -0,0 +1,126 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * tomcat sengaja dibatasi 8 thread, kedua endpoint harus tetap melayani semua request di concurrency tinggi.
+ * throughput-nya diukur di ProductApiBenchmark (module benchmarks)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.tomcat.threads.max=8")
+public class ProductApiTest {
+
+    private static final int PRODUCTS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReactiveProductService reactiveProductService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.save(Product.builder().id("api-" + i).name("Product " + i).price(1_000L + i).build());
+        }
+    }
+
+    @Test
+    void testReactiveReadsRepositoryFormat() throws Exception {
+        HttpResponse<String> response = get("/reactive/products/api-1");
+        assertEquals(200, response.statusCode());
+        assertThat(response.body(), containsString("\"name\":\"Product 1\""));
+
+        assertEquals(404, get("/reactive/products/api-missing").statusCode());
+
+        List<Product> products = reactiveProductService.findAllById(List.of("api-3", "api-missing", "api-1")).collectList().block();
+        assertEquals(List.of("api-3", "api-1"), products.stream().map(Product::getId).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/products", "/reactive/products"})
+    void testSaveVisibleToRepository(String path) throws Exception {
+        Cache cache = cacheManager.getCache("products");
+        cache.put("api-new", Product.builder().id("api-new").name("Lama").price(1L).build());
+
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"id\":\"api-new\",\"name\":\"Sabun\",\"price\":777777,\"ttl\":60}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+
+        Product product = productRepository.findById("api-new").orElseThrow();
+        assertEquals("Sabun", product.getName());
+        assertEquals(777_777L, product.getPrice());
+        assertEquals(List.of("api-new"), productRepository.findByPriceBetween(777_777L, 777_777L, PageRequest.of(0, 10))
+                .getContent().stream().map(Product::getId).toList());
+        // entry cache ikut ditulis script yang sama, tidak tertinggal value lama
+        assertEquals("Sabun", cache.get("api-new", Product.class).getName());
+
+        productRepository.deleteById("api-new");
+        cache.evict("api-new");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/products/", "/reactive/products/"})
+    void testConcurrentRequests(String path) throws Exception {
+        int total = 2_000;
+        int concurrency = 256;
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger ok = new AtomicInteger();
+        List<CompletableFuture<?>> futures = new ArrayList<>(total);
+
+        for (int i = 0; i < total; i++) {
+            inFlight.acquire();
+            HttpRequest request = HttpRequest.newBuilder(uri(path + "api-" + (i % PRODUCTS))).GET().build();
+            futures.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (response != null && response.statusCode() == 200) {
+                            ok.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+
+        assertEquals(total, ok.get());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,61 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "products.sweeper.expiration-events=true")
+public class ProductSweeperTest {
+
+    @Autowired
+    private ProductSweeper productSweeper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void testSweepRemovesIdsWithoutHash() {
+        for (int i = 0; i < 10; i++) {
+            productRepository.save(Product.builder().id("SW-" + i).name("contoh").price((long) i).ttl(-1L).build());
+        }
+        // DEL tidak memicu event expired, hanya sweeper yang bisa membuang id-nya
+        for (int i = 0; i < 10; i += 2) {
+            redisTemplate.delete("products:SW-" + i);
+        }
+
+        long removedBefore = productSweeper.getRemoved();
+        productSweeper.sweepAll();
+
+        for (int i = 0; i < 10; i++) {
+            boolean alive = i % 2 == 1;
+            assertEquals(alive, redisTemplate.opsForSet().isMember("products", "SW-" + i));
+            assertEquals(alive, redisTemplate.opsForZSet().score("products:idx:price", "SW-" + i) != null);
+        }
+        assertTrue(productSweeper.getRemoved() - removedBefore >= 5);
+        assertEquals("contoh", productRepository.findById("SW-1").orElseThrow().getName());
+    }
+
+    @Test
+    void testExpiredEventRemovesId() throws InterruptedException {
+        long eventsBefore = productSweeper.getExpiredEvents();
+        productRepository.save(Product.builder().id("SX-1").name("contoh").price(10L).ttl(1L).build());
+        assertTrue(redisTemplate.opsForSet().isMember("products", "SX-1"));
+
+        // id dari event diantrikan lalu dibuang di sweepStep terjadwal berikutnya
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (redisTemplate.opsForSet().isMember("products", "SX-1") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertFalse(redisTemplate.opsForSet().isMember("products", "SX-1"));
+        assertNull(redisTemplate.opsForZSet().score("products:idx:price", "SX-1"));
+        assertTrue(productSweeper.getExpiredEvents() > eventsBefore);
+        assertEquals(0, productSweeper.getExpiredDropped());
+    }
+}
@@ -0,0 +1,116 @@
+package com.peppo.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "products.transfer.export-batch-size=7",
+        "products.transfer.load-batch-size=7",
+        "products.transfer.load-parallelism=3",
+        "cache.near.enabled=true"
+})
+public class ProductTransferTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductExporter productExporter;
+
+    @Autowired
+    private ProductBulkLoader productBulkLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void testExportThenLoad(@TempDir Path directory) throws Exception {
+        productRepository.deleteAll();
+        for (int i = 0; i < 50; i++) {
+            productRepository.save(Product.builder().id("T-" + i).name("contoh " + i).price((long) i).build());
+        }
+
+        Path file = directory.resolve("products.ndjson");
+        assertEquals(50, productExporter.export(file));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(50, lines.size());
+        Set<String> ids = new HashSet<>();
+        for (String line : lines) {
+            ids.add(objectMapper.readValue(line, Product.class).getId());
+        }
+        assertEquals(50, ids.size());
+
+        productRepository.deleteAll();
+        assertEquals(50, productBulkLoader.load(file));
+
+        assertEquals(50, productRepository.count());
+        assertEquals("contoh 7", productRepository.findById("T-7").orElseThrow().getName());
+        assertEquals(11, productRepository.findByPriceBetween(10, 20, PageRequest.of(0, 100)).getTotalElements());
+    }
+
+    @Test
+    void testLoadInvalidLine() {
+        productRepository.deleteAll();
+        String ndjson = """
+                {"id":"L-1","name":"Sabun","price":5000}
+
+                {"id":"L-2","name":"Shampoo","price":50000}
+                bukan json
+                """;
+
+        assertThrows(Exception.class, () ->
+                productBulkLoader.load(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testLoadSkipsBlankLines() throws Exception {
+        productRepository.deleteAll();
+        String ndjson = """
+                {"id":"L-1","name":"Sabun","price":5000}
+
+                {"id":"L-2","name":"Shampoo","price":50000}
+                """;
+
+        assertEquals(2, productBulkLoader.load(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+        var output = new ByteArrayOutputStream();
+        assertEquals(2, productExporter.export(output));
+        assertEquals(2, output.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    void testLoadEvictsCachedProducts() throws Exception {
+        Cache cache = cacheManager.getCache("products");
+        // entry lama di redis dan di L1 near cache
+        cache.put("L-3", Product.builder().id("L-3").name("Sabun lama").price(1_000L).build());
+        assertEquals("Sabun lama", cache.get("L-3", Product.class).getName());
+
+        String ndjson = """
+                {"id":"L-3","name":"Sabun baru","price":5000}
+                """;
+        assertEquals(1, productBulkLoader.load(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+
+        assertNull(cache.get("L-3"));
+        assertEquals("Sabun baru", productRepository.findById("L-3").orElseThrow().getName());
+    }
+}
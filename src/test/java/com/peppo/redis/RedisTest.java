@@ -6,6 +6,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.geo.Circle;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.GeoResults;
@@ -51,6 +53,9 @@ public class RedisTest {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSweeper productSweeper;
+
     @Test
     void testRedisTemplate() {
         assertNotNull(redisTemplate);
@@ -337,6 +342,47 @@ public class RedisTest {
         assertFalse(productRepository.findById("1").isPresent());
     }
 
+    @Test
+    void testFindByPriceBetween() {
+        redisTemplate.delete("products:idx:price");
+        for (int i = 1; i <= 10; i++) {
+            productRepository.save(Product.builder()
+                    .id("range-" + i)
+                    .name("Product " + i)
+                    .price(i * 10_000L)
+                    .build());
+        }
+
+        Page<Product> page = productRepository.findByPriceBetween(30_000L, 80_000L, PageRequest.of(0, 4));
+        assertEquals(6, page.getTotalElements());
+        assertEquals(List.of("range-3", "range-4", "range-5", "range-6"),
+                page.getContent().stream().map(Product::getId).toList());
+
+        Page<Product> next = productRepository.findByPriceBetween(30_000L, 80_000L, page.nextPageable());
+        assertEquals(List.of("range-7", "range-8"), next.getContent().stream().map(Product::getId).toList());
+
+        // update & delete ikut memperbarui index
+        productRepository.save(Product.builder().id("range-4").name("Product 4").price(500_000L).build());
+        productRepository.deleteById("range-5");
+        assertEquals(List.of("range-3", "range-6", "range-7", "range-8"),
+                productRepository.findByPriceBetween(30_000L, 80_000L, PageRequest.of(0, 10))
+                        .getContent().stream().map(Product::getId).toList());
+
+        // hash yang hilang tanpa lewat repository dilewati query, index tidak diubah sampai sweeper jalan
+        redisTemplate.delete("products:range-6");
+        assertEquals(List.of("range-3", "range-7", "range-8"),
+                productRepository.findByPriceBetween(30_000L, 80_000L, PageRequest.of(0, 10))
+                        .getContent().stream().map(Product::getId).toList());
+        assertNotNull(redisTemplate.opsForZSet().score("products:idx:price", "range-6"));
+        productSweeper.sweepAll();
+        assertNull(redisTemplate.opsForZSet().score("products:idx:price", "range-6"));
+
+        for (int i = 1; i <= 10; i++) {
+            productRepository.deleteById("range-" + i);
+        }
+        assertEquals(0L, redisTemplate.opsForZSet().size("products:idx:price"));
+    }
+
     @Test
     void testCache() {
         Cache cache = cacheManager.getCache("scores");
@@ -386,4 +432,21 @@ public class RedisTest {
         Product product1 = productService.getProduct("P-003");
         assertEquals(product1, product);
     }
+
+    @Test
+    void testGetProducts() {
+        Product saved = Product.builder().id("P-004").name("Sabun").price(5_000L).build();
+        productService.saveProduct(saved);
+        productService.removeProduct("P-005");
+
+        List<Product> products = productService.getProducts(List.of("P-005", "P-004", "P-005"));
+        assertThat(products, hasSize(3));
+        assertEquals("P-005", products.get(0).getId());
+        assertEquals(saved, products.get(1));
+        assertEquals(products.get(0), products.get(2));
+
+        // P-005 sudah ditulis balik ke cache oleh getProducts
+        Cache cache = cacheManager.getCache("products");
+        assertEquals(products.get(0), cache.get("P-005", Product.class));
+    }
 }
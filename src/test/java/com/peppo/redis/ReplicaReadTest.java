@@ -0,0 +1,59 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * butuh replica lokal: redis-server --port 6380 --replicaof localhost 6379
+ */
+@SpringBootTest(properties = {
+        "redis.read.policy=replica-preferred",
+        "redis.read.replicas=localhost:6380",
+        "redis.read.read-your-writes-window=1s"
+})
+public class ReplicaReadTest {
+
+    @Autowired
+    private ReplicaReads replicaReads;
+
+    @Autowired
+    private RedisKeyValueAdapter redisKeyValueAdapter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void testReplicaReadsEnabled() {
+        assertTrue(replicaReads.isEnabled());
+        assertInstanceOf(ReplicaReadKeyValueAdapter.class, redisKeyValueAdapter);
+        assertEquals("PONG", replicaReads.getRedisTemplate().execute((RedisCallback<String>) connection -> connection.ping()));
+    }
+
+    @Test
+    void testReadYourWrites() throws InterruptedException {
+        productRepository.save(Product.builder().id("R-001").name("contoh").price(10L).build());
+        assertFalse(replicaReads.fromReplica("products:R-001"));
+        assertEquals("contoh", productRepository.findById("R-001").orElseThrow().getName());
+
+        Thread.sleep(Duration.ofMillis(1_500));
+        assertTrue(replicaReads.fromReplica("products:R-001"));
+        assertEquals("contoh", productRepository.findById("R-001").orElseThrow().getName());
+    }
+
+    @Test
+    void testCacheReadAfterPut() {
+        Product product = Product.builder().id("R-002").name("baru").price(20L).build();
+        productService.saveProduct(product);
+        assertEquals(product, productService.getProduct("R-002"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RotatingBloomFilterTest {
+
+    @Test
+    void testNoFalseNegatives() {
+        var filter = new RotatingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("order-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("order-" + i));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRate() {
+        var filter = new RotatingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 9_999; i++) {
+            filter.put("order-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives " + falsePositives);
+        assertTrue(filter.getExpectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void testRotationForgetsOldestGeneration() {
+        var filter = new RotatingBloomFilter(1_000, 0.001);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("first-" + i);
+        }
+        for (int i = 0; i < 999; i++) {
+            filter.put("second-" + i);
+        }
+        assertTrue(filter.mightContain("first-1"));
+        assertTrue(filter.mightContain("second-1"));
+
+        // generasi kedua penuh, generasi pertama dibuang
+        filter.put("second-999");
+        int remembered = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (filter.mightContain("first-" + i)) {
+                remembered++;
+            }
+        }
+        assertTrue(remembered < 20, "remembered " + remembered);
+        assertTrue(filter.mightContain("second-1"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "cache.near.enabled=true")
+public class ScriptedProductWriterTest {
+
+    @Autowired
+    private ScriptedProductWriter scriptedProductWriter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void testSameFormatAsRepositoryAndCache() {
+        Product product = Product.builder().id("LUA-1").name("Shampoo").price(50_000L).ttl(-1L).build();
+        scriptedProductWriter.save(product);
+
+        assertEquals(product, productRepository.findById("LUA-1").orElseThrow());
+        assertTrue(redisTemplate.opsForSet().isMember("products", "LUA-1"));
+        assertEquals(50_000.0, redisTemplate.opsForZSet().score("products:idx:price", "LUA-1"));
+        assertEquals(product, cacheManager.getCache("products").get("LUA-1", Product.class));
+        assertTrue(productRepository.findByPriceBetween(50_000, 50_000, PageRequest.of(0, 10))
+                .getContent().contains(product));
+
+        Product updated = Product.builder().id("LUA-1").name("Shampoo").price(null).ttl(60L).build();
+        scriptedProductWriter.save(updated);
+        assertNull(redisTemplate.opsForZSet().score("products:idx:price", "LUA-1"));
+        assertTrue(redisTemplate.getExpire("products:LUA-1") > 0);
+        assertEquals(updated, productService.getProduct("LUA-1"));
+
+        assertTrue(scriptedProductWriter.remove("LUA-1"));
+        assertFalse(productRepository.existsById("LUA-1"));
+        assertFalse(redisTemplate.opsForSet().isMember("products", "LUA-1"));
+        assertNull(cacheManager.getCache("products").get("LUA-1"));
+        assertFalse(scriptedProductWriter.remove("LUA-1"));
+    }
+
+    @Test
+    void testScriptReloadedAfterFlush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+
+        scriptedProductWriter.save(Product.builder().id("LUA-2").name("Sabun").price(5_000L).build());
+        assertEquals("Sabun", productRepository.findById("LUA-2").orElseThrow().getName());
+        scriptedProductWriter.remove("LUA-2");
+    }
+}
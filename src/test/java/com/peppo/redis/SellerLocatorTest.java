@@ -0,0 +1,88 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.domain.geo.Metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class SellerLocatorTest {
+
+    @Autowired
+    private SellerLocator sellerLocator;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete("sellers");
+        Map<String, Point> sellers = new LinkedHashMap<>();
+        sellers.put("Toko A", new Point(106.822812, -6.181606));
+        sellers.put("Toko B", new Point(106.824483, -6.182035));
+        sellers.put("Toko C", new Point(106.845599, -6.208763));
+        sellerLocator.importSellers(sellers);
+    }
+
+    @Test
+    void testGeohash() {
+        var grid = new GeoGrid(6);
+        assertEquals("u4pruy", grid.geohash(grid.cellOf(new Point(10.40744, 57.64911))));
+        assertEquals("qqguyf", grid.geohash(grid.cellOf(new Point(106.822812, -6.181606))));
+    }
+
+    @Test
+    void testSearchRadiusFromCache() {
+        GeoResults<RedisGeoCommands.GeoLocation<String>> sellers =
+                sellerLocator.searchRadius(new Point(106.823232, -6.182310), new Distance(1, Metrics.KILOMETERS));
+        assertEquals(List.of("Toko A", "Toko B"), names(sellers));
+        assertEquals(0.0910, sellers.getContent().get(0).getDistance().getValue(), 0.001);
+
+        long hits = sellerLocator.getCacheHits();
+        GeoResults<RedisGeoCommands.GeoLocation<String>> nearby =
+                sellerLocator.searchRadius(new Point(106.823300, -6.182300), new Distance(800, Metrics.METERS));
+        assertEquals(List.of("Toko A", "Toko B"), names(nearby));
+        assertEquals(hits + 1, sellerLocator.getCacheHits());
+
+        assertEquals(List.of("Toko A", "Toko B", "Toko C"), names(sellerLocator.searchRadius(
+                new Point(106.823232, -6.182310), new Distance(5, Metrics.KILOMETERS))));
+        assertEquals(List.of("Toko A", "Toko B", "Toko C"), names(sellerLocator.searchRadius(
+                new Point(106.823232, -6.182310), new Distance(50, Metrics.KILOMETERS))));
+    }
+
+    @Test
+    void testSearchBox() {
+        assertEquals(List.of("Toko A", "Toko B"), names(sellerLocator.searchBox(new Point(106.823232, -6.182310),
+                new Distance(1, Metrics.KILOMETERS), new Distance(1, Metrics.KILOMETERS))));
+    }
+
+    @Test
+    void testMoveInvalidatesCell() {
+        Point center = new Point(106.823232, -6.182310);
+        assertEquals(List.of("Toko A", "Toko B"), names(sellerLocator.searchRadius(center, new Distance(1, Metrics.KILOMETERS))));
+
+        sellerLocator.saveSeller("Toko C", new Point(106.823000, -6.182000));
+        assertEquals(List.of("Toko C", "Toko A", "Toko B"),
+                names(sellerLocator.searchRadius(center, new Distance(1, Metrics.KILOMETERS))));
+
+        sellerLocator.removeSeller("Toko A");
+        assertEquals(List.of("Toko C", "Toko B"),
+                names(sellerLocator.searchRadius(center, new Distance(1, Metrics.KILOMETERS))));
+    }
+
+    private static List<String> names(GeoResults<RedisGeoCommands.GeoLocation<String>> results) {
+        return results.getContent().stream().map(result -> result.getContent().getName()).toList();
+    }
+}
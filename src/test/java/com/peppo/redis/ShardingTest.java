@@ -0,0 +1,72 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * butuh tiga redis-server lokal: redis-server --port 7001, 7002 dan 7003
+ */
+@SpringBootTest(properties = {
+        "redis.sharding.enabled=true",
+        "redis.sharding.nodes=localhost:7001,localhost:7002,localhost:7003"
+})
+public class ShardingTest {
+
+    @Autowired
+    private RedisShards redisShards;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void testRepositoryAcrossShards() {
+        productRepository.deleteAll();
+        for (int i = 0; i < 30; i++) {
+            productRepository.save(Product.builder().id("S-" + i).name("contoh").price((long) i).build());
+        }
+
+        Set<RedisShards.Shard> used = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            RedisShards.Shard shard = redisShards.shardFor("products:S-" + i);
+            assertTrue(shard.redisTemplate().hasKey("products:S-" + i));
+            used.add(shard);
+        }
+        assertTrue(used.size() > 1);
+
+        assertEquals(30, productRepository.count());
+        assertEquals(30, productRepository.findAll().size());
+        assertEquals("contoh", productRepository.findById("S-7").orElseThrow().getName());
+
+        Page<Product> page = productRepository.findByPriceBetween(5, 20, PageRequest.of(1, 5));
+        assertEquals(16, page.getTotalElements());
+        assertEquals(List.of(10L, 11L, 12L, 13L, 14L), page.getContent().stream().map(Product::getPrice).toList());
+    }
+
+    @Test
+    void testBulkCacheAcrossShards() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add("B-" + i);
+            productService.removeProduct("B-" + i);
+        }
+
+        List<Product> loaded = productService.getProducts(ids);
+        List<Product> cached = productService.getProducts(ids);
+        assertEquals(loaded, cached);
+        assertEquals(ids, cached.stream().map(Product::getId).toList());
+        assertEquals(loaded.get(3), productService.getProduct("B-3"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.peppo.redis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "orders.consumer.consumers=0")
+public class StreamDeduplicatorTest {
+
+    private static final String STREAM = "orders-dedup-test";
+
+    private static final String KEY_PREFIX = "orders:processed:dedup-test:";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final OrderConsumerProperties consumerProperties = new OrderConsumerProperties();
+
+    @BeforeEach
+    void setUp() {
+        clean();
+        consumerProperties.setStream(STREAM);
+        redisTemplate.opsForStream().createGroup(STREAM, ReadOffset.from("0"), consumerProperties.getGroup());
+    }
+
+    @AfterEach
+    void clean() {
+        redisTemplate.delete(STREAM);
+        redisTemplate.delete(redisTemplate.keys(KEY_PREFIX + "*"));
+    }
+
+    @Test
+    void testNewThenDuplicate() {
+        var registry = new SimpleMeterRegistry();
+        var deduplicator = deduplicator(registry);
+        ObjectRecord<String, Order> record = deliver("O-1");
+
+        assertEquals(StreamDeduplicator.Claim.NEW, deduplicator.claim("O-1"));
+        // NEW tidak menulis apa pun sebelum acknowledge
+        assertFalse(redisTemplate.hasKey(KEY_PREFIX + "O-1"));
+
+        deduplicator.acknowledge(STREAM, consumerProperties.getGroup(), record.getId(), "O-1", StreamDeduplicator.Claim.NEW);
+        assertTrue(redisTemplate.hasKey(KEY_PREFIX + "O-1"));
+        assertEquals(0L, pending());
+
+        assertEquals(StreamDeduplicator.Claim.DUPLICATE, deduplicator.claim("O-1"));
+        assertEquals(1, count(registry, "new"));
+        assertEquals(1, count(registry, "duplicate"));
+    }
+
+    @Test
+    void testClaimedWhenMarkerIsMissing() {
+        var registry = new SimpleMeterRegistry();
+        var deduplicator = deduplicator(registry);
+        deduplicator.acknowledge(STREAM, consumerProperties.getGroup(), deliver("O-2").getId(), "O-2",
+                StreamDeduplicator.Claim.NEW);
+
+        // filter bilang mungkin sudah ada, tapi penanda di redis tidak ada (false positive atau sudah expire)
+        redisTemplate.delete(KEY_PREFIX + "O-2");
+        assertEquals(StreamDeduplicator.Claim.CLAIMED, deduplicator.claim("O-2"));
+        assertTrue(redisTemplate.hasKey(KEY_PREFIX + "O-2"));
+        assertEquals(1, count(registry, "false_positive"));
+    }
+
+    @Test
+    void testClaimReleasedWhenListenerFails() {
+        var deduplicator = deduplicator(new SimpleMeterRegistry());
+        deduplicator.acknowledge(STREAM, consumerProperties.getGroup(), deliver("O-3").getId(), "O-3",
+                StreamDeduplicator.Claim.NEW);
+        redisTemplate.delete(KEY_PREFIX + "O-3");
+
+        OrderListener orderListener = mock(OrderListener.class);
+        var listener = new AcknowledgingOrderListener(orderListener, redisTemplate, consumerProperties, deduplicator,
+                new SimpleMeterRegistry());
+        ObjectRecord<String, Order> record = deliver("O-3");
+        doThrow(new IllegalStateException("gagal")).doNothing().when(orderListener).onMessage(any());
+
+        assertThrows(IllegalStateException.class, () -> listener.onMessage(record));
+        // penanda dilepas dan entry tetap pending, redelivery diproses lagi
+        assertFalse(redisTemplate.hasKey(KEY_PREFIX + "O-3"));
+        assertEquals(1L, pending());
+
+        listener.onMessage(record);
+        verify(orderListener, times(2)).onMessage(any());
+        assertTrue(redisTemplate.hasKey(KEY_PREFIX + "O-3"));
+        assertEquals(0L, pending());
+
+        // redelivery setelah selesai tidak diteruskan ke OrderListener, cukup di-ACK
+        listener.onMessage(deliver("O-3"));
+        verify(orderListener, times(2)).onMessage(any());
+        assertEquals(0L, pending());
+    }
+
+    @Test
+    void testLateDuplicateAfterReclaim() {
+        // instance pertama memproses O-4, instance kedua (filter kosong, misalnya setelah reclaim) memproses ulang
+        var first = deduplicator(new SimpleMeterRegistry());
+        first.acknowledge(STREAM, consumerProperties.getGroup(), deliver("O-4").getId(), "O-4",
+                StreamDeduplicator.Claim.NEW);
+
+        var registry = new SimpleMeterRegistry();
+        var second = deduplicator(registry);
+        ObjectRecord<String, Order> reclaimed = deliver("O-4");
+        assertEquals(StreamDeduplicator.Claim.NEW, second.claim("O-4"));
+        second.acknowledge(STREAM, consumerProperties.getGroup(), reclaimed.getId(), "O-4", StreamDeduplicator.Claim.NEW);
+
+        assertEquals(1, count(registry, "late_duplicate"));
+        assertEquals(0L, pending());
+        // setelah itu instance kedua juga mengenali O-4
+        assertEquals(StreamDeduplicator.Claim.DUPLICATE, second.claim("O-4"));
+    }
+
+    private StreamDeduplicator deduplicator(SimpleMeterRegistry registry) {
+        var properties = new OrderDedupProperties();
+        properties.setWindowSize(1_000);
+        properties.setKeyPrefix(KEY_PREFIX);
+        return new StreamDeduplicator(redisTemplate, properties, registry);
+    }
+
+    /**
+     * XADD lalu XREADGROUP, entry-nya pending sampai di-ACK
+     */
+    private ObjectRecord<String, Order> deliver(String orderId) {
+        var operations = redisTemplate.opsForStream();
+        operations.add(ObjectRecord.create(STREAM, new Order(orderId, 1000L)));
+        List<ObjectRecord<String, Order>> records = operations.read(Order.class,
+                Consumer.from(consumerProperties.getGroup(), "dedup-consumer"),
+                StreamOffset.create(STREAM, ReadOffset.lastConsumed()));
+        assertEquals(1, records.size());
+        return records.get(0);
+    }
+
+    private long pending() {
+        return redisTemplate.opsForStream().pending(STREAM, consumerProperties.getGroup()).getTotalPendingMessages();
+    }
+
+    private static double count(SimpleMeterRegistry registry, String result) {
+        return registry.counter("stream.dedup.messages", "result", result).count();
+    }
+}
@@ -0,0 +1,92 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "traffic.flush-interval=3600000")
+public class TrafficCounterTest {
+
+    private static final Instant AT = Instant.parse("2024-03-01T10:15:30Z");
+
+    @Autowired
+    private TrafficCounter trafficCounter;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        trafficCounter.flush();
+        redisTemplate.delete(List.of(
+                trafficCounter.key(ChronoUnit.MINUTES, AT),
+                trafficCounter.key(ChronoUnit.MINUTES, AT.plusSeconds(60)),
+                trafficCounter.key(ChronoUnit.HOURS, AT),
+                trafficCounter.key(ChronoUnit.DAYS, AT)));
+    }
+
+    @Test
+    void testKeys() {
+        assertEquals("traffics:m:202403011015", trafficCounter.key(ChronoUnit.MINUTES, AT));
+        assertEquals("traffics:h:2024030110", trafficCounter.key(ChronoUnit.HOURS, AT));
+        assertEquals("traffics:d:20240301", trafficCounter.key(ChronoUnit.DAYS, AT));
+    }
+
+    @Test
+    void testBufferedUntilFlush() {
+        trafficCounter.record("haris", AT);
+        trafficCounter.record("kurniawan", AT);
+        trafficCounter.record("haris", AT);
+
+        assertEquals(2, trafficCounter.getBuffered());
+        assertEquals(0L, trafficCounter.count(ChronoUnit.MINUTES, AT));
+
+        trafficCounter.flush();
+        assertEquals(0, trafficCounter.getBuffered());
+        assertEquals(2L, trafficCounter.count(ChronoUnit.MINUTES, AT));
+    }
+
+    @Test
+    void testRollup() {
+        trafficCounter.record("haris", AT);
+        trafficCounter.record("kurniawan", AT);
+        trafficCounter.record("ahmad", AT);
+        trafficCounter.flush();
+
+        trafficCounter.record("haris", AT.plusSeconds(60));
+        trafficCounter.record("popi", AT.plusSeconds(60));
+        trafficCounter.record("lestari", AT.plusSeconds(60));
+        trafficCounter.flush();
+
+        assertEquals(3L, trafficCounter.count(ChronoUnit.MINUTES, AT));
+        assertEquals(3L, trafficCounter.count(ChronoUnit.MINUTES, AT.plusSeconds(60)));
+        assertEquals(5L, trafficCounter.count(ChronoUnit.HOURS, AT));
+        assertEquals(5L, trafficCounter.count(ChronoUnit.DAYS, AT));
+        assertEquals(5L, trafficCounter.countUnion(ChronoUnit.MINUTES, AT, AT.plusSeconds(60)));
+
+        Long ttl = redisTemplate.getExpire(trafficCounter.key(ChronoUnit.DAYS, AT));
+        assertTrue(ttl != null && ttl > 0);
+    }
+
+    @Test
+    void testManyVisitorsFewCommands() {
+        long before = trafficCounter.getCommands();
+        for (int i = 0; i < 10_000; i++) {
+            trafficCounter.record("visitor-" + (i % 2_500), AT);
+        }
+        trafficCounter.flush();
+
+        // 3 PFADD + EXPIRE + PFMERGE/EXPIRE jam + PFMERGE/EXPIRE hari
+        assertEquals(8, trafficCounter.getCommands() - before);
+        long count = trafficCounter.count(ChronoUnit.MINUTES, AT);
+        assertTrue(Math.abs(count - 2_500) < 2_500 * 0.03, "count " + count);
+    }
+}
@@ -0,0 +1,205 @@
+package com.peppo.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindTest {
+
+    private final BulkCacheOperations bulkCacheOperations = new BulkCacheOperations(null, null);
+
+    @Test
+    void testCoalescesAndReadsOwnWrites() {
+        var delegate = new ConcurrentMapCache("products");
+        var cache = new WriteBehindCache(delegate, properties(10, 100), bulkCacheOperations, () -> {
+        });
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("P-001", i);
+        }
+        assertEquals(99, cache.get("P-001", Integer.class));
+        assertNull(delegate.get("P-001"));
+        assertEquals(99, cache.getCoalesced());
+        assertEquals(1, cache.getPendingSize());
+
+        cache.flush();
+        assertEquals(99, delegate.get("P-001", Integer.class));
+        assertEquals(1, cache.getFlushed());
+        assertEquals(0, cache.getPendingSize());
+    }
+
+    @Test
+    void testEvict() {
+        var delegate = new ConcurrentMapCache("products");
+        var cache = new WriteBehindCache(delegate, properties(10, 100), bulkCacheOperations, () -> {
+        });
+        delegate.put("P-001", "lama");
+
+        cache.evict("P-001");
+        assertNull(cache.get("P-001"));
+        // value lama di delegate tidak boleh terbaca sebelum evict-nya ter-flush
+        assertEquals("baru", cache.get("P-001", () -> "baru"));
+        cache.flush();
+        assertEquals("baru", delegate.get("P-001", String.class));
+
+        cache.evict("P-001");
+        cache.flush();
+        assertNull(delegate.get("P-001"));
+    }
+
+    @Test
+    void testBackpressure() {
+        var properties = properties(2, 100);
+        properties.setOfferTimeout(Duration.ofMillis(50));
+        var cache = new WriteBehindCache(new ConcurrentMapCache("products"), properties, bulkCacheOperations, () -> {
+        });
+
+        cache.put("P-001", "contoh");
+        cache.put("P-002", "contoh");
+        assertThrows(RejectedExecutionException.class, () -> cache.put("P-003", "contoh"));
+        // key yang sudah pending tidak butuh tempat baru
+        cache.put("P-001", "baru");
+        assertEquals(1, cache.getRejected());
+
+        cache.flush();
+        cache.put("P-003", "contoh");
+        assertEquals(1, cache.getPendingSize());
+    }
+
+    @Test
+    void testBatchFullWakesUpFlusher() {
+        var wakeUps = new AtomicInteger();
+        var cache = new WriteBehindCache(new ConcurrentMapCache("products"), properties(10, 3), bulkCacheOperations,
+                wakeUps::incrementAndGet);
+
+        cache.put("P-001", "contoh");
+        cache.put("P-002", "contoh");
+        cache.put("P-001", "baru");
+        assertEquals(0, wakeUps.get());
+        cache.put("P-003", "contoh");
+        assertEquals(1, wakeUps.get());
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        var failing = new AtomicBoolean(true);
+        var delegate = new ConcurrentMapCache("products") {
+            @Override
+            public void put(Object key, Object value) {
+                if (failing.get()) {
+                    throw new IllegalStateException("redis down");
+                }
+                super.put(key, value);
+            }
+        };
+        var cache = new WriteBehindCache(delegate, properties(10, 100), bulkCacheOperations, () -> {
+        });
+
+        cache.put("P-001", "contoh");
+        cache.flush();
+        assertEquals(1, cache.getFailed());
+        assertEquals(1, cache.getPendingSize());
+        assertEquals("contoh", cache.get("P-001", String.class));
+
+        failing.set(false);
+        cache.flush();
+        assertEquals("contoh", delegate.get("P-001", String.class));
+        assertEquals(0, cache.getPendingSize());
+    }
+
+    @Test
+    void testBulkGetSeesPendingWrites() {
+        var delegate = new ConcurrentMapCache("products");
+        var cache = new WriteBehindCache(delegate, properties(10, 100), bulkCacheOperations, () -> {
+        });
+        delegate.put("P-002", "lama");
+        delegate.put("P-003", "lama");
+
+        cache.put("P-001", "baru");
+        cache.evict("P-003");
+
+        Map<String, Cache.ValueWrapper> cached = bulkCacheOperations.getAll(cache, List.of("P-001", "P-002", "P-003"));
+        assertEquals("baru", cached.get("P-001").get());
+        assertEquals("lama", cached.get("P-002").get());
+        assertFalse(cached.containsKey("P-003"));
+    }
+
+    @Test
+    void testFlushListenerAfterWrite() {
+        var delegate = new ConcurrentMapCache("products");
+        var cache = new WriteBehindCache(delegate, properties(10, 100), bulkCacheOperations, () -> {
+        });
+        List<String> notified = new ArrayList<>();
+        cache.setFlushListener(keys -> keys.forEach(key -> {
+            // invalidation baru dikirim setelah value baru ada di delegate
+            assertEquals(key.equals("P-001") ? "baru" : null, delegate.get(key, String.class));
+            notified.add(key);
+        }));
+        delegate.put("P-002", "lama");
+
+        cache.put("P-001", "baru");
+        cache.evict("P-002");
+        assertTrue(notified.isEmpty());
+
+        cache.flush();
+        assertEquals(List.of("P-001", "P-002"), notified);
+    }
+
+    @Test
+    void testDirectWriteReplacesPendingEntry() {
+        var delegate = new ConcurrentMapCache("products");
+        var cache = new WriteBehindCache(delegate, properties(10, 100), bulkCacheOperations, () -> {
+        });
+        cache.put("P-001", "lama");
+        cache.put("P-002", "lama");
+
+        // P-001 baru disimpan dan P-002 baru dihapus langsung di redis oleh jalur lain
+        cache.putIfPending("P-001", "baru");
+        cache.evictIfPending("P-002");
+        cache.putIfPending("P-003", "baru");
+        assertEquals(2, cache.getPendingSize());
+
+        cache.flush();
+        assertEquals("baru", delegate.get("P-001", String.class));
+        assertNull(delegate.get("P-002"));
+        assertNull(delegate.get("P-003"));
+    }
+
+    @Test
+    void testWriteAfterStopNotOverwrittenByFinalFlush() {
+        var delegate = new ConcurrentMapCache("products");
+        var cache = new WriteBehindCache(delegate, properties(10, 100), bulkCacheOperations, () -> {
+        });
+        cache.put("P-001", "lama");
+        cache.put("P-002", "lama");
+
+        // put / evict antara stop dan flush terakhir di WriteBehindFlusher.stop
+        cache.stop();
+        cache.put("P-001", "baru");
+        cache.evict("P-002");
+        assertEquals("baru", delegate.get("P-001", String.class));
+        assertEquals(0, cache.getPendingSize());
+
+        cache.flush();
+        assertEquals("baru", delegate.get("P-001", String.class));
+        assertNull(delegate.get("P-002"));
+    }
+
+    private static WriteBehindProperties properties(int maxPending, int batchSize) {
+        var properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setMaxPending(maxPending);
+        properties.setBatchSize(batchSize);
+        return properties;
+    }
+}